@@ -0,0 +1,190 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * An AnsiScreen keeps a frame in place at the top of an ANSI terminal and only sends what changed.
+ * The first frame clears the screen and is drawn in full, and everything below it becomes a scroll region,
+ * so the messages of the game scroll underneath the Maps instead of pushing them off the screen.
+ * Every later frame is compared with the last one the terminal received, and only the changed characters
+ * are sent, each run of them after a cursor move. The cursor is saved before and restored after,
+ * so the messages below the frame carry on where they left off.
+ */
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Random;
+
+public class AnsiScreen {
+    private static final String ESC = "\u001b[";
+    private static final String SAVE_CURSOR = "\u001b7";
+    private static final String RESTORE_CURSOR = "\u001b8";
+    private static final int MERGE_GAP = 3; // unchanged characters between two runs that are cheaper to resend than a cursor move
+
+    private final Writer out;
+    private char[] previous; // the last frame the terminal received, null before the first frame
+    private int previousLength;
+
+    /**
+     * Constructor method for an AnsiScreen
+     * @param w the Writer connected to the terminal
+     */
+    public AnsiScreen(Writer w) {
+        this.out = w;
+        this.previous = null;
+        this.previousLength = 0;
+    }
+
+    /**
+     * Show a frame on the terminal, sending only the differences from the last frame
+     * @param frame the characters of the frame, lines end with '\n'
+     * @param length the number of characters of frame to use
+     * @postcond the terminal shows the frame at its top, and the frame is kept for the next update
+     * @throws IOException if the Writer fails
+     */
+    public void update(char[] frame, int length) throws IOException {
+        if (this.previous == null || !this.sameLayout(frame, length)) {
+            this.redraw(frame, length);
+        }
+        else {
+            boolean cursorSaved = false;
+            int row = 1;
+            int col = 1;
+            int i = 0;
+            while (i < length) {
+                if (frame[i] == '\n') {
+                    row += 1;
+                    col = 1;
+                    i += 1;
+                }
+                else if (frame[i] == this.previous[i]) {
+                    col += 1;
+                    i += 1;
+                }
+                else {
+                    // find the end of this run, taking in short gaps of unchanged characters
+                    int end = i + 1;
+                    int scan = end;
+                    while (scan < length && frame[scan] != '\n' && scan - end <= MERGE_GAP) {
+                        if (frame[scan] != this.previous[scan]) {
+                            end = scan + 1;
+                        } else {}
+                        scan += 1;
+                    }
+                    if (!cursorSaved) {
+                        this.out.write(SAVE_CURSOR);
+                        cursorSaved = true;
+                    } else {}
+                    this.out.write(ESC + row + ";" + col + "H");
+                    this.out.write(frame, i, end - i);
+                    col += end - i;
+                    i = end;
+                }
+            }
+            if (cursorSaved) {
+                this.out.write(RESTORE_CURSOR);
+            } else {}
+        }
+        System.arraycopy(frame, 0, this.previous, 0, length);
+        this.previousLength = length;
+        this.out.flush();
+    }
+
+    /**
+     * Helper method for update(),
+     * determine if a frame has its line breaks in the same places as the last frame
+     * @param frame the characters of the frame
+     * @param length the number of characters of frame to use
+     * @return true if only characters inside the lines changed, false if the frame has to be drawn in full
+     */
+    private boolean sameLayout(char[] frame, int length) {
+        if (length != this.previousLength) {
+            return false;
+        } else {}
+        for (int i = 0; i < length; i++) {
+            if ((frame[i] == '\n') != (this.previous[i] == '\n')) {
+                return false;
+            } else {}
+        }
+        return true;
+    }
+
+    /**
+     * Helper method for update(),
+     * clear the terminal, draw the whole frame at the top, and make the rest of the screen a scroll region
+     * @param frame the characters of the frame
+     * @param length the number of characters of frame to use
+     * @postcond this.previous can hold the frame
+     * @throws IOException if the Writer fails
+     */
+    private void redraw(char[] frame, int length) throws IOException {
+        int lines = 0;
+        for (int i = 0; i < length; i++) {
+            if (frame[i] == '\n') {
+                lines += 1;
+            } else {}
+        }
+        // reset the scroll region, clear the screen, and draw from the top left corner
+        this.out.write(ESC + "r" + ESC + "2J" + ESC + "H");
+        this.out.write(frame, 0, length);
+        // leave one empty line under the frame, scroll everything below it, and put the cursor there
+        this.out.write(ESC + (lines + 2) + "r" + ESC + (lines + 2) + ";1H");
+        if (this.previous == null || this.previous.length < length) {
+            this.previous = new char[length];
+        } else {}
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("Testing AnsiScreen.java");
+        int uErrors = 0; // number of unintentional errors
+
+        Map compMap = new Map();
+        Map playerMap = new Map();
+        compMap.addShipsRandomly(new Random(3));
+        playerMap.addShipsRandomly(new Random(4));
+        MapRenderer[] boards = {compMap.getRenderer(MapRenderer.SHOTS), playerMap.getRenderer(MapRenderer.SHIPS_AND_SHOTS)};
+        String[] titles = {"CP Ships", "Your Ships"};
+
+        StringWriter plain = new StringWriter();
+        StringWriter ansi = new StringWriter();
+        FrameComposer plainComposer = new FrameComposer(plain);
+        FrameComposer ansiComposer = new FrameComposer(ansi);
+        ansiComposer.setAnsiScreen(new AnsiScreen(ansi));
+
+        // the first frame is drawn in full, after clearing the screen
+        plainComposer.writeFrame(titles, boards);
+        ansiComposer.writeFrame(titles, boards);
+        if (!ansi.toString().startsWith(ESC + "r" + ESC + "2J" + ESC + "H  CP Ships")) {
+            System.out.println("Error: the first frame was not drawn in full");
+            uErrors += 1;
+        } else {}
+
+        // a turn with one shot on each Map should only send the two changed spaces
+        plain.getBuffer().setLength(0);
+        ansi.getBuffer().setLength(0);
+        compMap.shoot(5, 5);
+        playerMap.shoot(0, 9);
+        plainComposer.writeFrame(titles, boards);
+        ansiComposer.writeFrame(titles, boards);
+        // the changes are sent from the top of the frame down, space 0J of the player's Map comes first
+        String expected = SAVE_CURSOR + ESC + "4;29H" + playerMap.displayCharacter(MapRenderer.SHIPS_AND_SHOTS, 0, 9)
+                + ESC + "9;8H" + compMap.displayCharacter(MapRenderer.SHOTS, 5, 5) + RESTORE_CURSOR;
+        if (!ansi.toString().equals(expected)) {
+            System.out.println("Error: update() did not send only the two changed spaces");
+            uErrors += 1;
+        } else {}
+        System.out.println("Bytes for one turn, full frame: " + plain.toString().length() + ", ANSI differences: " + ansi.toString().length());
+        if (ansi.toString().length() * 10 > plain.toString().length()) {
+            System.out.println("Error: the ANSI differences were not an order of magnitude smaller than the full frame");
+            uErrors += 1;
+        } else {}
+
+        // an unchanged frame sends nothing
+        ansi.getBuffer().setLength(0);
+        ansiComposer.writeFrame(titles, boards);
+        if (!ansi.toString().isEmpty()) {
+            System.out.println("Error: update() sent changes for an unchanged frame");
+            uErrors += 1;
+        } else {}
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -13,38 +13,86 @@
  * 3 ships of length 3
  * 4 ships of length 2
  * The player can either place these ships on their map manually, or have them placed on their map randomly.
+ *
+ * Run it with: java BattleshipGame [--ansi] [--size RxC] [--fleet SIZES]
+ *   --ansi         keep the maps at the top of an ANSI terminal and only send the spaces that changed each turn
+ *   --size RxC     play on maps with R rows and C columns, from 10x10 up to 1000x1000, columns past Z are AA, AB, ...
+ *   --fleet SIZES  play with other ships, like 6,5x2,3x4 for 1 ship of length 6, 2 of length 5, and 4 of length 3
  */
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
 import java.util.Objects;
 import java.util.Scanner;
 
 public class BattleshipGame {
+    private static final String[] MAP_TITLES = {"CP Ships", "Your Ships"};
+
+    // printMaps() writes through one FrameComposer as long as System.out stays the same
+    private static PrintStream consoleStream = null;
+    private static FrameComposer consoleComposer = null;
+    private static boolean ansiMode = false; // keep the Maps in place on an ANSI terminal, turned on with --ansi
+    private static BoardGeometry geometry = BoardGeometry.STANDARD; // the size of both Maps, set with --size
+    private static FleetSpec fleet = FleetSpec.STANDARD;             // the Ships of both Maps, set with --fleet
+
     /**
      * A convenient method to display two Maps side by side,
      * the player's Map will be on the left with the Ships visible,
      * the ComputerPlayer's Map will be on the right with the Ships hidden unless shot at
      * @param compMap the ComputerPlayer's map
      * @param pMap the player's Map
-     * @postcond the two Maps will be printed to the console
+     * @postcond the two Maps will be printed to the console with a single write
      */
     public static void printMaps(Map compMap, Map pMap) {
-        String cpShips = compMap.displayShotsOnMap();
-        String playerShips = pMap.displayShipsAndShotsOnMap();
-        System.out.println("  CP Ships         Your Ships");
-        System.out.println(cpShips.substring(0, 12) + "     " + playerShips.substring(0, 12));
-        System.out.println(cpShips.substring(13, 25) + "     " + playerShips.substring(13, 25));
-        System.out.println(cpShips.substring(26, 38) + "     " + playerShips.substring(26, 38));
-        System.out.println(cpShips.substring(39, 51) + "     " + playerShips.substring(39, 51));
-        System.out.println(cpShips.substring(52, 64) + "     " + playerShips.substring(52, 64));
-        System.out.println(cpShips.substring(65, 77) + "     " + playerShips.substring(65, 77));
-        System.out.println(cpShips.substring(78, 90) + "     " + playerShips.substring(78, 90));
-        System.out.println(cpShips.substring(91, 103) + "     " + playerShips.substring(91, 103));
-        System.out.println(cpShips.substring(104, 116) + "     " + playerShips.substring(104, 116));
-        System.out.println(cpShips.substring(117, 129) + "     " + playerShips.substring(117, 129));
-        System.out.println(cpShips.substring(130, 142) + "     " + playerShips.substring(130, 142));
-        System.out.println(cpShips.substring(143, 155) + "     " + playerShips.substring(143, 155));
+        if (consoleStream != System.out) {
+            consoleStream = System.out;
+            OutputStreamWriter writer = new OutputStreamWriter(consoleStream);
+            consoleComposer = new FrameComposer(writer);
+            if (ansiMode) {
+                consoleComposer.setAnsiScreen(new AnsiScreen(writer));
+            } else {}
+        } else {}
+        MapRenderer[] boards = {compMap.getRenderer(MapRenderer.SHOTS), pMap.getRenderer(MapRenderer.SHIPS_AND_SHOTS)};
+        try {
+            consoleComposer.writeFrame(MAP_TITLES, boards);
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Could not print the Maps: " + e.getMessage());
+        }
     }
 
     public static void main(String[] args){
+        // java BattleshipGame --ansi keeps the Maps at the top of the terminal and only redraws what changed
+        for (int i = 0; i < args.length; i++) {
+            if (Objects.equals(args[i], "--ansi")) {
+                ansiMode = true;
+            }
+            else if (Objects.equals(args[i], "--size") && i + 1 < args.length) {
+                i += 1;
+                String[] dimensions = args[i].toLowerCase().split("x");
+                try {
+                    geometry = new BoardGeometry(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]));
+                }
+                catch (RuntimeException e) {
+                    System.out.println("The size must be RxC, with 10 to 1000 rows and columns, like 15x20.");
+                    return;
+                }
+            }
+            else if (Objects.equals(args[i], "--fleet") && i + 1 < args.length) {
+                i += 1;
+                try {
+                    fleet = FleetSpec.parse(args[i]);
+                }
+                catch (RuntimeException e) {
+                    System.out.println("The fleet must be ship lengths separated by commas, like 5,4x2,3x3,2x4.");
+                    return;
+                }
+            } else {}
+        }
+        if (!fleet.fitsOn(geometry.getRows(), geometry.getColumns())) {
+            System.out.println("The fleet " + fleet + " does not fit on a " + geometry + " map.");
+            return;
+        } else {}
 
         // introduction
         System.out.println("Welcome to Battleship!");
@@ -66,9 +114,9 @@ public class BattleshipGame {
             scanner.close();
             return;
         } else {}
-        Map playerMap = new Map();
+        Map playerMap = new Map(geometry, fleet);
         if (Objects.equals(userInput, "1")) {
-            int[] shipSizes = {5, 4, 4, 3, 3, 3, 2, 2, 2, 2};
+            int[] shipSizes = fleet.getSizes();
             boolean horizontal;
             int[] coordinates = {-1, -1};
             boolean shipPlaced;
@@ -118,9 +166,12 @@ public class BattleshipGame {
         }
 
         // set up ComputerPlayer and ComputerPlayer's Map
-        Map cpMap = new Map();
+        Map cpMap = new Map(geometry, fleet);
         cpMap.addShipsRandomly();
         ComputerPlayer cp = new ComputerPlayer(playerMap);
+        // the Maps print the results of the shots made at them
+        cpMap.setGameEventListener(new ConsoleGameListener("Player", "You win!"));
+        playerMap.setGameEventListener(new ConsoleGameListener("Computer Player", "The Computer Player wins."));
 
         // set up gameplay
         System.out.println("The computer player's map will be on the left, and your map will be on the right like so.");
@@ -134,7 +185,8 @@ public class BattleshipGame {
         // gameplay
         boolean madeNextShot;
         boolean playerWin = false;
-        String message;
+        int cell;
+        int result;
         while (!playerMap.allShipsSunk() && !cpMap.allShipsSunk()) {
             madeNextShot = false;
             // your shot
@@ -145,15 +197,21 @@ public class BattleshipGame {
                     scanner.close();
                     return;
                 } else {}
-                message = cpMap.shoot(userInput);
-                System.out.println(message);
-                if (!Objects.equals(message, "You already shot here.") && !Objects.equals(message, "That is not a valid location.")) {
+                cell = geometry.parseShot(userInput);
+                if (cell != Map.INVALID_CELL) {
+                    result = cpMap.shoot(geometry.rowOf(cell), geometry.columnOf(cell));
+                }
+                else {
+                    result = Map.SHOT_INVALID;
+                }
+                // shots that land are printed by the listener of cpMap, only the rejected ones are printed here
+                if (Map.shotResultType(result) != Map.SHOT_ALREADY_SHOT && Map.shotResultType(result) != Map.SHOT_INVALID) {
                     madeNextShot = true;
-                } else {}
-                if (cpMap.allShipsSunk()) {
-                    System.out.println("You win!");
-                    playerWin = true;
-                } else {}
+                }
+                else {
+                    System.out.println(Map.describeShotResult(result));
+                }
+                playerWin = cpMap.allShipsSunk();
             }
             // computer player's shot
             if (!playerWin) {
@@ -0,0 +1,386 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A Benchmark measures the hot paths of Map, Ship, ComputerPlayer, and BattleshipGame.
+ * Every operation is warmed up first and then run repeatedly for a fixed amount of time,
+ * and the Benchmark reports the operations per second and the bytes allocated per operation.
+ * The results are compared against the baseline file so that slowdowns can be spotted on a local run.
+ * The footprint benchmarks only build a Map, so their bytes per operation are the heap one board takes up.
+ *
+ * Run it with: java Benchmark [--save] [--quick] [baseline file]
+ * It exits with status 1 if any benchmark is flagged against the baseline.
+ *   --save  write the results to the baseline file instead of comparing against it
+ *   --quick use shorter warmup and measurement times
+ */
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class Benchmark {
+    // an operation is flagged if it got this much slower or allocates this much more than the baseline
+    private static final double SLOWDOWN_TOLERANCE = 0.25;
+    private static final double ALLOCATION_TOLERANCE = 0.25;
+
+    private static volatile long sink; // results are folded in here so that the JIT cannot remove the work
+
+    /**
+     * An Operation is one unit of work to measure, it returns a value that depends on the work it did
+     */
+    private interface Operation {
+        long run();
+    }
+
+    /**
+     * A Result holds the measurements of one Operation
+     */
+    private static class Result {
+        private final String name;
+        private final double opsPerSecond;
+        private final double bytesPerOp; // -1 if the JVM cannot measure allocation
+
+        Result(String nm, double ops, double bytes) {
+            this.name = nm;
+            this.opsPerSecond = ops;
+            this.bytesPerOp = bytes;
+        }
+    }
+
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final List<Result> results;
+
+    /**
+     * Constructor method for a Benchmark
+     * @param warmupMillis how long to run each operation before measuring it
+     * @param measureMillis how long to measure each operation
+     */
+    public Benchmark(long warmupMillis, long measureMillis) {
+        this.warmupNanos = warmupMillis * 1000000L;
+        this.measureNanos = measureMillis * 1000000L;
+        this.results = new ArrayList<Result>();
+    }
+
+    /**
+     * Helper method for measure(),
+     * get the number of bytes the current thread has allocated so far
+     * @return the allocated bytes, or -1 if the JVM does not support measuring it
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        else {
+            return -1;
+        }
+    }
+
+    /**
+     * Warm up and measure an Operation
+     * @param name the name to report the Operation under
+     * @param op the Operation to measure
+     * @postcond the Result is added to this.results
+     */
+    private void measure(String name, Operation op) {
+        long acc = 0;
+        // warmup
+        long end = System.nanoTime() + this.warmupNanos;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 16; i++) {
+                acc += op.run();
+            }
+        }
+        // measurement, the clock is only checked every batch of operations
+        long ops = 0;
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long now = start;
+        end = start + this.measureNanos;
+        while (now < end) {
+            for (int i = 0; i < 16; i++) {
+                acc += op.run();
+            }
+            ops += 16;
+            now = System.nanoTime();
+        }
+        long bytesAfter = allocatedBytes();
+        sink += acc;
+        double bytesPerOp = bytesBefore < 0 ? -1 : (double) (bytesAfter - bytesBefore) / ops;
+        this.results.add(new Result(name, ops * 1e9 / (now - start), bytesPerOp));
+    }
+
+    /**
+     * Helper method for setting up Maps,
+     * build a Map with a fixed set of ten Ships
+     * @return the Map
+     */
+    private static Map fixedMap() {
+        return fixedMap(false);
+    }
+
+    /**
+     * Helper method for setting up Maps,
+     * build a Map with a fixed set of ten Ships
+     * @param compact true for a compact Map, false for a Map of Ship objects
+     * @return the Map
+     */
+    private static Map fixedMap(boolean compact) {
+        Map m = new Map(BoardGeometry.STANDARD, FleetSpec.STANDARD, compact);
+        m.addShip(5, false, 5, 5);
+        m.addShip(4, true, 9, 6);
+        m.addShip(4, false, 3, 0);
+        m.addShip(3, true, 1, 5);
+        m.addShip(3, true, 2, 5);
+        m.addShip(3, true, 3, 5);
+        m.addShip(2, true, 6, 8);
+        m.addShip(2, true, 2, 1);
+        m.addShip(2, false, 8, 0);
+        m.addShip(2, false, 8, 1);
+        return m;
+    }
+
+    /**
+     * Run every benchmark
+     * @postcond the Results of every benchmark are in this.results
+     */
+    public void runAll() {
+        final String[] shots = new String[100];
+        for (int cell = 0; cell < 100; cell++) {
+            shots[cell] = fixedMap().convertNumberCoordinatesToShot(cell / 10, cell % 10);
+        }
+        final SplittableRandom rand = new SplittableRandom(2024);
+
+        // one operation shoots every space of a Map with ten Ships and takes the shots back,
+        // the Maps are built once so that only the shots are timed
+        final Map shootStringMap = fixedMap();
+        this.measure("Map.shoot(String)/undoShot x100", () -> {
+            long total = 0;
+            for (String shot : shots) {
+                total += shootStringMap.shoot(shot).length();
+            }
+            for (int cell = 0; cell < 100; cell++) {
+                total += shootStringMap.undoShot();
+            }
+            return total;
+        });
+        final Map shootMap = fixedMap();
+        this.measure("Map.shoot(int,int)/undoShot x100", () -> {
+            long total = 0;
+            for (int cell = 0; cell < 100; cell++) {
+                total += shootMap.shoot(cell / 10, cell % 10);
+            }
+            for (int cell = 0; cell < 100; cell++) {
+                total += shootMap.undoShot();
+            }
+            return total;
+        });
+        final Map shootCompactMap = fixedMap(true);
+        this.measure("Map.shoot(int,int)/undoShot x100, compact", () -> {
+            long total = 0;
+            for (int cell = 0; cell < 100; cell++) {
+                total += shootCompactMap.shoot(cell / 10, cell % 10);
+            }
+            for (int cell = 0; cell < 100; cell++) {
+                total += shootCompactMap.undoShot();
+            }
+            return total;
+        });
+        // the bytes of one Map with its fleet, for working out how many boards fit in memory
+        this.measure("Map footprint", () -> fixedMap(false).getRemainingHits());
+        this.measure("Map footprint, compact", () -> fixedMap(true).getRemainingHits());
+        // one operation makes and takes back a shot at every space of the same Map, as a search would
+        final Map searchMap = fixedMap();
+        this.measure("Map.applyShot/undoShot x100", () -> {
+            long total = 0;
+            for (int cell = 0; cell < 100; cell++) {
+                total += searchMap.applyShot(cell / 10, cell % 10);
+            }
+            for (int cell = 0; cell < 100; cell++) {
+                total += searchMap.undoShot();
+            }
+            return total;
+        });
+
+        final Map parseMap = new Map();
+        this.measure("Map.convertShotToNumberCoordinates x100", () -> {
+            long total = 0;
+            for (String shot : shots) {
+                int[] coords = parseMap.convertShotToNumberCoordinates(shot);
+                total += coords[0] + coords[1];
+            }
+            return total;
+        });
+
+        final Map fitMap = fixedMap();
+        this.measure("Map.willShipFit x200", () -> {
+            long total = 0;
+            for (int cell = 0; cell < 100; cell++) {
+                if (fitMap.willShipFit(3, true, cell / 10, cell % 10)) {
+                    total += 1;
+                } else {}
+                if (fitMap.willShipFit(3, false, cell / 10, cell % 10)) {
+                    total += 1;
+                } else {}
+            }
+            return total;
+        });
+
+        this.measure("Map.addShipsRandomly", () -> {
+            Map m = new Map();
+            return m.addShipsRandomly(rand);
+        });
+        final int[] fleet = new Map().getShipSizes();
+        final int[] placements = new int[fleet.length];
+        this.measure("PlacementGenerator.randomLayout", () -> {
+            PlacementGenerator.randomLayout(rand, fleet, placements);
+            return placements[fleet.length - 1];
+        });
+        this.measure("PlacementGenerator.uniformLayout", () -> {
+            PlacementGenerator.uniformLayout(rand, fleet, placements);
+            return placements[fleet.length - 1];
+        });
+
+        // a Map with about half of its spaces shot at, so every kind of space gets rendered
+        final Map displayMap = fixedMap();
+        for (int cell = 0; cell < 100; cell += 2) {
+            displayMap.shoot(cell / 10, cell % 10);
+        }
+        this.measure("Map.displayShipsOnMap", () -> displayMap.displayShipsOnMap().length());
+        this.measure("Map.displayShotsOnMap", () -> displayMap.displayShotsOnMap().length());
+        this.measure("Map.displayShipsAndShotsOnMap", () -> displayMap.displayShipsAndShotsOnMap().length());
+
+        // printMaps writes to System.out, so send it somewhere that throws the output away
+        final Map otherMap = fixedMap();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            this.measure("BattleshipGame.printMaps", () -> {
+                BattleshipGame.printMaps(displayMap, otherMap);
+                return 1;
+            });
+        }
+        finally {
+            System.setOut(console);
+        }
+
+        final long[] cellHits = new long[100];
+        this.measure("ComputerPlayer full game, density strategy", () -> Simulator.playGame(rand, cellHits, "density"));
+        this.measure("ComputerPlayer full game", () -> Simulator.playGame(rand, cellHits, "checkerboard"));
+    }
+
+    /**
+     * Read a baseline file
+     * @param path the location of the baseline file
+     * @return the Results in the file, or an empty list if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    private static List<Result> readBaseline(Path path) throws IOException {
+        List<Result> baseline = new ArrayList<Result>();
+        if (!Files.exists(path)) {
+            return baseline;
+        } else {}
+        for (String line : Files.readAllLines(path)) {
+            // lines look like: name|opsPerSecond|bytesPerOp
+            if (!line.startsWith("#") && !line.isBlank()) {
+                String[] parts = line.split("\\|");
+                baseline.add(new Result(parts[0], Double.parseDouble(parts[1]), Double.parseDouble(parts[2])));
+            } else {}
+        }
+        return baseline;
+    }
+
+    /**
+     * Write the Results of this Benchmark to a baseline file
+     * @param path the location of the baseline file
+     * @throws IOException if the file cannot be written
+     */
+    private void writeBaseline(Path path) throws IOException {
+        try (PrintWriter out = new PrintWriter(new FileWriter(path.toFile()))) {
+            out.println("# Benchmark baseline, written by: java Benchmark --save");
+            out.println("# " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version")
+                    + ", " + Runtime.getRuntime().availableProcessors() + " cpus");
+            out.println("# name|opsPerSecond|bytesPerOp");
+            for (Result r : this.results) {
+                out.println(r.name + "|" + String.format("%.1f", r.opsPerSecond) + "|" + String.format("%.1f", r.bytesPerOp));
+            }
+        }
+    }
+
+    /**
+     * Compare the Results of this Benchmark against a baseline
+     * @param baseline the baseline Results
+     * @param sb receives a table of the Results with any slowdowns flagged, and the number of flagged Results at the end
+     * @return the number of flagged Results
+     */
+    private int compare(List<Result> baseline, StringBuilder sb) {
+        int flagged = 0;
+        sb.append(String.format("%-42s %14s %12s %14s %9s%n", "benchmark", "ops/sec", "bytes/op", "baseline ops", "change"));
+        for (Result r : this.results) {
+            Result base = null;
+            for (Result b : baseline) {
+                if (b.name.equals(r.name)) {
+                    base = b;
+                } else {}
+            }
+            String flags = "";
+            String change = "";
+            if (base != null) {
+                double ratio = r.opsPerSecond / base.opsPerSecond - 1;
+                change = String.format("%+.1f%%", ratio * 100);
+                if (ratio < -SLOWDOWN_TOLERANCE) {
+                    flags += " SLOWER";
+                } else {}
+                if (base.bytesPerOp >= 0 && r.bytesPerOp > base.bytesPerOp * (1 + ALLOCATION_TOLERANCE) + 16) {
+                    flags += " MORE-ALLOCATION";
+                } else {}
+            } else {}
+            if (!flags.isEmpty()) {
+                flagged += 1;
+            } else {}
+            sb.append(String.format("%-42s %14.1f %12.1f %14s %9s%s%n", r.name, r.opsPerSecond, r.bytesPerOp,
+                    base == null ? "-" : String.format("%.1f", base.opsPerSecond), change, flags));
+        }
+        sb.append(flagged).append(" benchmarks flagged against the baseline.\n");
+        return flagged;
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean save = false;
+        boolean quick = false;
+        Path baselinePath = Paths.get("benchmark-baseline.txt");
+        for (String arg : args) {
+            if (arg.equals("--save")) {
+                save = true;
+            }
+            else if (arg.equals("--quick")) {
+                quick = true;
+            }
+            else {
+                baselinePath = Paths.get(arg);
+            }
+        }
+
+        Benchmark bench = quick ? new Benchmark(200, 500) : new Benchmark(1000, 3000);
+        bench.runAll();
+        if (save) {
+            bench.writeBaseline(baselinePath);
+            System.out.println("Baseline written to " + baselinePath);
+        } else {}
+        StringBuilder table = new StringBuilder();
+        int flagged = bench.compare(readBaseline(baselinePath), table);
+        System.out.print(table);
+        // a slowdown fails the run, so it cannot be missed in a script
+        if (flagged > 0) {
+            System.exit(1);
+        } else {}
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A BitBoard stores one bit per space of a Map inside an array of 64-bit words.
+ * Space number n (see Map.cellIndex()) is stored in bit (n % 64) of word (n / 64),
+ * so a 10x10 Map only needs two words per BitBoard.
+ * All of the methods are static and work directly on the long[] so that no extra objects are created.
+ */
+public class BitBoard {
+
+    /**
+     * A BitBoard only contains static methods, so it should not be constructed
+     */
+    private BitBoard() {
+    }
+
+    /**
+     * Create an empty BitBoard
+     * @param cells the number of spaces the BitBoard must hold
+     * @precond cells >= 0
+     * @return an array of words with every bit cleared
+     */
+    public static long[] create(int cells) {
+        return new long[(cells + 63) >>> 6];
+    }
+
+    /**
+     * Determine if a space is set on a BitBoard
+     * @param board the BitBoard
+     * @param cell the space number
+     * @return true if the bit for the space is set, false otherwise
+     */
+    public static boolean get(long[] board, int cell) {
+        return (board[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Set the bit for a space on a BitBoard
+     * @param board the BitBoard
+     * @param cell the space number
+     * @postcond the bit for the space is set
+     */
+    public static void set(long[] board, int cell) {
+        board[cell >>> 6] |= 1L << cell;
+    }
+
+    /**
+     * Clear the bit for a space on a BitBoard
+     * @param board the BitBoard
+     * @param cell the space number
+     * @postcond the bit for the space is cleared
+     */
+    public static void clear(long[] board, int cell) {
+        board[cell >>> 6] &= ~(1L << cell);
+    }
+
+    /**
+     * Clear every bit on a BitBoard
+     * @param board the BitBoard
+     * @postcond every bit on the BitBoard is cleared
+     */
+    public static void clearAll(long[] board) {
+        for (int i = 0; i < board.length; i++) {
+            board[i] = 0L;
+        }
+    }
+
+    /**
+     * Determine if every space set on one BitBoard is also set on another
+     * @param part the BitBoard that should be contained
+     * @param whole the BitBoard that should contain part
+     * @precond part.length == whole.length
+     * @return true if (part AND NOT whole) is empty, false otherwise
+     */
+    public static boolean isSubset(long[] part, long[] whole) {
+        for (int i = 0; i < part.length; i++) {
+            if ((part[i] & ~whole[i]) != 0) {
+                return false;
+            } else {}
+        }
+        return true;
+    }
+
+    /**
+     * Determine if two BitBoards have any space in common
+     * @param a the first BitBoard
+     * @param b the second BitBoard
+     * @precond a.length == b.length
+     * @return true if (a AND b) is not empty, false otherwise
+     */
+    public static boolean intersects(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            } else {}
+        }
+        return false;
+    }
+
+    /**
+     * Count the spaces that are set on a BitBoard
+     * @param board the BitBoard
+     * @return the number of set bits
+     */
+    public static int count(long[] board) {
+        int total = 0;
+        for (long word : board) {
+            total += Long.bitCount(word);
+        }
+        return total;
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing BitBoard.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // test create()
+        long[] a = BitBoard.create(100);
+        if (a.length != 2) {
+            System.out.println("Error: create() should use 2 words for 100 spaces, but used " + a.length);
+            uErrors += 1;
+        } else {}
+        if (BitBoard.create(64).length != 1 || BitBoard.create(65).length != 2) {
+            System.out.println("Error: create() used the wrong number of words on a word boundary");
+            uErrors += 1;
+        } else {}
+
+        // test set(), get(), and count() on both words
+        int[] cells = {0, 1, 63, 64, 99};
+        for (int c : cells) {
+            BitBoard.set(a, c);
+        }
+        for (int c = 0; c < 100; c++) {
+            boolean expected = c == 0 || c == 1 || c == 63 || c == 64 || c == 99;
+            if (BitBoard.get(a, c) != expected) {
+                System.out.println("Error: get() returned " + !expected + " for space " + c);
+                uErrors += 1;
+            } else {}
+        }
+        if (BitBoard.count(a) != cells.length) {
+            System.out.println("Error: count() returned " + BitBoard.count(a) + ", expected " + cells.length);
+            uErrors += 1;
+        } else {}
+
+        // test clear()
+        BitBoard.clear(a, 64);
+        if (BitBoard.get(a, 64) || BitBoard.count(a) != cells.length - 1) {
+            System.out.println("Error: clear() did not clear exactly one space");
+            uErrors += 1;
+        } else {}
+
+        // test isSubset() and intersects()
+        long[] b = BitBoard.create(100);
+        BitBoard.set(b, 1);
+        BitBoard.set(b, 99);
+        if (!BitBoard.isSubset(b, a)) {
+            System.out.println("Error: isSubset() returned false for a BitBoard that is contained in the other");
+            uErrors += 1;
+        } else {}
+        if (BitBoard.isSubset(a, b)) {
+            System.out.println("Error: isSubset() returned true for a BitBoard that is not contained in the other");
+            uErrors += 1;
+        } else {}
+        if (!BitBoard.intersects(a, b)) {
+            System.out.println("Error: intersects() returned false for BitBoards with spaces in common");
+            uErrors += 1;
+        } else {}
+        long[] c = BitBoard.create(100);
+        BitBoard.set(c, 50);
+        if (BitBoard.intersects(a, c)) {
+            System.out.println("Error: intersects() returned true for BitBoards with no spaces in common");
+            uErrors += 1;
+        } else {}
+
+        // test clearAll()
+        BitBoard.clearAll(a);
+        if (BitBoard.count(a) != 0) {
+            System.out.println("Error: clearAll() did not clear every space");
+            uErrors += 1;
+        } else {}
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
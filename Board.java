@@ -0,0 +1,131 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A Board is where a fleet of Ships is placed and shot at. Map is the Board of a normal game, it is anywhere
+ * from 10x10 to 1000x1000 and keeps the whole board in BitBoards. OceanBoard is a sparse Board for boards
+ * with millions of rows and columns, which only keeps the parts of the board with Ships or shots.
+ * Spaces are given by their row and column coordinates, and shots return the result codes of Map.
+ */
+import java.util.random.RandomGenerator;
+
+public interface Board {
+
+    /**
+     * @return the number of rows of the Board
+     */
+    int getRows();
+
+    /**
+     * @return the number of columns of the Board
+     */
+    int getColumns();
+
+    /**
+     * @return the fleet of the Board
+     */
+    FleetSpec getFleet();
+
+    /**
+     * @return a copy of the sizes of the Ships in the fleet, largest first
+     */
+    int[] getShipSizes();
+
+    /**
+     * Determine if a Ship will fit on the Board without going off the edge or overlapping another Ship
+     * @param sz the size of the Ship
+     * @param horiz the orientation of the Ship, true for horizontal, false for vertical
+     * @param rowc the row coordinate of the top or left side of the Ship
+     * @param colc the column coordinate of the top or left side of the Ship
+     * @return true if the Ship will fit, false otherwise
+     */
+    boolean willShipFit(int sz, boolean horiz, int rowc, int colc);
+
+    /**
+     * Add a Ship to the Board
+     * @param sz the size of the Ship
+     * @param horiz the orientation of the Ship, true for horizontal, false for vertical
+     * @param rowc the row coordinate of the top or left side of the Ship
+     * @param colc the column coordinate of the top or left side of the Ship
+     * @return true if the Ship was added, false if it does not fit or the fleet is already on the Board
+     */
+    boolean addShip(int sz, boolean horiz, int rowc, int colc);
+
+    /**
+     * Add the whole fleet to the Board. Every legal layout is equally likely when PlacementGenerator.uniformLayout()
+     * finds one, which it does for any fleet that leaves the Board mostly empty. A fleet so crowded that the sampler
+     * gives up is placed with addShipsOneByOne() instead, and those layouts are not equally likely
+     * @param rand the random number generator that decides where the Ships go
+     * @return 0 if all Ships were placed successfully, -1 if a Ship was already on the Board,
+     *         1 if not all Ships were placed successfully
+     */
+    int addShipsRandomly(RandomGenerator rand);
+
+    /**
+     * Shoot at a space
+     * @param rowc the row coordinate of the shot
+     * @param colc the column coordinate of the shot
+     * @return a result code, Map.SHOT_MISS, Map.SHOT_HIT, Map.SHOT_ALREADY_SHOT, Map.SHOT_INVALID,
+     *         or Map.SHOT_SUNK combined with the size of the sunk Ship (see Map.shotResultType() and Map.shotResultShipSize())
+     */
+    int shoot(int rowc, int colc);
+
+    /**
+     * Determine if a space has already been shot at
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return true if the space has been shot at, false otherwise
+     * @throws RuntimeException if the space is not on the Board
+     */
+    boolean alreadyShotHere(int rowc, int colc);
+
+    /**
+     * Determine if a space has been shot at and contains a Ship
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @precond the space is on the Board
+     * @return true if the space has been hit, false otherwise
+     */
+    boolean isHit(int rowc, int colc);
+
+    /**
+     * Get the Ship at a space
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @precond the space is on the Board
+     * @return the Ship occupying the space, or null if the space is empty
+     */
+    Ship getShipAt(int rowc, int colc);
+
+    /**
+     * @return the number of spaces with a Ship that have not been hit yet
+     */
+    int getRemainingHits();
+
+    /**
+     * Determine if all Ships have sunk
+     * @return true if all Ships have sunk, false otherwise
+     */
+    boolean allShipsSunk();
+
+    /**
+     * Add the fleet to the Board one Ship at a time, largest first, each on a random placement that does not overlap
+     * the Ships already placed. The layouts are not all equally likely, but a crowded fleet gets one quickly,
+     * where a uniform layout would almost never come up
+     * @param rand the random number generator that decides where the Ships go
+     * @precond no Ships have been placed yet
+     * @return true if every Ship was placed, false if a Ship found no room after PlacementGenerator.MAX_PLACEMENT_ATTEMPTS tries
+     */
+    default boolean addShipsOneByOne(RandomGenerator rand) {
+        for (int sz : this.getShipSizes()) {
+            boolean placed = false;
+            for (int attempt = 0; attempt < PlacementGenerator.MAX_PLACEMENT_ATTEMPTS && !placed; attempt++) {
+                Ship sh = PlacementGenerator.randomPlacement(rand, sz, this.getRows(), this.getColumns());
+                placed = this.addShip(sz, sh.isHorizontal(), sh.getRowCoordinate(), sh.getColumnCoordinate());
+            }
+            if (!placed) {
+                return false;
+            } else {}
+        }
+        return true;
+    }
+}
@@ -0,0 +1,391 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A BoardGeometry describes the shape of a Map: how many rows and columns it has, how a space is numbered,
+ * and how the coordinates of a space are written. Maps can be anywhere from 10x10 to 1000x1000.
+ *
+ * Spaces are numbered row by row, so the space number is rowc * columns + colc.
+ * Rows are written as numbers from 0, and columns as letters like the columns of a spreadsheet:
+ * A to Z, then AA to AZ, BA, and so on. A shot is a row and a column in either order, like "9D", "d9", or "AA123",
+ * with no leading zeros and no longer than the widest row and column labels, so a shot on the standard board is
+ * always two characters. Shots are parsed in a single pass through a character table without creating any objects.
+ */
+public final class BoardGeometry {
+    public static final int MIN_DIMENSION = 10;
+    public static final int MAX_DIMENSION = 1000;
+    public static final BoardGeometry STANDARD = new BoardGeometry(10, 10);
+
+    // lookup table entries at or above COLUMN_CODE are letters, see buildShotCharacters()
+    private static final int COLUMN_CODE = 16;
+    private static final byte[] SHOT_CHARACTERS = buildShotCharacters();
+
+    private final int rows;
+    private final int columns;
+    private final int maxShotLength; // the characters of the widest row label and the widest column label
+
+    /**
+     * Constructor method for a BoardGeometry
+     * @param rws the number of rows
+     * @param cols the number of columns
+     * @throws RuntimeException if either dimension is not between MIN_DIMENSION and MAX_DIMENSION
+     */
+    public BoardGeometry(int rws, int cols) {
+        if (rws < MIN_DIMENSION || rws > MAX_DIMENSION || cols < MIN_DIMENSION || cols > MAX_DIMENSION) {
+            throw new RuntimeException("Invalid board size: " + rws + "x" + cols);
+        } else {}
+        this.rows = rws;
+        this.columns = cols;
+        this.maxShotLength = String.valueOf(rws - 1).length() + columnLabel(cols - 1).length();
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return the number of spaces
+     */
+    public int getCellCount() {
+        return this.rows * this.columns;
+    }
+
+    /**
+     * @return true if this is the standard 10x10 board, false otherwise
+     */
+    public boolean isStandard() {
+        return this.rows == 10 && this.columns == 10;
+    }
+
+    /**
+     * Determine if coordinates are on the board
+     * @param rowc the row coordinate
+     * @param colc the column coordinate
+     * @return true if 0 <= rowc < rows and 0 <= colc < columns, false otherwise
+     */
+    public boolean isOnBoard(int rowc, int colc) {
+        return rowc >= 0 && rowc < this.rows && colc >= 0 && colc < this.columns;
+    }
+
+    /**
+     * Convert number coordinates to a space number
+     * @param rowc the row coordinate
+     * @param colc the column coordinate
+     * @precond this.isOnBoard(rowc, colc)
+     * @return rowc * columns + colc
+     */
+    public int cellIndex(int rowc, int colc) {
+        return rowc * this.columns + colc;
+    }
+
+    /**
+     * @param cell a space number
+     * @return the row coordinate of the space
+     */
+    public int rowOf(int cell) {
+        return cell / this.columns;
+    }
+
+    /**
+     * @param cell a space number
+     * @return the column coordinate of the space
+     */
+    public int columnOf(int cell) {
+        return cell % this.columns;
+    }
+
+    /**
+     * Write the letters of a column
+     * @param colc the column coordinate
+     * @precond colc >= 0
+     * @return "A" for column 0, "Z" for column 25, "AA" for column 26, and so on
+     */
+    public static String columnLabel(int colc) {
+        StringBuilder sb = new StringBuilder();
+        int c = colc + 1;
+        while (c > 0) {
+            c -= 1;
+            sb.append((char) ('A' + c % 26));
+            c /= 26;
+        }
+        return sb.reverse().toString();
+    }
+
+    /**
+     * Write the coordinates of a space as a shot, the row first
+     * @param rowc the row coordinate
+     * @param colc the column coordinate
+     * @return a String like "0A" or "123AA"
+     * @throws RuntimeException if the coordinates are not on the board
+     */
+    public String formatShot(int rowc, int colc) {
+        if (!this.isOnBoard(rowc, colc)) {
+            throw new RuntimeException("Error in formatShot(): the coordinates are not valid");
+        } else {}
+        return rowc + columnLabel(colc);
+    }
+
+    /**
+     * Build the lookup table used by parseShot(),
+     * digits map to their value, letters of either case map to COLUMN_CODE plus their place in the alphabet from 1,
+     * and every other character maps to -1
+     * @return a table with one entry for every 7-bit character
+     */
+    private static byte[] buildShotCharacters() {
+        byte[] table = new byte[128];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = -1;
+        }
+        for (int d = 0; d < 10; d++) {
+            table['0' + d] = (byte) d;
+        }
+        for (int letter = 0; letter < 26; letter++) {
+            table['A' + letter] = (byte) (COLUMN_CODE + letter + 1);
+            table['a' + letter] = (byte) (COLUMN_CODE + letter + 1);
+        }
+        return table;
+    }
+
+    /**
+     * @return the length of the longest shot parseShot() accepts, 2 on the standard board
+     */
+    public int getMaxShotLength() {
+        return this.maxShotLength;
+    }
+
+    /**
+     * Parse a shot without creating any objects
+     * @param shot a row number and column letters of either case, in either order
+     * @return the space number of the shot, or Map.INVALID_CELL if the shot is not valid or not on the board
+     */
+    public int parseShot(CharSequence shot) {
+        if (shot.length() == 2) {
+            return this.parsePair(shot.charAt(0), shot.charAt(1));
+        }
+        else {
+            return this.parseCharacters(shot, null, 0, shot.length());
+        }
+    }
+
+    /**
+     * Parse a shot stored as ASCII bytes without creating any objects
+     * @param buffer the bytes containing the shot
+     * @param offset the index of the first byte of the shot
+     * @param length the number of bytes in the shot
+     * @precond 0 <= offset && offset + length <= buffer.length
+     * @return the space number of the shot, or Map.INVALID_CELL if the shot is not valid or not on the board
+     */
+    public int parseShot(byte[] buffer, int offset, int length) {
+        if (length == 2) {
+            return this.parsePair(buffer[offset] & 0xFF, buffer[offset + 1] & 0xFF);
+        }
+        else {
+            return this.parseCharacters(null, buffer, offset, length);
+        }
+    }
+
+    /**
+     * Helper method for parseShot(),
+     * look up a character in the table
+     * @param ch the character
+     * @return the table entry of the character, -1 if it cannot be part of a shot
+     */
+    private static int shotCode(int ch) {
+        return ch < 128 ? SHOT_CHARACTERS[ch] : -1;
+    }
+
+    /**
+     * Helper method for parseShot(),
+     * combine the lookup table entries of the two characters of a shot, a digit and a letter in either order
+     * @param first the first character of the shot
+     * @param second the second character of the shot
+     * @return the space number of the shot, or Map.INVALID_CELL if the characters are not a row and a column on the board
+     */
+    private int parsePair(int first, int second) {
+        int a = shotCode(first);
+        int b = shotCode(second);
+        int rowc;
+        int column; // the column plus 1
+        if (a >= 0 && a < COLUMN_CODE && b >= COLUMN_CODE) {
+            rowc = a;
+            column = b - COLUMN_CODE;
+        }
+        else if (b >= 0 && b < COLUMN_CODE && a >= COLUMN_CODE) {
+            rowc = b;
+            column = a - COLUMN_CODE;
+        }
+        else {
+            return Map.INVALID_CELL;
+        }
+        // every board has at least 10 rows, but a letter can be past the last column
+        if (column > this.columns) {
+            return Map.INVALID_CELL;
+        } else {}
+        return this.cellIndex(rowc, column - 1);
+    }
+
+    /**
+     * Helper method for parseShot(),
+     * parse a shot of any length from a CharSequence or from bytes, one run of digits and one run of letters
+     * @param shot the characters of the shot, or null to read buffer
+     * @param buffer the bytes of the shot, used when shot is null
+     * @param offset the index of the first character of the shot
+     * @param length the number of characters in the shot
+     * @return the space number of the shot, or Map.INVALID_CELL if the shot is not valid or not on the board
+     */
+    private int parseCharacters(CharSequence shot, byte[] buffer, int offset, int length) {
+        if (length < 2 || length > this.maxShotLength) {
+            return Map.INVALID_CELL;
+        } else {}
+        int rowc = 0;
+        int column = 0; // the column plus 1
+        int digits = 0;
+        int letters = 0;
+        boolean lastDigit = false;
+        for (int i = 0; i < length; i++) {
+            int code = shotCode(shot != null ? shot.charAt(offset + i) : buffer[offset + i] & 0xFF);
+            if (code < 0) {
+                return Map.INVALID_CELL;
+            }
+            else if (code < COLUMN_CODE) {
+                // a second run of digits, or a digit after a leading zero
+                if (digits > 0 && (!lastDigit || rowc == 0)) {
+                    return Map.INVALID_CELL;
+                } else {}
+                lastDigit = true;
+                rowc = rowc * 10 + code;
+                digits += 1;
+            }
+            else {
+                // a second run of letters
+                if (letters > 0 && lastDigit) {
+                    return Map.INVALID_CELL;
+                } else {}
+                lastDigit = false;
+                column = column * 26 + code - COLUMN_CODE;
+                letters += 1;
+            }
+        }
+        if (digits == 0 || letters == 0 || rowc >= this.rows || column > this.columns) {
+            return Map.INVALID_CELL;
+        } else {}
+        return this.cellIndex(rowc, column - 1);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof BoardGeometry)) {
+            return false;
+        } else {}
+        BoardGeometry g = (BoardGeometry) other;
+        return this.rows == g.rows && this.columns == g.columns;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.rows * 1009 + this.columns;
+    }
+
+    @Override
+    public String toString() {
+        return this.rows + "x" + this.columns;
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing BoardGeometry.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // test BoardGeometry() constructor
+        try {
+            new BoardGeometry(9, 10);
+            System.out.println("Error: BoardGeometry() constructor did not throw an exception for a board that is too small");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+        try {
+            new BoardGeometry(10, 1001);
+            System.out.println("Error: BoardGeometry() constructor did not throw an exception for a board that is too big");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+
+        // the standard board parses the same shots Map always has
+        BoardGeometry std = BoardGeometry.STANDARD;
+        String[] valid = {"0A", "a0", "9J", "J9", "5e"};
+        int[] cells = {0, 0, 99, 99, 54};
+        for (int i = 0; i < valid.length; i++) {
+            if (std.parseShot(valid[i]) != cells[i]) {
+                System.out.println("Error: parseShot() returned " + std.parseShot(valid[i]) + " for " + valid[i] + " instead of " + cells[i]);
+                uErrors += 1;
+            } else {}
+        }
+        String[] invalid = {"", "A", "10A", "0K", "AA", "00", "0A0", "A0A", "0-A", "0 A"};
+        for (String shot : invalid) {
+            if (std.parseShot(shot) != Map.INVALID_CELL) {
+                System.out.println("Error: parseShot() accepted " + shot + " on the standard board");
+                uErrors += 1;
+            } else {}
+        }
+        if (!std.formatShot(3, 7).equals("3H") || !std.isStandard()) {
+            System.out.println("Error: formatShot() did not write 3H on the standard board");
+            uErrors += 1;
+        } else {}
+
+        // multi-character coordinates on the biggest board
+        BoardGeometry big = new BoardGeometry(1000, 1000);
+        if (!columnLabel(0).equals("A") || !columnLabel(25).equals("Z") || !columnLabel(26).equals("AA")
+                || !columnLabel(701).equals("ZZ") || !columnLabel(702).equals("AAA")) {
+            System.out.println("Error: columnLabel() did not label the columns like a spreadsheet");
+            uErrors += 1;
+        } else {}
+        if (big.parseShot("AA123") != big.cellIndex(123, 26) || big.parseShot("123aa") != big.cellIndex(123, 26)
+                || big.parseShot("999ALL") != big.cellIndex(999, 999) || big.parseShot("ALM0") != Map.INVALID_CELL
+                || big.parseShot("1000A") != Map.INVALID_CELL) {
+            System.out.println("Error: parseShot() did not handle multi-character coordinates on a 1000x1000 board");
+            uErrors += 1;
+        } else {}
+        // no leading zeros, and no longer than the widest labels
+        String[] padded = {"0999ALL", "ALL0999", "00A", "A01", "001AA", "1000A"};
+        for (String shot : padded) {
+            if (big.parseShot(shot) != Map.INVALID_CELL || big.parseShot(shot.getBytes(), 0, shot.length()) != Map.INVALID_CELL) {
+                System.out.println("Error: parseShot() accepted " + shot + " on a 1000x1000 board");
+                uErrors += 1;
+            } else {}
+        }
+        if (std.getMaxShotLength() != 2 || big.getMaxShotLength() != 6 || big.parseShot("0AA") != big.cellIndex(0, 26)
+                || big.parseShot("A0") != 0 || big.parseShot("AA0") != 26) {
+            System.out.println("Error: parseShot() did not take the shots up to the widest labels");
+            uErrors += 1;
+        } else {}
+        byte[] bytes = "xx42AB".getBytes();
+        if (big.parseShot(bytes, 2, 4) != big.cellIndex(42, 27)) {
+            System.out.println("Error: parseShot() did not parse a shot stored as bytes");
+            uErrors += 1;
+        } else {}
+        // every space of an odd-shaped board goes there and back
+        BoardGeometry odd = new BoardGeometry(13, 57);
+        boolean roundTrip = true;
+        for (int cell = 0; cell < odd.getCellCount(); cell++) {
+            roundTrip = roundTrip && odd.parseShot(odd.formatShot(odd.rowOf(cell), odd.columnOf(cell))) == cell;
+        }
+        if (!roundTrip) {
+            System.out.println("Error: formatShot() and parseShot() did not agree on a 13x57 board");
+            uErrors += 1;
+        } else {}
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
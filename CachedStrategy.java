@@ -0,0 +1,120 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A CachedStrategy puts a DecisionCache in front of another TargetingStrategy. Before it asks the strategy for a shot,
+ * it looks up the observation hash of the opponent's Map, and if the same observations have been seen before,
+ * in this game or any other game sharing the cache, it shoots where the strategy decided then.
+ * Every result is still passed on to the strategy, so it stays up to date for the shots that are not in the cache.
+ *
+ * A cached shot is the same every time the observations come up, so a random strategy becomes predictable
+ * for the observations in the cache.
+ */
+import java.util.SplittableRandom;
+
+public class CachedStrategy implements TargetingStrategy {
+    private final TargetingStrategy strategy;
+    private final Map opponentMap;
+    private final DecisionCache cache;
+    private final double[] heatmap;       // scratch array the strategy's heatmap is copied into
+    private DecisionCache.Decision lastDecision;
+
+    /**
+     * Constructor method for a CachedStrategy
+     * @param ts the strategy to ask when the observations are not in the cache
+     * @param m the opponent's Map
+     * @param dc the cache, which may be shared with the CachedStrategies of other ComputerPlayers
+     */
+    public CachedStrategy(TargetingStrategy ts, Map m, DecisionCache dc) {
+        this.strategy = ts;
+        this.opponentMap = m;
+        this.cache = dc;
+        this.heatmap = new double[m.getGeometry().getCellCount()];
+        this.lastDecision = null;
+    }
+
+    @Override
+    public int chooseShot() {
+        long key = this.opponentMap.getObservationHash();
+        DecisionCache.Decision d = this.cache.get(key);
+        // a different fleet or a hash collision could give back a space that has been shot at, so it is checked
+        BoardGeometry g = this.opponentMap.getGeometry();
+        if (d == null || this.opponentMap.alreadyShotHere(g.rowOf(d.getShot()), g.columnOf(d.getShot()))) {
+            int shot = this.strategy.chooseShot();
+            boolean scored = this.strategy.getHeatmap(this.heatmap);
+            d = this.cache.put(key, shot, scored ? this.heatmap : null);
+        } else {}
+        this.lastDecision = d;
+        return d.getShot();
+    }
+
+    @Override
+    public void recordShot(int cell, int result) {
+        this.strategy.recordShot(cell, result);
+    }
+
+    @Override
+    public boolean getHeatmap(double[] heat) {
+        if (this.lastDecision == null || !this.lastDecision.hasHeatmap()) {
+            return false;
+        } else {}
+        for (int cell = 0; cell < this.heatmap.length; cell++) {
+            heat[cell] = this.lastDecision.getHeat(cell);
+        }
+        return true;
+    }
+
+    /**
+     * @return the cache this CachedStrategy uses
+     */
+    public DecisionCache getCache() {
+        return this.cache;
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing CachedStrategy.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // play games against different Maps with one shared cache, every game should still be won
+        DecisionCache dc = new DecisionCache(10000);
+        SplittableRandom rand = new SplittableRandom(20);
+        int[] firstShots = new int[20];
+        for (int game = 0; game < firstShots.length; game++) {
+            Map m = new Map();
+            m.addShipsRandomly(rand);
+            ComputerPlayer cp = new ComputerPlayer(m, rand);
+            CachedStrategy cs = new CachedStrategy(new ProbabilityDensityStrategy(m, rand), m, dc);
+            cp.setTargetingStrategy(cs);
+            int shots = 0;
+            while (!cp.computerPlayerWon() && cp.makeNextShot()) {
+                shots += 1;
+                if (shots == 1) {
+                    firstShots[game] = cs.lastDecision.getShot();
+                } else {}
+            }
+            if (!cp.computerPlayerWon() || shots > 100) {
+                System.out.println("Error: a ComputerPlayer with a CachedStrategy did not win game " + game);
+                uErrors += 1;
+            } else {}
+            double[] heat = new double[100];
+            if (!cs.getHeatmap(heat)) {
+                System.out.println("Error: getHeatmap() did not pass on the heatmap of a ProbabilityDensityStrategy");
+                uErrors += 1;
+            } else {}
+        }
+
+        // the first shot of every game is made from the same empty observations, so it comes from the cache after the first game
+        for (int game = 1; game < firstShots.length; game++) {
+            if (firstShots[game] != firstShots[0]) {
+                System.out.println("Error: game " + game + " did not take its first shot from the cache");
+                uErrors += 1;
+            } else {}
+        }
+        if (dc.getHits() < firstShots.length - 1) {
+            System.out.println("Error: the cache only had " + dc.getHits() + " hits");
+            uErrors += 1;
+        } else {}
+        System.out.println(dc.statistics());
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -2,67 +2,202 @@
  * Code Written by Jackson L. Davis
  *
  * A ComputerPlayer will try to figure out where the Ships on a player's Map are.
+ * It works on a Map of any size, the checkerboards are shuffled a space at a time as they are used,
+ * so a game on a big Map only pays for the spaces that are shot at.
+ * The checkerboard is spaced by the smallest Ship of the fleet: with Ships of at least k spaces,
+ * shooting the spaces whose coordinates add up to a multiple of k is sure to hit every Ship.
  */
-import java.util.ArrayList;
-import java.util.Objects;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 public class ComputerPlayer {
     private Map opponentMap;
-    private String[] checkerSpaces1;
-    private String[] checkerSpaces2;
-    private int checkerIndex1;
-    private int checkerIndex2;
-    private ArrayList<String> spacesNotSunk; // spaces that were shot at where a Ship was hit, but the Ship has not sunk
+    private BoardGeometry geometry;
+    private RandomGenerator random;
+    private int parity;                 // the size of the smallest Ship, the spacing of the checkerboard
+    private int[] parityRowCounts;      // entry j is the number of spaces of colour 0 in a row whose number is j mod parity
+    private int parityBlockCount;       // the number of spaces of colour 0 in parity rows in a row
+    private LazyShuffle checkerSpaces1; // the spaces of colour 0, whose coordinates add up to a multiple of parity, in a random order
+    private LazyShuffle checkerSpaces2; // the rest of the spaces, in a random order
+    private long[] spacesNotSunk; // BitBoard of the spaces that were shot at where a Ship was hit, but the Ship has not sunk
+    private int[] hitQueue;       // space numbers of the hits in the order they were made, sunk ones are skipped lazily
+    private int hitQueueHead;
+    private int hitQueueTail;
+    private TargetingStrategy strategy; // if not null, decides the shots instead of the checkerboard search
+
+    /**
+     * A LazyShuffle hands out the numbers 0 to n-1 in a random order, drawing each one only when it is asked for.
+     * It is a Fisher-Yates shuffle of an array that is never made: only the entries that have been swapped are kept,
+     * in an open-addressing table, so its memory grows with the numbers handed out instead of with n.
+     * Up to DENSE_NUMBERS numbers the array is made up front instead, so handing out a number never allocates
+     */
+    private static final class LazyShuffle {
+        // the most numbers that are shuffled in an array of every number
+        private static final int DENSE_NUMBERS = 1 << 12;
+
+        private final int count;
+        private int taken;     // the numbers handed out so far, the shuffled array is final up to this index
+        private int[] dense;   // the shuffled array, or null if only the swapped entries are kept
+        private int[] keys;    // index + 1 of every entry of the array that has been swapped, 0 for a free slot
+        private int[] values;  // the entry at that index
+        private int used;
+
+        /**
+         * Constructor method for a LazyShuffle
+         * @param n the number of numbers to hand out
+         */
+        LazyShuffle(int n) {
+            this.count = n;
+            this.taken = 0;
+            if (n <= DENSE_NUMBERS) {
+                this.dense = new int[n];
+                for (int i = 0; i < n; i++) {
+                    this.dense[i] = i;
+                }
+                this.keys = null;
+                this.values = null;
+            }
+            else {
+                this.dense = null;
+                this.keys = new int[16];
+                this.values = new int[16];
+            }
+            this.used = 0;
+        }
+
+        /**
+         * Hand out the next number
+         * @param rand the random number generator that picks the number
+         * @return a number that has not been handed out yet, or -1 if every number has been handed out
+         */
+        int next(RandomGenerator rand) {
+            if (this.taken == this.count) {
+                return -1;
+            } else {}
+            int j = this.taken + rand.nextInt(this.count - this.taken);
+            if (this.dense != null) {
+                int picked = this.dense[j];
+                this.dense[j] = this.dense[this.taken];
+                this.taken += 1;
+                return picked;
+            } else {}
+            int picked = this.get(j);
+            this.put(j, this.get(this.taken));
+            this.taken += 1;
+            return picked;
+        }
+
+        /**
+         * @return true if every number has been handed out, false otherwise
+         */
+        boolean isEmpty() {
+            return this.taken == this.count;
+        }
+
+        /**
+         * Helper method for next(), find an entry of the shuffled array
+         * @param index the index of the entry
+         * @return the entry, which is index itself if it was never swapped
+         */
+        private int get(int index) {
+            int mask = this.keys.length - 1;
+            for (int slot = mix(index) & mask; this.keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (this.keys[slot] == index + 1) {
+                    return this.values[slot];
+                } else {}
+            }
+            return index;
+        }
+
+        /**
+         * Helper method for next(), set an entry of the shuffled array, doubling the table when it is half full
+         * @param index the index of the entry
+         * @param value the new entry
+         */
+        private void put(int index, int value) {
+            if (2 * (this.used + 1) > this.keys.length) {
+                int[] oldKeys = this.keys;
+                int[] oldValues = this.values;
+                this.keys = new int[oldKeys.length * 2];
+                this.values = new int[oldKeys.length * 2];
+                this.used = 0;
+                for (int slot = 0; slot < oldKeys.length; slot++) {
+                    if (oldKeys[slot] != 0) {
+                        this.put(oldKeys[slot] - 1, oldValues[slot]);
+                    } else {}
+                }
+            } else {}
+            int mask = this.keys.length - 1;
+            int slot = mix(index) & mask;
+            while (this.keys[slot] != 0 && this.keys[slot] != index + 1) {
+                slot = (slot + 1) & mask;
+            }
+            if (this.keys[slot] == 0) {
+                this.keys[slot] = index + 1;
+                this.used += 1;
+            } else {}
+            this.values[slot] = value;
+        }
+
+        /**
+         * Helper method for get() and put(), spread the indices over the table
+         */
+        private static int mix(int index) {
+            int h = index * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
 
     /**
      * Constructor method for a ComputerPlayer
      * @param m the opponent's Map
      */
     public ComputerPlayer(Map m) {
+        this(m, new SplittableRandom());
+    }
+
+    /**
+     * Constructor method for a ComputerPlayer that uses the given random number generator
+     * @param m the opponent's Map
+     * @param rand the random number generator used to shuffle the checkerboards
+     */
+    public ComputerPlayer(Map m, RandomGenerator rand) {
         this.opponentMap = m;
-        this.checkerSpaces1 = new String[]{"0A", "0C", "0E", "0G", "0I",
-                                           "1B", "1D", "1F", "1H", "1J",
-                                           "2A", "2C", "2E", "2G", "2I",
-                                           "3B", "3D", "3F", "3H", "3J",
-                                           "4A", "4C", "4E", "4G", "4I",
-                                           "5B", "5D", "5F", "5H", "5J",
-                                           "6A", "6C", "6E", "6G", "6I",
-                                           "7B", "7D", "7F", "7H", "7J",
-                                           "8A", "8C", "8E", "8G", "8I",
-                                           "9B", "9D", "9F", "9H", "9J"};
-        this.checkerSpaces2 = new String[]{"0B", "0D", "0F", "0H", "0J",
-                                           "1A", "1C", "1E", "1G", "1I",
-                                           "2B", "2D", "2F", "2H", "2J",
-                                           "3A", "3C", "3E", "3G", "3I",
-                                           "4B", "4D", "4F", "4H", "4J",
-                                           "5A", "5C", "5E", "5G", "5I",
-                                           "6B", "6D", "6F", "6H", "6J",
-                                           "7A", "7C", "7E", "7G", "7I",
-                                           "8B", "8D", "8F", "8H", "8J",
-                                           "9A", "9C", "9E", "9G", "9I"};
-        this.checkerIndex1 = 0;
-        this.checkerIndex2 = 0;
-        this.spacesNotSunk = new ArrayList<String>();
-
-        // shuffle this.checkerSpaces1 and this.checkerSpaces2 using Fisher-Yates shuffle
-        int index;
-        String entry;
-        Random rand = new Random();
-        for (int i = this.checkerSpaces1.length - 1; i > 0; i--) {
-            index = rand.nextInt(i + 1);
-            // swap entries
-            entry = this.checkerSpaces1[index];
-            this.checkerSpaces1[index] = this.checkerSpaces1[i];
-            this.checkerSpaces1[i] = entry;
-        }
-        for (int j = this.checkerSpaces2.length - 1; j > 0; j--) {
-            index = rand.nextInt(j + 1);
-            // swap entries
-            entry = this.checkerSpaces2[index];
-            this.checkerSpaces2[index] = this.checkerSpaces2[j];
-            this.checkerSpaces2[j] = entry;
+        this.geometry = m.getGeometry();
+        this.random = rand;
+        // spaces are handed out as indices into the list of spaces of one colour, see checkerSpace()
+        int cells = this.geometry.getCellCount();
+        int cols = this.geometry.getColumns();
+        this.parity = m.getFleet().getSmallestSize();
+        this.parityRowCounts = new int[this.parity];
+        this.parityBlockCount = 0;
+        for (int j = 0; j < this.parity; j++) {
+            int first = (this.parity - j) % this.parity; // the first column of colour 0 in the row
+            this.parityRowCounts[j] = first < cols ? (cols - first + this.parity - 1) / this.parity : 0;
+            this.parityBlockCount += this.parityRowCounts[j];
+        }
+        int colourZero = this.geometry.getRows() / this.parity * this.parityBlockCount;
+        for (int j = 0; j < this.geometry.getRows() % this.parity; j++) {
+            colourZero += this.parityRowCounts[j];
         }
+        this.checkerSpaces1 = new LazyShuffle(colourZero);
+        this.checkerSpaces2 = new LazyShuffle(cells - colourZero);
+        this.spacesNotSunk = BitBoard.create(cells);
+        // every space of the fleet is hit at most once, so the queue never grows
+        this.hitQueue = new int[(int) m.getFleet().getTotalLength()];
+        this.hitQueueHead = 0;
+        this.hitQueueTail = 0;
+        this.strategy = null;
+    }
+
+    /**
+     * Let a TargetingStrategy decide the ComputerPlayer's shots instead of the checkerboard search
+     * @param ts the strategy to use, or null to go back to the checkerboard search
+     * @precond ts was created for this ComputerPlayer's opponent Map, and no shots have been made yet
+     */
+    public void setTargetingStrategy(TargetingStrategy ts) {
+        this.strategy = ts;
     }
 
     /**
@@ -70,177 +205,148 @@ public class ComputerPlayer {
      * it will shoot at random spaces in a checkerboard pattern so that it is guaranteed to hit parts of every Ship
      * on the Map, when it hits part of a Ship, it will shoot at the neighbouring spaces to hit the rest of the Ship
      * and sink it.
-     * @postcond the results of the ComputerPlayer's shot will be printed to the console
-     * @postcond this.opponentMap, this.checkerIndex1, this.checkerIndex2, and this.spacesNotSunk will be adjusted as necessary
-     * @return true if a next shot was made, false otherwise
+     * @postcond the shot and its result are reported to the GameEventListener of this.opponentMap, nothing is printed
+     * @postcond this.opponentMap, this.checkerSpaces1, this.checkerSpaces2, and this.spacesNotSunk will be adjusted as necessary
+     * @return true if a next shot was made, false if the ComputerPlayer has already won or every space has been shot at
      */
     public boolean makeNextShot() {
-        if (!this.computerPlayerWon()) {
+        if (!this.computerPlayerWon() && this.strategy != null) {
+            // let the strategy pick the space
+            int cell = this.strategy.chooseShot();
+            if (cell < 0) {
+                return false;
+            } else {}
+            int rowc = this.geometry.rowOf(cell);
+            int colc = this.geometry.columnOf(cell);
+            this.opponentMap.getGameEventListener().shotFired(this.opponentMap, rowc, colc);
+            int result = this.opponentMap.shoot(rowc, colc);
+            this.strategy.recordShot(cell, result);
+            return true;
+        }
+        else if (!this.computerPlayerWon()) {
             boolean madeNextShot = false;
             // check if there are Ships that have been shot at that have not sunk
             // if there are none, shot at a random space
-            if (this.spacesNotSunk.size() == 0) {
-                String message;
+            int shipOfInterest = this.nextSpaceNotSunk();
+            if (shipOfInterest == Map.INVALID_CELL) {
                 while (!madeNextShot) {
                     // pick a space from this.checkerSpaces1
-                    if (this.checkerIndex1 < this.checkerSpaces1.length) {
-                        if (!this.opponentMap.alreadyShotHere(this.checkerSpaces1[this.checkerIndex1])) {
-                            System.out.println("Computer Player's next shot: " + this.checkerSpaces1[this.checkerIndex1]);
-                            message = this.opponentMap.shoot(this.checkerSpaces1[this.checkerIndex1]);
-                            System.out.println(message);
-                            madeNextShot = true;
-                            if (Objects.equals(message, "Hit!")) {
-                                this.spacesNotSunk.add(this.checkerSpaces1[this.checkerIndex1]);
-                            } else {}
-                        }
-                        this.checkerIndex1 += 1;
+                    if (!this.checkerSpaces1.isEmpty()) {
+                        madeNextShot = this.shootCheckerSpace(this.checkerSpace(0, this.checkerSpaces1.next(this.random)));
                     }
                     // this should not happen, but pick a space from this.checkerSpaces2
-                    else if (this.checkerIndex2 < this.checkerSpaces2.length) {
-                        if (!this.opponentMap.alreadyShotHere(this.checkerSpaces2[this.checkerIndex2])) {
-                            System.out.println("Computer Player's next shot: " + this.checkerSpaces2[this.checkerIndex2]);
-                            message = this.opponentMap.shoot(this.checkerSpaces2[this.checkerIndex2]);
-                            System.out.println(message);
-                            madeNextShot = true;
-                            if (Objects.equals(message, "Hit!")) {
-                                this.spacesNotSunk.add(this.checkerSpaces2[this.checkerIndex2]);
-                            } else {}
-                        }
-                        this.checkerIndex2 += 1;
+                    else if (!this.checkerSpaces2.isEmpty()) {
+                        madeNextShot = this.shootCheckerSpace(this.checkerSpace(1, this.checkerSpaces2.next(this.random)));
                     }
                     // this really should not happen, but check just in case
                     else {
-                        System.out.println("Every space has already been shot at.");
                         return false;
                     }
                 }
-                // check if the ComputerPlayer won
-                if (this.computerPlayerWon()) {
-                    System.out.println("The Computer Player wins.");
-                } else {}
                 return true;
             }
             // if there is a Ship that has been shot at that has not sunk, shoot around it
             else {
-                String shipOfInterest = this.spacesNotSunk.get(0);
-                int[] shipCoords = this.opponentMap.convertShotToNumberCoordinates(shipOfInterest);
-                int[] nextShotCoords;
-                boolean directionStillAvailable = true;
-                int searchResult;
-
-                // try shooting up
-                nextShotCoords = shipCoords.clone();
-                while (!madeNextShot && directionStillAvailable) {
-                    nextShotCoords[0] -= 1;
-                    // make sure new coordinates are valid
-                    if (nextShotCoords[0] >= 0) {
-                        searchResult = this.searchSpace(nextShotCoords[0], nextShotCoords[1]);
-                        if (searchResult == 1) {
-                            // a shot was made
-                            madeNextShot = true;
-                        }
-                        else if (searchResult == 0) {
-                            // no shot was made, keep searching
-                        }
-                        else {
-                            // no shot was made, but cannot keep searching in this direction
-                            directionStillAvailable = false;
-                        }
-                    }
-                    else {
-                        directionStillAvailable = false;
-                    }
-                }
-                directionStillAvailable = true;
-
-                // try shooting down
-                nextShotCoords = shipCoords.clone();
-                while (!madeNextShot && directionStillAvailable) {
-                    nextShotCoords[0] += 1;
-                    // make sure new coordinates are valid
-                    if (nextShotCoords[0] <= 9) {
-                        searchResult = this.searchSpace(nextShotCoords[0], nextShotCoords[1]);
-                        if (searchResult == 1) {
-                            // a shot was made
-                            madeNextShot = true;
-                        }
-                        else if (searchResult == 0) {
-                            // no shot was made, keep searching
-                        }
-                        else {
-                            // no shot was made, but cannot keep searching in this direction
-                            directionStillAvailable = false;
-                        }
-                    }
-                    else {
-                        directionStillAvailable = false;
-                    }
-                }
-                directionStillAvailable = true;
-
-                // try shooting to the left
-                nextShotCoords = shipCoords.clone();
-                while (!madeNextShot && directionStillAvailable) {
-                    nextShotCoords[1] -= 1;
-                    // make sure new coordinates are valid
-                    if (nextShotCoords[1] >= 0) {
-                        searchResult = this.searchSpace(nextShotCoords[0], nextShotCoords[1]);
-                        if (searchResult == 1) {
-                            // a shot was made
-                            madeNextShot = true;
-                        }
-                        else if (searchResult == 0) {
-                            // no shot was made, keep searching
-                        }
-                        else {
-                            // no shot was made, but cannot keep searching in this direction
-                            directionStillAvailable = false;
-                        }
-                    }
-                    else {
-                        directionStillAvailable = false;
-                    }
-                }
-                directionStillAvailable = true;
-
-                // try shooting to the right
-                nextShotCoords = shipCoords.clone();
-                while (!madeNextShot && directionStillAvailable) {
-                    nextShotCoords[1] += 1;
-                    // make sure new coordinates are valid
-                    if (nextShotCoords[1] <= 9) {
-                        searchResult = this.searchSpace(nextShotCoords[0], nextShotCoords[1]);
-                        if (searchResult == 1) {
-                            // a shot was made
-                            madeNextShot = true;
-                        }
-                        else if (searchResult == 0) {
-                            // no shot was made, keep searching
-                        }
-                        else {
-                            // no shot was made, but cannot keep searching in this direction
-                            directionStillAvailable = false;
-                        }
-                    }
-                    else {
-                        directionStillAvailable = false;
-                    }
-                }
+                int rowc = this.geometry.rowOf(shipOfInterest);
+                int colc = this.geometry.columnOf(shipOfInterest);
+                // try shooting up, down, to the left, and to the right
+                madeNextShot = this.searchDirection(rowc, colc, -1, 0);
+                if (!madeNextShot) {
+                    madeNextShot = this.searchDirection(rowc, colc, 1, 0);
+                } else {}
+                if (!madeNextShot) {
+                    madeNextShot = this.searchDirection(rowc, colc, 0, -1);
+                } else {}
+                if (!madeNextShot) {
+                    madeNextShot = this.searchDirection(rowc, colc, 0, 1);
+                } else {}
 
                 // this should not happen, but if the method actually gets here, stop immediately
                 if (!madeNextShot) {
                     return false;
                 } else {}
 
-                // check if the ComputerPlayer won
-                if (this.computerPlayerWon()) {
-                    System.out.println("The Computer Player wins.");
-                } else {}
                 return true;
             }
         }
         else {
-            System.out.println("The Computer Player has already won.");
+            return false;
+        }
+    }
+
+    /**
+     * Helper method for this.makeNextShot(),
+     * walk away from a hit in one direction, past the other hits on Ships that have not sunk,
+     * and shoot at the first space that has not been shot at
+     * @param rowc the row coordinate of the hit to search from
+     * @param colc the column coordinate of the hit to search from
+     * @param rowStep the change in the row coordinate for every step, -1, 0, or 1
+     * @param colStep the change in the column coordinate for every step, -1, 0, or 1
+     * @return true if a shot was made, false if the search ran into the edge of the Map, a miss, or a sunk Ship
+     */
+    private boolean searchDirection(int rowc, int colc, int rowStep, int colStep) {
+        int searchResult = 0;
+        rowc += rowStep;
+        colc += colStep;
+        // searchSpace() returns 0 while the search can keep going in this direction
+        while (searchResult == 0 && this.geometry.isOnBoard(rowc, colc)) {
+            searchResult = this.searchSpace(rowc, colc);
+            rowc += rowStep;
+            colc += colStep;
+        }
+        return searchResult == 1;
+    }
+
+    /**
+     * Helper method for this.makeNextShot(),
+     * find a space of one checkerboard colour from its index in the list of spaces of that colour, in row-major order.
+     * The pattern repeats every this.parity rows, so the space is found without making the list
+     * @param colour 0 for the spaces whose coordinates add up to a multiple of this.parity, 1 for the rest
+     * @param index the index of the space among the spaces of its colour
+     * @return the space number of the space
+     */
+    private int checkerSpace(int colour, int index) {
+        int k = this.parity;
+        int cols = this.geometry.getColumns();
+        int perBlock = colour == 0 ? this.parityBlockCount : k * cols - this.parityBlockCount;
+        int rowc = k * (index / perBlock);
+        int rem = index % perBlock;
+        // find the row within the block of this.parity rows
+        int j = 0;
+        while (rem >= (colour == 0 ? this.parityRowCounts[j] : cols - this.parityRowCounts[j])) {
+            rem -= colour == 0 ? this.parityRowCounts[j] : cols - this.parityRowCounts[j];
+            j += 1;
+        }
+        int first = (k - j) % k; // the first column of colour 0 in the row
+        if (colour == 0) {
+            return this.geometry.cellIndex(rowc + j, first + k * rem);
+        }
+        else {
+            // every k columns have k - 1 spaces of colour 1, the one at offset first is skipped
+            int offset = rem % (k - 1);
+            return this.geometry.cellIndex(rowc + j, (rem / (k - 1)) * k + (offset < first ? offset : offset + 1));
+        }
+    }
+
+    /**
+     * Helper method for this.makeNextShot(),
+     * shoot at a space from one of the checkerboards if it has not been shot at yet
+     * @param cell the space number of the space to shoot at (see Map.cellIndex())
+     * @postcond this.spacesNotSunk is adjusted according to the outcome of the shot if a shot was made
+     * @return true if a shot was made, false if the space had already been shot at
+     */
+    private boolean shootCheckerSpace(int cell) {
+        int rowc = this.geometry.rowOf(cell);
+        int colc = this.geometry.columnOf(cell);
+        if (!this.opponentMap.alreadyShotHere(rowc, colc)) {
+            this.opponentMap.getGameEventListener().shotFired(this.opponentMap, rowc, colc);
+            int result = this.opponentMap.shoot(rowc, colc);
+            if (Map.shotResultType(result) == Map.SHOT_HIT) {
+                this.addSpaceNotSunk(cell);
+            } else {}
+            return true;
+        }
+        else {
             return false;
         }
     }
@@ -251,7 +357,7 @@ public class ComputerPlayer {
      * searching in the direction it is searching in
      * @param rowc the row coordinate of the space to check
      * @param colc the column coordinate of the space to check
-     * @precond 0 <= rowc <= 9 && 0 <= colc <= 9
+     * @precond the space is on the opponent's Map
      * @postcond this.spacesNotSunk is adjusted according to the outcome of the shot if a shot was made
      * @return 1 if a shot was made,
      * 0 if no shot was made, but this.makeNextShot() can still search in the direction it is searching in,
@@ -260,23 +366,21 @@ public class ComputerPlayer {
     public int searchSpace(int rowc, int colc) {
         // if this space has not yet been shot at, shoot at it
         if (!this.opponentMap.alreadyShotHere(rowc, colc)) {
-            String nextShot = this.opponentMap.convertNumberCoordinatesToShot(rowc, colc);
-            System.out.println("Computer Player's next shot: " + nextShot);
-            String message = this.opponentMap.shoot(nextShot);
-            System.out.println(message);
+            this.opponentMap.getGameEventListener().shotFired(this.opponentMap, rowc, colc);
+            int result = this.opponentMap.shoot(rowc, colc);
             // check if a Ship was hit but not sunk
-            if (Objects.equals(message, "Hit!")) {
-                this.spacesNotSunk.add(nextShot);
+            if (Map.shotResultType(result) == Map.SHOT_HIT) {
+                this.addSpaceNotSunk(this.geometry.cellIndex(rowc, colc));
             }
             // check if a Ship was sunk
-            else if (message.contains("Sunk")) {
-                this.removeSunkShipsFromSpacesNotSunk();
+            else if (Map.shotResultType(result) == Map.SHOT_SUNK) {
+                this.removeSunkShipFromSpacesNotSunk(rowc, colc);
             }
             else {}
             return 1;
         }
         // if this space has been shot at, and it is a Ship that has not been sunk, keep searching in this direction
-        else if (this.inSpacesNotSunk(this.opponentMap.convertNumberCoordinatesToShot(rowc, colc))) {
+        else if (this.inSpacesNotSunk(rowc, colc)) {
             return 0;
         }
         // otherwise, stop searching in this direction
@@ -291,38 +395,70 @@ public class ComputerPlayer {
      * @return true if the parameter shot is in this.spacesNotSunk, false otherwise
      */
     public boolean inSpacesNotSunk(String shot) {
-        for (String sp : this.spacesNotSunk) {
-            if (Objects.equals(sp, shot)) {
-                return true;
-            } else {}
+        int cell = this.geometry.parseShot(shot);
+        if (cell == Map.INVALID_CELL) {
+            return false;
         }
-        return false;
+        else {
+            return BitBoard.get(this.spacesNotSunk, cell);
+        }
+    }
+
+    /**
+     * Check if a space is in this.spacesNotSunk
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @precond the space is on the opponent's Map
+     * @return true if the space is in this.spacesNotSunk, false otherwise
+     */
+    public boolean inSpacesNotSunk(int rowc, int colc) {
+        return BitBoard.get(this.spacesNotSunk, this.geometry.cellIndex(rowc, colc));
     }
 
     /**
-     * Remove the spaces from this.spacesNotSunk that have a sunk Ship
-     * @postcond the spaces containing a sunk Ship are removed from this.spacesNotSunk
+     * Helper method for this.shootCheckerSpace() and this.searchSpace(),
+     * add a hit to this.spacesNotSunk and to the end of this.hitQueue
+     * @param cell the space number of the hit
+     * @precond the space has just been hit for the first time
      */
-    public void removeSunkShipsFromSpacesNotSunk() {
-        int[] coords;
-        Ship[][] shipsMap = this.opponentMap.getShipsOnMap();
-        ArrayList<String> spacesToRemove = new ArrayList<String>();
-        for (String sp : this.spacesNotSunk) {
-            coords = this.opponentMap.convertShotToNumberCoordinates(sp);
-            if (shipsMap[coords[0]][coords[1]].hasShipSunk()) {
-                spacesToRemove.add(sp);
+    private void addSpaceNotSunk(int cell) {
+        BitBoard.set(this.spacesNotSunk, cell);
+        this.hitQueue[this.hitQueueTail] = cell;
+        this.hitQueueTail += 1;
+    }
+
+    /**
+     * Helper method for this.makeNextShot(),
+     * find the oldest hit that is still in this.spacesNotSunk,
+     * hits that were removed when their Ship sunk are dropped from the front of this.hitQueue on the way
+     * @return the space number of the hit, or Map.INVALID_CELL if every Ship that was hit has sunk
+     */
+    private int nextSpaceNotSunk() {
+        while (this.hitQueueHead < this.hitQueueTail) {
+            int cell = this.hitQueue[this.hitQueueHead];
+            if (BitBoard.get(this.spacesNotSunk, cell)) {
+                return cell;
             } else {}
+            this.hitQueueHead += 1;
         }
-        // remove spaces containing a sunk Ship
-        for (String sr : spacesToRemove) {
-            for (int i = 0; i < this.spacesNotSunk.size(); i++) {
-                if (Objects.equals(sr, this.spacesNotSunk.get(i))) {
-                    this.spacesNotSunk.remove(i);
-                    break;
-                } else {}
-            }
+        return Map.INVALID_CELL;
+    }
+
+    /**
+     * Remove the spaces of a sunk Ship from this.spacesNotSunk
+     * @param rowc the row coordinate of a space of the sunk Ship
+     * @param colc the column coordinate of a space of the sunk Ship
+     * @precond the Ship at the space has sunk
+     * @postcond the spaces of the sunk Ship are removed from this.spacesNotSunk, this.hitQueue skips them later
+     */
+    public void removeSunkShipFromSpacesNotSunk(int rowc, int colc) {
+        Ship sh = this.opponentMap.getShipAt(rowc, colc);
+        int cell = this.geometry.cellIndex(sh.getRowCoordinate(), sh.getColumnCoordinate());
+        int step = sh.isHorizontal() ? 1 : this.geometry.getColumns();
+        for (int i = 0; i < sh.getSize(); i++) {
+            BitBoard.clear(this.spacesNotSunk, cell);
+            cell += step;
         }
-        spacesToRemove.clear();
     }
 
     /**
@@ -361,13 +497,14 @@ public class ComputerPlayer {
         m.addShip(2, true, 2, 1);
         m.addShip(2, false, 8, 0);
         m.addShip(2, false, 8, 1);
+        m.setGameEventListener(new ConsoleGameListener("Computer Player", "The Computer Player wins."));
         ComputerPlayer cp = new ComputerPlayer(m);
 
         System.out.println("Here is a test Map");
         System.out.println(m.displayShipsOnMap());
 
         // test computerPlayerWon() and makeNextShot()
-        // searchSpace(), inSpacesNotSunk(), and removeSunkShipsFromSpacesNotSunk() will not be tested explicitly
+        // searchSpace() and removeSunkShipFromSpacesNotSunk() will not be tested explicitly
         System.out.println("Now, the ComputerPlayer will try to sink the Ships on this Map.");
         System.out.println("The ComputerPlayer's perspective will be printed to the console.");
 
@@ -397,9 +534,54 @@ public class ComputerPlayer {
             uErrors += 1;
         } else {}
 
+        // test ComputerPlayer(Map, RandomGenerator), the Maps keep their SilentGameListener so the games should be silent
+        // and the two ComputerPlayers should make every shot the same way
+        Map quietMap1 = new Map();
+        Map quietMap2 = new Map();
+        quietMap1.addShipsRandomly(new Random(99));
+        quietMap2.addShipsRandomly(new Random(99));
+        ComputerPlayer quietCP1 = new ComputerPlayer(quietMap1, new Random(5));
+        ComputerPlayer quietCP2 = new ComputerPlayer(quietMap2, new Random(5));
+        while (quietCP1.makeNextShot()) {
+            quietCP2.makeNextShot();
+        }
+        if (!quietCP1.computerPlayerWon() || !quietCP2.computerPlayerWon()) {
+            System.out.println("Error: a silent ComputerPlayer did not win");
+            uErrors += 1;
+        }
+        else if (!quietMap1.displayShotsOnMap().equals(quietMap2.displayShotsOnMap())) {
+            System.out.println("Error: two ComputerPlayers with the same seed made different shots");
+            uErrors += 1;
+        } else {}
+
+        // test inSpacesNotSunk(), a hit should be remembered until its Ship sinks
+        Map frontierMap = new Map();
+        frontierMap.addShip(5, false, 5, 5);
+        frontierMap.addShip(2, true, 0, 0);
+        ComputerPlayer frontierCP = new ComputerPlayer(frontierMap);
+        frontierCP.searchSpace(5, 5);
+        if (!frontierCP.inSpacesNotSunk(5, 5) || !frontierCP.inSpacesNotSunk(frontierMap.convertNumberCoordinatesToShot(5, 5))) {
+            System.out.println("Error: inSpacesNotSunk() returned false for a hit on a Ship that has not sunk");
+            uErrors += 1;
+        } else {}
+        if (frontierCP.inSpacesNotSunk(6, 5) || frontierCP.inSpacesNotSunk("Z99")) {
+            System.out.println("Error: inSpacesNotSunk() returned true for a space that was not hit");
+            uErrors += 1;
+        } else {}
+        for (int r = 6; r <= 9; r++) {
+            frontierCP.searchSpace(r, 5);
+        }
+        for (int r = 5; r <= 9; r++) {
+            if (frontierCP.inSpacesNotSunk(r, 5)) {
+                System.out.println("Error: inSpacesNotSunk() returned true for a space of a sunk Ship");
+                uErrors += 1;
+            } else {}
+        }
+
         System.out.println("Now the ComputerPlayer will try to sink the Ships on a randomly generated Map");
         Map mRand = new Map();
         mRand.addShipsRandomly();
+        mRand.setGameEventListener(new ConsoleGameListener("Computer Player", "The Computer Player wins."));
         System.out.println(mRand.displayShipsOnMap());
         ComputerPlayer cp2 = new ComputerPlayer(mRand);
         madeNextShot = true;
@@ -417,6 +599,61 @@ public class ComputerPlayer {
         }
         else {}
 
+        // every space of an odd-shaped Map is on exactly one checkerboard colour, for a spacing of 2 and of 3
+        String[] parityFleets = {"5,4x2,3x3,2x4", "4,3x5"};
+        for (int f = 0; f < parityFleets.length; f++) {
+            Map oddMap = new Map(new BoardGeometry(13, 11), FleetSpec.parse(parityFleets[f]));
+            ComputerPlayer oddCP = new ComputerPlayer(oddMap, new SplittableRandom(3));
+            int k = f + 2;
+            boolean[] seen = new boolean[143];
+            boolean coloursCorrect = oddCP.parity == k;
+            int[] colourCounts = {oddCP.checkerSpaces1.count, oddCP.checkerSpaces2.count};
+            for (int colour = 0; colour <= 1; colour++) {
+                for (int i = 0; i < colourCounts[colour]; i++) {
+                    int cell = oddCP.checkerSpace(colour, i);
+                    coloursCorrect = coloursCorrect && !seen[cell] && ((cell / 11 + cell % 11) % k == 0) == (colour == 0);
+                    seen[cell] = true;
+                }
+            }
+            if (!coloursCorrect || colourCounts[0] + colourCounts[1] != 143) {
+                System.out.println("Error: checkerSpace() did not split a 13x11 Map into its colours for a spacing of " + k);
+                uErrors += 1;
+            } else {}
+        }
+
+        // the ComputerPlayer wins on Maps that are not 10x10, the biggest one included, and with other fleets
+        int[][] sizes = {{12, 15}, {1000, 1000}, {30, 40}, {100, 100}};
+        String[] fleets = {"5,4x2,3x3,2x4", "5,4x2,3x3,2x4", "6x3,4x10", "12,1x200,3x100"};
+        for (int g = 0; g < sizes.length; g++) {
+            int[] size = sizes[g];
+            Map bigMap = new Map(new BoardGeometry(size[0], size[1]), FleetSpec.parse(fleets[g]));
+            SplittableRandom bigRand = new SplittableRandom(size[0]);
+            if (bigMap.addShipsRandomly(bigRand) != 0 || bigMap.getRemainingHits() != bigMap.getFleet().getTotalLength()) {
+                System.out.println("Error: addShipsRandomly() did not place the fleet " + fleets[g]);
+                uErrors += 1;
+            } else {}
+            ComputerPlayer bigCP = new ComputerPlayer(bigMap, bigRand);
+            int[] firstHitQueue = bigCP.hitQueue;
+            int shots = 0;
+            while (bigCP.makeNextShot()) {
+                shots += 1;
+            }
+            if (!bigCP.computerPlayerWon() || shots > size[0] * size[1] || bigMap.getRemainingHits() != 0) {
+                System.out.println("Error: the ComputerPlayer did not win on a " + size[0] + "x" + size[1] + " Map with the fleet " + fleets[g]);
+                uErrors += 1;
+            } else {}
+            // the hit queue holds every space of the fleet from the start, only the 100x100 and 1000x1000 Maps shuffle sparsely
+            if (bigCP.hitQueue != firstHitQueue || firstHitQueue.length != bigMap.getFleet().getTotalLength()
+                    || (bigCP.checkerSpaces1.dense == null) != (size[0] >= 100)) {
+                System.out.println("Error: the ComputerPlayer did not size its hit queue or checkerboards for a " + size[0] + "x" + size[1] + " Map");
+                uErrors += 1;
+            } else {}
+            if (g == 0) {
+                System.out.println("The ComputerPlayer won on a 12x15 Map in " + shots + " shots:");
+                System.out.println(bigMap.displayShotsOnMap());
+            } else {}
+        }
+
         System.out.println("Testing complete with " + uErrors + " unintentional errors.");
     }
 }
@@ -0,0 +1,89 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A ConsoleGameListener prints the game events of a Map with the same text the game has always printed,
+ * for example "Computer Player's next shot: 5C", "You hit a ship!", and "The Computer Player wins."
+ */
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+public class ConsoleGameListener implements GameEventListener {
+    private final PrintStream out;
+    private final String shooter;    // who shoots at the Map, used when a shot is fired
+    private final String winMessage; // printed when every Ship on the Map has sunk
+
+    /**
+     * Constructor method for a ConsoleGameListener that prints to System.out
+     * @param shtr the name of the player shooting at the Map, for example "Computer Player"
+     * @param win the message to print when every Ship on the Map has sunk
+     */
+    public ConsoleGameListener(String shtr, String win) {
+        this(System.out, shtr, win);
+    }
+
+    /**
+     * Constructor method for a ConsoleGameListener
+     * @param ps where to print the events
+     * @param shtr the name of the player shooting at the Map, for example "Computer Player"
+     * @param win the message to print when every Ship on the Map has sunk
+     */
+    public ConsoleGameListener(PrintStream ps, String shtr, String win) {
+        this.out = ps;
+        this.shooter = shtr;
+        this.winMessage = win;
+    }
+
+    @Override
+    public void shotFired(Map m, int rowc, int colc) {
+        this.out.println(this.shooter + "'s next shot: " + m.convertNumberCoordinatesToShot(rowc, colc));
+    }
+
+    @Override
+    public void missed(Map m, int rowc, int colc) {
+        this.out.println(Map.describeShotResult(Map.SHOT_MISS));
+    }
+
+    @Override
+    public void hit(Map m, int rowc, int colc) {
+        this.out.println(Map.describeShotResult(Map.SHOT_HIT));
+    }
+
+    @Override
+    public void sunk(Map m, int rowc, int colc, int shipSize) {
+        this.out.println(Map.describeShotResult(Map.SHOT_SUNK | (shipSize << 8)));
+    }
+
+    @Override
+    public void gameOver(Map m) {
+        this.out.println(this.winMessage);
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing ConsoleGameListener.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // play a small Map to the end and compare the printed text
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(buffer, true);
+        Map m = new Map();
+        m.addShip(2, true, 0, 0);
+        m.setGameEventListener(new ConsoleGameListener(ps, "Computer Player", "The Computer Player wins."));
+        m.getGameEventListener().shotFired(m, 1, 0);
+        m.shoot(1, 0);
+        m.shoot(0, 0);
+        m.shoot(0, 0);
+        m.shoot(0, 1);
+        String expected = "Computer Player's next shot: " + m.convertNumberCoordinatesToShot(1, 0) + System.lineSeparator()
+                + Map.describeShotResult(Map.SHOT_MISS) + System.lineSeparator()
+                + Map.describeShotResult(Map.SHOT_HIT) + System.lineSeparator()
+                + Map.describeShotResult(Map.SHOT_SUNK | (2 << 8)) + System.lineSeparator()
+                + "The Computer Player wins." + System.lineSeparator();
+        if (!buffer.toString().equals(expected)) {
+            System.out.println("Error: ConsoleGameListener printed the following instead of the expected text:");
+            System.out.println(buffer.toString());
+            uErrors += 1;
+        } else {}
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A DecisionCache remembers the shots a TargetingStrategy chose, together with its heatmap, keyed by the observation
+ * hash of the opponent's Map (see Map.getObservationHash()). The same early-game observations come up in game after
+ * game, so a cache shared by many ComputerPlayers saves recomputing them.
+ *
+ * The cache holds a bounded number of decisions and evicts the least recently used one when it is full.
+ * It is split into stripes, each a LinkedHashMap in access order behind its own lock, so threads looking up
+ * different observations rarely wait for each other. Hits, misses, and evictions are counted with LongAdders
+ * so that the hit rate can be read while games are running and used to size the cache.
+ *
+ * The key is only the observations, so one cache should only be shared by strategies of the same kind,
+ * playing against Maps with the same fleet.
+ */
+import java.util.LinkedHashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+public class DecisionCache {
+    private static final int DEFAULT_STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int capacity;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * A Decision is a shot chosen by a TargetingStrategy and the heatmap it was chosen from, it never changes
+     */
+    public static final class Decision {
+        private final int shot;
+        private final double[] heatmap; // null if the strategy keeps no heatmap
+
+        /**
+         * Constructor method for a Decision
+         * @param sht the space number of the shot
+         * @param heat the score of every space, copied, or null if there is none
+         */
+        Decision(int sht, double[] heat) {
+            this.shot = sht;
+            this.heatmap = heat == null ? null : heat.clone();
+        }
+
+        /**
+         * @return the space number of the shot
+         */
+        public int getShot() {
+            return this.shot;
+        }
+
+        /**
+         * @return true if the Decision has a heatmap, false otherwise
+         */
+        public boolean hasHeatmap() {
+            return this.heatmap != null;
+        }
+
+        /**
+         * @param cell the space number of a space
+         * @precond hasHeatmap()
+         * @return the score of the space in the heatmap
+         */
+        public double getHeat(int cell) {
+            return this.heatmap[cell];
+        }
+    }
+
+    /**
+     * A Stripe is one part of the cache, the most recently used Decisions are at the end of its map
+     */
+    private class Stripe extends LinkedHashMap<Long, Decision> {
+        private static final long serialVersionUID = 1L;
+
+        private final int stripeCapacity;
+
+        /**
+         * Constructor method for a Stripe
+         * @param cap the number of Decisions the Stripe holds before it evicts
+         */
+        Stripe(int cap) {
+            super(16, 0.75f, true);
+            this.stripeCapacity = cap;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(java.util.Map.Entry<Long, Decision> eldest) {
+            if (this.size() > this.stripeCapacity) {
+                evictions.increment();
+                return true;
+            }
+            else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Constructor method for a DecisionCache with 16 stripes
+     * @param cap the number of Decisions the cache holds
+     * @precond cap >= 1
+     */
+    public DecisionCache(int cap) {
+        this(cap, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructor method for a DecisionCache
+     * @param cap the number of Decisions the cache holds, rounded up to a multiple of the number of stripes
+     * @param stripeCount the number of independently locked stripes, rounded up to a power of 2
+     * @throws RuntimeException if cap or stripeCount is less than 1
+     */
+    public DecisionCache(int cap, int stripeCount) {
+        if (cap < 1 || stripeCount < 1) {
+            throw new RuntimeException("Invalid cache size: " + cap + " decisions in " + stripeCount + " stripes");
+        } else {}
+        int count = Integer.highestOneBit(stripeCount);
+        if (count < stripeCount) {
+            count *= 2;
+        } else {}
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        int perStripe = (cap + count - 1) / count;
+        this.capacity = perStripe * count;
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(perStripe);
+        }
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Helper method for finding the stripe of a key,
+     * the high bits are used because the LinkedHashMap inside the stripe hashes on the low bits
+     * @param key an observation hash
+     * @return the stripe the key belongs to
+     */
+    private Stripe stripeFor(long key) {
+        return this.stripes[(int) (key >>> 40) & this.stripeMask];
+    }
+
+    /**
+     * Look up the Decision made for some observations, counting a hit or a miss
+     * @param key the observation hash of the opponent's Map
+     * @return the Decision, or null if there is none in the cache
+     */
+    public Decision get(long key) {
+        Stripe stripe = this.stripeFor(key);
+        Decision d;
+        synchronized (stripe) {
+            d = stripe.get(key);
+        }
+        if (d == null) {
+            this.misses.increment();
+        }
+        else {
+            this.hits.increment();
+        }
+        return d;
+    }
+
+    /**
+     * Remember the Decision made for some observations, evicting the least recently used Decision of its stripe if it is full
+     * @param key the observation hash of the opponent's Map
+     * @param shot the space number of the shot chosen
+     * @param heatmap the score of every space the shot was chosen from, copied, or null if there is none
+     * @return the Decision that was stored
+     */
+    public Decision put(long key, int shot, double[] heatmap) {
+        Decision d = new Decision(shot, heatmap);
+        Stripe stripe = this.stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, d);
+        }
+        return d;
+    }
+
+    /**
+     * @return the number of Decisions in the cache
+     */
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                total += stripe.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of Decisions the cache holds before it evicts
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return the number of lookups that found a Decision
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that found nothing
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return the number of Decisions evicted to make room for new ones
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * @return the fraction of lookups that found a Decision, 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long h = this.getHits();
+        long lookups = h + this.getMisses();
+        if (lookups == 0) {
+            return 0;
+        }
+        else {
+            return (double) h / lookups;
+        }
+    }
+
+    /**
+     * Summarize how well the cache is doing
+     * @return a line with the hit rate, the lookups, the evictions, and how full the cache is
+     */
+    public String statistics() {
+        return String.format("Decision cache: %.1f%% hit rate, %d hits, %d misses, %d evictions, %d of %d decisions",
+                100 * this.getHitRate(), this.getHits(), this.getMisses(), this.getEvictions(), this.size(), this.capacity);
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing DecisionCache.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // test DecisionCache() constructor
+        try {
+            new DecisionCache(0);
+            System.out.println("Error: DecisionCache() constructor did not throw an exception for a capacity of 0");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+        if (new DecisionCache(100, 3).getCapacity() != 100 || new DecisionCache(10, 4).getCapacity() != 12) {
+            System.out.println("Error: DecisionCache() constructor did not round the capacity to the stripes");
+            uErrors += 1;
+        } else {}
+
+        // test get() and put(), with one stripe the least recently used Decision is evicted
+        DecisionCache dc = new DecisionCache(3, 1);
+        double[] heat = new double[100];
+        heat[42] = 0.5;
+        dc.put(1, 11, heat);
+        dc.put(2, 22, null);
+        dc.put(3, 33, null);
+        heat[42] = 0.9; // the Decision keeps its own copy
+        if (dc.get(1).getShot() != 11 || dc.get(1).getHeat(42) != 0.5 || dc.get(2).hasHeatmap()) {
+            System.out.println("Error: get() did not return the Decisions that were put in");
+            uErrors += 1;
+        } else {}
+        dc.put(4, 44, null); // 3 is the least recently used now
+        if (dc.get(3) != null || dc.get(1) == null || dc.get(4) == null || dc.size() != 3 || dc.getEvictions() != 1) {
+            System.out.println("Error: put() did not evict the least recently used Decision");
+            uErrors += 1;
+        } else {}
+        if (dc.get(99) != null) {
+            System.out.println("Error: get() found a Decision that was never put in");
+            uErrors += 1;
+        } else {}
+        // 5 of the 7 lookups above found a Decision
+        if (dc.getHits() != 5 || dc.getMisses() != 2 || Math.abs(dc.getHitRate() - 5.0 / 7) > 1e-12) {
+            System.out.println("Error: the cache counted " + dc.getHits() + " hits and " + dc.getMisses() + " misses instead of 5 and 2");
+            uErrors += 1;
+        } else {}
+
+        // many threads using a striped cache at once should never go over the capacity or lose a count
+        final DecisionCache shared = new DecisionCache(1000, 8);
+        final int lookups = 200000;
+        ForkJoinPool pool = new ForkJoinPool(4);
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                RecursiveAction[] workers = new RecursiveAction[4];
+                for (int w = 0; w < workers.length; w++) {
+                    final long seed = w;
+                    workers[w] = new RecursiveAction() {
+                        @Override
+                        protected void compute() {
+                            SplittableRandom rand = new SplittableRandom(seed);
+                            for (int i = 0; i < lookups; i++) {
+                                // a skewed set of keys, like the early-game observations
+                                long key = (long) Math.min(rand.nextInt(3000), rand.nextInt(3000)) * 0x9E3779B97F4A7C15L;
+                                if (shared.get(key) == null) {
+                                    shared.put(key, (int) (key & 63), null);
+                                } else {}
+                            }
+                        }
+                    };
+                }
+                invokeAll(workers);
+            }
+        });
+        pool.shutdown();
+        if (shared.getHits() + shared.getMisses() != 4L * lookups || shared.size() > shared.getCapacity()) {
+            System.out.println("Error: the shared cache lost counts or went over its capacity");
+            uErrors += 1;
+        } else {}
+        System.out.println(shared.statistics());
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A FleetSpec lists the sizes of the Ships in a fleet, largest first. The standard fleet is
+ * 1 Ship of length 5, 2 of length 4, 3 of length 3, and 4 of length 2, but a fleet can have any number of Ships
+ * of any length from MIN_SHIP_SIZE to MAX_SHIP_SIZE, as long as it fits on the board it is played on.
+ * A FleetSpec never changes, so one can be shared by every Map of a game or a simulation.
+ */
+import java.util.Arrays;
+
+public final class FleetSpec {
+    public static final int MIN_SHIP_SIZE = 1;
+    public static final int MAX_SHIP_SIZE = 1 << 20; // small enough to fit in a shot result code, see Map.shotResultShipSize()
+    public static final FleetSpec STANDARD = new FleetSpec(5, 4, 4, 3, 3, 3, 2, 2, 2, 2);
+
+    private final int[] sizes; // largest first
+    private final long totalLength;
+
+    /**
+     * Constructor method for a FleetSpec
+     * @param shipSizes the size of every Ship, in any order
+     * @throws RuntimeException if there are no Ships or a size is not between MIN_SHIP_SIZE and MAX_SHIP_SIZE
+     */
+    public FleetSpec(int... shipSizes) {
+        if (shipSizes.length == 0) {
+            throw new RuntimeException("A fleet must have at least one ship");
+        } else {}
+        this.sizes = shipSizes.clone();
+        Arrays.sort(this.sizes);
+        // reverse the sorted sizes so the largest come first
+        for (int i = 0; i < this.sizes.length / 2; i++) {
+            int entry = this.sizes[i];
+            this.sizes[i] = this.sizes[this.sizes.length - 1 - i];
+            this.sizes[this.sizes.length - 1 - i] = entry;
+        }
+        long total = 0;
+        for (int sz : this.sizes) {
+            if (sz < MIN_SHIP_SIZE || sz > MAX_SHIP_SIZE) {
+                throw new RuntimeException("Ship must have size of at least " + MIN_SHIP_SIZE + " and no greater than " + MAX_SHIP_SIZE);
+            } else {}
+            total += sz;
+        }
+        this.totalLength = total;
+    }
+
+    /**
+     * Read a fleet written as sizes separated by commas, where a size can be followed by x and a count,
+     * so the standard fleet is "5,4x2,3x3,2x4" or "5,4,4,3,3,3,2,2,2,2"
+     * @param fleet the written fleet
+     * @return the FleetSpec
+     * @throws RuntimeException if the fleet is not written correctly or a size is not valid
+     */
+    public static FleetSpec parse(String fleet) {
+        String[] items = fleet.split(",");
+        int count = 0;
+        int[] counts = new int[items.length];
+        int[] itemSizes = new int[items.length];
+        try {
+            for (int i = 0; i < items.length; i++) {
+                String[] parts = items[i].trim().toLowerCase().split("x", -1);
+                if (parts.length > 2) {
+                    throw new RuntimeException("Invalid fleet: " + fleet);
+                } else {}
+                itemSizes[i] = Integer.parseInt(parts[0].trim());
+                counts[i] = parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 1;
+                if (counts[i] < 1 || counts[i] > 1000000) {
+                    throw new RuntimeException("Invalid fleet: " + fleet);
+                } else {}
+                count += counts[i];
+            }
+        }
+        catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid fleet: " + fleet);
+        }
+        int[] shipSizes = new int[count];
+        int s = 0;
+        for (int i = 0; i < items.length; i++) {
+            for (int j = 0; j < counts[i]; j++) {
+                shipSizes[s] = itemSizes[i];
+                s += 1;
+            }
+        }
+        return new FleetSpec(shipSizes);
+    }
+
+    /**
+     * @return the number of Ships in the fleet
+     */
+    public int getShipCount() {
+        return this.sizes.length;
+    }
+
+    /**
+     * @param index the index of a Ship, the largest Ships come first
+     * @precond 0 <= index < getShipCount()
+     * @return the size of the Ship
+     */
+    public int getSize(int index) {
+        return this.sizes[index];
+    }
+
+    /**
+     * @return a copy of the sizes of the Ships, largest first
+     */
+    public int[] getSizes() {
+        return this.sizes.clone();
+    }
+
+    /**
+     * @return the size of the largest Ship
+     */
+    public int getLargestSize() {
+        return this.sizes[0];
+    }
+
+    /**
+     * @return the size of the smallest Ship, a search that shoots every space whose coordinates add up
+     *         to a multiple of it is sure to hit every Ship
+     */
+    public int getSmallestSize() {
+        return this.sizes[this.sizes.length - 1];
+    }
+
+    /**
+     * @return the number of spaces the whole fleet covers
+     */
+    public long getTotalLength() {
+        return this.totalLength;
+    }
+
+    /**
+     * @param sz the size of a Ship
+     * @return the number of Ships of that size in the fleet
+     */
+    public int countOfSize(int sz) {
+        int count = 0;
+        for (int size : this.sizes) {
+            if (size == sz) {
+                count += 1;
+            } else {}
+        }
+        return count;
+    }
+
+    /**
+     * Determine if every Ship of the fleet is between two sizes, for code that keeps tables for a fixed range of sizes
+     * @param min the smallest size allowed
+     * @param max the largest size allowed
+     * @return true if every size is between min and max, false otherwise
+     */
+    public boolean hasSizesBetween(int min, int max) {
+        return this.getSmallestSize() >= min && this.getLargestSize() <= max;
+    }
+
+    /**
+     * Determine if the fleet could fit on a board, the largest Ship must fit along one side
+     * and the fleet cannot cover more spaces than the board has
+     * @param rows the number of rows of the board
+     * @param columns the number of columns of the board
+     * @return true if the fleet could fit, false otherwise
+     */
+    public boolean fitsOn(int rows, int columns) {
+        return this.getLargestSize() <= Math.max(rows, columns) && this.totalLength <= (long) rows * columns;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof FleetSpec)) {
+            return false;
+        } else {}
+        return Arrays.equals(this.sizes, ((FleetSpec) other).sizes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.sizes);
+    }
+
+    /**
+     * @return the fleet written the way parse() reads it, with runs of the same size as a count, like "5,4x2,3x3,2x4"
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < this.sizes.length) {
+            int run = 1;
+            while (i + run < this.sizes.length && this.sizes[i + run] == this.sizes[i]) {
+                run += 1;
+            }
+            if (sb.length() > 0) {
+                sb.append(',');
+            } else {}
+            sb.append(this.sizes[i]);
+            if (run > 1) {
+                sb.append('x').append(run);
+            } else {}
+            i += run;
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing FleetSpec.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // test FleetSpec() constructor
+        try {
+            new FleetSpec();
+            System.out.println("Error: FleetSpec() constructor did not throw an exception for an empty fleet");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+        try {
+            new FleetSpec(3, 0);
+            System.out.println("Error: FleetSpec() constructor did not throw an exception for a Ship of size 0");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+
+        // the standard fleet
+        FleetSpec std = FleetSpec.STANDARD;
+        if (std.getShipCount() != 10 || std.getLargestSize() != 5 || std.getSmallestSize() != 2 || std.getTotalLength() != 30
+                || std.countOfSize(3) != 3 || !std.toString().equals("5,4x2,3x3,2x4") || !std.fitsOn(10, 10)) {
+            System.out.println("Error: the standard fleet is " + std + " instead of 5,4x2,3x3,2x4");
+            uErrors += 1;
+        } else {}
+
+        // test parse(), the sizes can come in any order
+        if (!FleetSpec.parse("2x4, 3X3,4,5,4").equals(std) || !FleetSpec.parse(std.toString()).equals(std)) {
+            System.out.println("Error: parse() did not read the standard fleet");
+            uErrors += 1;
+        } else {}
+        String[] invalid = {"", "5,,4", "5x", "x3", "5x0", "5x2x2", "five", "0"};
+        for (String fleet : invalid) {
+            try {
+                FleetSpec.parse(fleet);
+                System.out.println("Error: parse() accepted the fleet \"" + fleet + "\"");
+                uErrors += 1;
+            }
+            catch (Exception e) {
+                // expected result
+            }
+        }
+
+        // a big fleet of long Ships
+        FleetSpec big = FleetSpec.parse("1000,40x10,1x300");
+        if (big.getShipCount() != 311 || big.getSize(0) != 1000 || big.getSize(310) != 1 || big.getTotalLength() != 1700
+                || big.fitsOn(999, 999) || !big.fitsOn(10, 1000) || big.hasSizesBetween(1, 40) || !big.hasSizesBetween(1, 1000)) {
+            System.out.println("Error: a fleet of 311 Ships was not read correctly: " + big);
+            uErrors += 1;
+        } else {}
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A FrameComposer lays out any number of Maps side by side, with a title over each one,
+ * and writes the whole frame through one Writer with a single write and a single flush.
+ * The boards are read straight from the char frames of their MapRenderers, so boards of any width work,
+ * and the layout is built in a buffer that is kept between frames.
+ */
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+public class FrameComposer {
+    private static final int TITLE_INDENT = 2; // titles start above the first column of spaces, after the row labels
+
+    private final Writer out;
+    private final int gap; // the number of spaces between two boards
+    private char[] buffer;
+    private int length;
+    private AnsiScreen screen; // if not null, frames are sent as differences to an ANSI terminal
+
+    /**
+     * Constructor method for a FrameComposer that puts 5 spaces between boards
+     * @param w where to write the frames
+     */
+    public FrameComposer(Writer w) {
+        this(w, 5);
+    }
+
+    /**
+     * Constructor method for a FrameComposer
+     * @param w where to write the frames
+     * @param gp the number of spaces between two boards
+     * @precond gp >= 1
+     */
+    public FrameComposer(Writer w, int gp) {
+        this.out = w;
+        this.gap = gp;
+        this.buffer = new char[512];
+        this.length = 0;
+        this.screen = null;
+    }
+
+    /**
+     * Send the frames through an AnsiScreen, which keeps them in place and only sends the changes
+     * @param scr the AnsiScreen, or null to write every frame in full to this.out
+     */
+    public void setAnsiScreen(AnsiScreen scr) {
+        this.screen = scr;
+    }
+
+    /**
+     * Lay out the boards side by side and write them with one write and one flush,
+     * or send the differences from the last frame if an AnsiScreen is set
+     * @param titles the title over each board, parallel to boards
+     * @param boards the MapRenderers of the boards, from left to right
+     * @precond titles.length == boards.length
+     * @postcond the frame is written and flushed to this.out, or to the terminal of the AnsiScreen
+     * @throws IOException if the Writer fails
+     */
+    public void writeFrame(String[] titles, MapRenderer[] boards) throws IOException {
+        this.compose(titles, boards);
+        if (this.screen != null) {
+            this.screen.update(this.buffer, this.length);
+        }
+        else {
+            this.out.write(this.buffer, 0, this.length);
+            this.out.flush();
+        }
+    }
+
+    /**
+     * Lay out the boards side by side in this.buffer
+     * @param titles the title over each board, parallel to boards
+     * @param boards the MapRenderers of the boards, from left to right
+     * @postcond this.buffer holds the frame and this.length is its length
+     */
+    private void compose(String[] titles, MapRenderer[] boards) {
+        this.length = 0;
+        int lines = 0;
+        for (MapRenderer board : boards) {
+            lines = Math.max(lines, board.getLineCount());
+        }
+
+        // titles, each padded to the width of its board and the gap, nothing is added after the last one
+        for (int b = 0; b < boards.length; b++) {
+            int start = this.length;
+            this.appendSpaces(TITLE_INDENT);
+            this.append(titles[b]);
+            if (b < boards.length - 1) {
+                int width = boards[b].getLineLength() - 1 + this.gap;
+                this.appendSpaces(Math.max(1, width - (this.length - start)));
+            } else {}
+        }
+        this.append('\n');
+
+        // one line of every board at a time, boards with fewer lines are padded with spaces
+        for (int line = 0; line < lines; line++) {
+            for (int b = 0; b < boards.length; b++) {
+                int width = boards[b].getLineLength() - 1; // without the '\n'
+                if (line < boards[b].getLineCount()) {
+                    this.append(boards[b].frame(), line * boards[b].getLineLength(), width);
+                }
+                else if (b < boards.length - 1) {
+                    this.appendSpaces(width);
+                } else {}
+                if (b < boards.length - 1) {
+                    this.appendSpaces(this.gap);
+                } else {}
+            }
+            this.append('\n');
+        }
+    }
+
+    /**
+     * Helper method for compose(),
+     * make sure this.buffer has room for more characters
+     * @param extra the number of characters about to be added
+     */
+    private void ensureCapacity(int extra) {
+        if (this.length + extra > this.buffer.length) {
+            char[] bigger = new char[Math.max(this.buffer.length * 2, this.length + extra)];
+            System.arraycopy(this.buffer, 0, bigger, 0, this.length);
+            this.buffer = bigger;
+        } else {}
+    }
+
+    /**
+     * Helper method for compose(), add a character to this.buffer
+     * @param ch the character
+     */
+    private void append(char ch) {
+        this.ensureCapacity(1);
+        this.buffer[this.length] = ch;
+        this.length += 1;
+    }
+
+    /**
+     * Helper method for compose(), add a String to this.buffer
+     * @param st the String
+     */
+    private void append(String st) {
+        this.ensureCapacity(st.length());
+        st.getChars(0, st.length(), this.buffer, this.length);
+        this.length += st.length();
+    }
+
+    /**
+     * Helper method for compose(), add part of a char array to this.buffer
+     * @param chars the char array
+     * @param offset the index of the first character to add
+     * @param count the number of characters to add
+     */
+    private void append(char[] chars, int offset, int count) {
+        this.ensureCapacity(count);
+        System.arraycopy(chars, offset, this.buffer, this.length, count);
+        this.length += count;
+    }
+
+    /**
+     * Helper method for compose(), add spaces to this.buffer
+     * @param count the number of spaces
+     */
+    private void appendSpaces(int count) {
+        this.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            this.buffer[this.length + i] = ' ';
+        }
+        this.length += count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("Testing FrameComposer.java");
+        int uErrors = 0; // number of unintentional errors
+
+        Map compMap = new Map();
+        Map playerMap = new Map();
+        compMap.addShip(3, false, 0, 0);
+        playerMap.addShip(4, true, 9, 6);
+        compMap.shoot(0, 0);
+        compMap.shoot(5, 5);
+        playerMap.shoot(9, 9);
+
+        // the frame should match the layout BattleshipGame has always printed
+        String cpShips = compMap.displayShotsOnMap();
+        String playerShips = playerMap.displayShipsAndShotsOnMap();
+        String expected = "  CP Ships         Your Ships\n";
+        for (int line = 0; line < 12; line++) {
+            expected += cpShips.substring(line * 13, line * 13 + 12) + "     " + playerShips.substring(line * 13, line * 13 + 12) + "\n";
+        }
+        StringWriter sw = new StringWriter();
+        FrameComposer fc = new FrameComposer(sw);
+        MapRenderer[] boards = {compMap.getRenderer(MapRenderer.SHOTS), playerMap.getRenderer(MapRenderer.SHIPS_AND_SHOTS)};
+        String[] titles = {"CP Ships", "Your Ships"};
+        fc.writeFrame(titles, boards);
+        if (!sw.toString().equals(expected)) {
+            System.out.println("Error: writeFrame() did not lay out two Maps as expected, it wrote:");
+            System.out.println(sw.toString());
+            uErrors += 1;
+        } else {}
+
+        // three boards with a narrower gap, the buffer has to grow
+        sw = new StringWriter();
+        fc = new FrameComposer(sw, 1);
+        MapRenderer[] three = {boards[0], boards[1], compMap.getRenderer(MapRenderer.SHIPS)};
+        fc.writeFrame(new String[]{"A", "B", "C"}, three);
+        String[] lines = sw.toString().split("\n");
+        if (lines.length != 13 || !lines[0].equals("  A            B            C") || lines[1].length() != 3 * 12 + 2) {
+            System.out.println("Error: writeFrame() did not lay out three Maps as expected, it wrote:");
+            System.out.println(sw.toString());
+            uErrors += 1;
+        } else {}
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A GameEventListener is told about the shots made at a Map, so that the game can be shown on the console,
+ * sent somewhere else, or not shown at all without changing the game logic.
+ * A Map tells its listener about every shot that lands (see Map.setGameEventListener()),
+ * and a ComputerPlayer tells its opponent's listener which space it is about to shoot at.
+ */
+public interface GameEventListener {
+
+    /**
+     * A player has chosen a space to shoot at
+     * @param m the Map being shot at
+     * @param rowc the row coordinate of the shot
+     * @param colc the column coordinate of the shot
+     */
+    void shotFired(Map m, int rowc, int colc);
+
+    /**
+     * A shot did not hit any Ship
+     * @param m the Map that was shot at
+     * @param rowc the row coordinate of the shot
+     * @param colc the column coordinate of the shot
+     */
+    void missed(Map m, int rowc, int colc);
+
+    /**
+     * A shot hit a Ship without sinking it
+     * @param m the Map that was shot at
+     * @param rowc the row coordinate of the shot
+     * @param colc the column coordinate of the shot
+     */
+    void hit(Map m, int rowc, int colc);
+
+    /**
+     * A shot hit the last space of a Ship that had not been hit
+     * @param m the Map that was shot at
+     * @param rowc the row coordinate of the shot
+     * @param colc the column coordinate of the shot
+     * @param shipSize the size of the Ship that sunk
+     */
+    void sunk(Map m, int rowc, int colc, int shipSize);
+
+    /**
+     * Every Ship on a Map has sunk, this comes right after the sunk() event of the last Ship
+     * @param m the Map whose Ships have all sunk
+     */
+    void gameOver(Map m);
+}
@@ -0,0 +1,603 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A LayoutCounter counts exactly how many fleet layouts agree with what is known about a Map,
+ * and how many of those layouts cover each space. Dividing the two gives the true chance that a space
+ * holds a Ship, which the targeting strategies and the samplers can be checked against.
+ *
+ * A layout agrees with the observations when its Ships follow the rules of Map.willShipFit(),
+ * cover none of the blocked spaces (misses and sunk Ships), cover every hit, and no Ship is hit on every space
+ * (it would have sunk). Ships of the same size are interchangeable, so each layout is counted once.
+ *
+ * The count is a profile dynamic program over the spaces in row-major order. Each Ship is placed at its top or
+ * left space, and the state after a space is:
+ *   for every column, how many more spaces a vertical Ship already placed covers in that column,
+ *   how many more spaces a horizontal Ship covers in the current row,
+ *   and how many Ships of each size are left to place.
+ * The state fits in one long. A forward pass finds the states that can be reached before each space, with
+ * the number of ways to reach them, and keeps them in one primitive hash table per space. A backward pass then
+ * counts the ways to finish the layout from every state, one space at a time from the bottom right corner,
+ * and the states of a space are split across the cores with fork-join. A layout leaves a space empty through
+ * exactly one state before it, so the coverage of the space is the total minus the sum of (ways to reach) times
+ * (ways to finish) over the states that leave it empty.
+ *
+ * Every space that is already known removes states, so the counts get cheap quickly as a game goes on:
+ * a board with 30 shots takes well under a second and one with 15 shots a few seconds, but a board with
+ * only a handful of shots has hundreds of millions of states and does not fit in memory.
+ */
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class LayoutCounter {
+    private static final int BITS_PER_COLUMN = 3; // remaining lengths are 0 to 4
+    private static final int HORIZONTAL_SHIFT = 10 * BITS_PER_COLUMN;
+    private static final int FLEET_SHIFT = HORIZONTAL_SHIFT + 3;
+    private static final int BITS_PER_SIZE = 4;   // up to 15 Ships of each size
+    private static final long USED = 1L << 62;     // marks a used slot of a Layer, states never reach this bit
+    private static final int MAX_SUCCESSORS = 1 + 2 * (PlacementGenerator.MAX_SIZE - PlacementGenerator.MIN_SIZE + 1);
+    private static final int SPLIT_SLOTS = 1 << 13; // the number of slots of a Layer one task works through
+
+    private final long[] blockedBits;
+    private final long[] hitBits;
+    private final int[] shipsLeft; // entry sz is the number of Ships of size sz to place
+    private long lastStateCount;
+
+    /**
+     * Constructor method for a LayoutCounter
+     * @param blocked a BitBoard of the spaces no Ship may cover
+     * @param hits a BitBoard of the spaces a Ship must cover
+     * @param sizes the sizes of the Ships to place
+     * @throws RuntimeException if a size is not between PlacementGenerator.MIN_SIZE and PlacementGenerator.MAX_SIZE,
+     *         or there are more than 15 Ships of one size
+     */
+    public LayoutCounter(long[] blocked, long[] hits, int[] sizes) {
+        this.blockedBits = blocked.clone();
+        this.hitBits = hits.clone();
+        this.shipsLeft = new int[PlacementGenerator.MAX_SIZE + 1];
+        this.lastStateCount = 0;
+        for (int sz : sizes) {
+            if (sz < PlacementGenerator.MIN_SIZE || sz > PlacementGenerator.MAX_SIZE) {
+                throw new RuntimeException("Invalid ship size: " + sz);
+            } else {}
+            this.shipsLeft[sz] += 1;
+            if (this.shipsLeft[sz] >= (1 << BITS_PER_SIZE)) {
+                throw new RuntimeException("Too many ships of size " + sz);
+            } else {}
+        }
+    }
+
+    /**
+     * Build a LayoutCounter from what a player shooting at a Map knows:
+     * the misses, the spaces of the sunk Ships, the hits on Ships that have not sunk, and the fleet minus the sunk Ships
+     * @param m the Map being shot at
+     * @return a LayoutCounter for the Ships of m that have not sunk
+     * @throws RuntimeException if the Map is not 10x10 or has Ships shorter than 2 or longer than 5 spaces
+     */
+    public static LayoutCounter observe(Map m) {
+        if (!m.getGeometry().isStandard() || !m.getFleet().hasSizesBetween(PlacementGenerator.MIN_SIZE, PlacementGenerator.MAX_SIZE)) {
+            throw new RuntimeException("Error in observe(): only 10x10 Maps with Ships of 2 to 5 spaces are supported");
+        } else {}
+        long[] blocked = BitBoard.create(100);
+        long[] hits = BitBoard.create(100);
+        int[] sunkSpaces = new int[PlacementGenerator.MAX_SIZE + 1]; // spaces of sunk Ships, by size
+        for (int cell = 0; cell < 100; cell++) {
+            int rowc = cell / 10;
+            int colc = cell % 10;
+            if (m.isHit(rowc, colc) && m.getShipAt(rowc, colc).hasShipSunk()) {
+                BitBoard.set(blocked, cell);
+                sunkSpaces[m.getShipAt(rowc, colc).getSize()] += 1;
+            }
+            else if (m.isHit(rowc, colc)) {
+                BitBoard.set(hits, cell);
+            }
+            else if (m.alreadyShotHere(rowc, colc)) {
+                BitBoard.set(blocked, cell);
+            } else {}
+        }
+        int[] fleet = m.getShipSizes();
+        int[] sizes = new int[fleet.length];
+        int afloat = 0;
+        for (int sz : fleet) {
+            if (sunkSpaces[sz] >= sz) {
+                sunkSpaces[sz] -= sz; // this Ship has sunk
+            }
+            else {
+                sizes[afloat] = sz;
+                afloat += 1;
+            }
+        }
+        return new LayoutCounter(blocked, hits, Arrays.copyOf(sizes, afloat));
+    }
+
+    /**
+     * Count the layouts that agree with the observations
+     * @return the number of layouts
+     * @throws ArithmeticException if the count does not fit in a long
+     */
+    public long countLayouts() {
+        return this.countCoverage(ForkJoinPool.commonPool())[100];
+    }
+
+    /**
+     * Count, for every space, the layouts that agree with the observations and cover the space
+     * @param pool the fork-join pool to run the backward pass on
+     * @return entry i is the number of layouts covering space i, and the last entry (index 100) is the total
+     * @throws ArithmeticException if a count does not fit in a long
+     */
+    public long[] countCoverage(ForkJoinPool pool) {
+        long[] coverage = new long[101];
+        long fleet = 0;
+        int shipSpaces = 0;
+        for (int sz = PlacementGenerator.MIN_SIZE; sz <= PlacementGenerator.MAX_SIZE; sz++) {
+            fleet |= (long) this.shipsLeft[sz] << (BITS_PER_SIZE * (sz - PlacementGenerator.MIN_SIZE));
+            shipSpaces += sz * this.shipsLeft[sz];
+        }
+        if (shipSpaces > 100 - BitBoard.count(this.blockedBits)) {
+            this.lastStateCount = 0;
+            return coverage;
+        } else {}
+
+        // forward pass, layers[i] holds the states before space i and the ways to reach them
+        Layer[] layers = new Layer[101];
+        layers[0] = new Layer(16);
+        layers[0].addForward(fleet << FLEET_SHIFT, 1);
+        long[] next = new long[MAX_SUCCESSORS];
+        this.lastStateCount = 1;
+        for (int cell = 0; cell < 100; cell++) {
+            Layer layer = layers[cell];
+            layers[cell + 1] = new Layer(layer.size * 2);
+            for (int slot = 0; slot < layer.keys.length; slot++) {
+                if (layer.keys[slot] != 0) {
+                    int count = this.successors(cell, layer.keys[slot] ^ USED, next);
+                    for (int i = 0; i < count; i++) {
+                        layers[cell + 1].addForward(next[i], layer.forward[slot]);
+                    }
+                } else {}
+            }
+            this.lastStateCount += layers[cell + 1].size;
+        }
+
+        // backward pass, only the state with every Ship placed and nothing left over finishes a layout
+        Layer last = layers[100];
+        int finished = last.find(0);
+        if (finished < 0) {
+            return coverage;
+        } else {}
+        last.backward[finished] = 1;
+        long total = last.forward[finished];
+        for (int cell = 99; cell >= 0; cell--) {
+            long leftEmpty = pool.invoke(new BackwardTask(cell, layers[cell], layers[cell + 1], 0, layers[cell].keys.length));
+            coverage[cell] = total - leftEmpty;
+            layers[cell + 1] = null; // no longer needed
+        }
+        coverage[100] = total;
+        return coverage;
+    }
+
+    /**
+     * Work out the chance that each space holds a Ship, over every layout that agrees with the observations
+     * @param pool the fork-join pool to count on
+     * @return entry i is the chance for space i, all 0 if no layout agrees with the observations
+     * @throws ArithmeticException if a count does not fit in a long
+     */
+    public double[] cellProbabilities(ForkJoinPool pool) {
+        long[] coverage = this.countCoverage(pool);
+        double[] chances = new double[100];
+        if (coverage[100] > 0) {
+            for (int cell = 0; cell < 100; cell++) {
+                chances[cell] = (double) coverage[cell] / coverage[100];
+            }
+        } else {}
+        return chances;
+    }
+
+    /**
+     * @return the number of states the last count went through, over every space
+     */
+    public long getLastStateCount() {
+        return this.lastStateCount;
+    }
+
+    /**
+     * Find the states that can follow a state at a space
+     * @param cell the space to decide
+     * @param state the state before the space
+     * @param next receives the states after the space, at least MAX_SUCCESSORS long
+     * @return the number of states written to next, if the space is not covered by a Ship placed earlier
+     *         and is not a hit, the first of them leaves the space empty
+     */
+    private int successors(int cell, long state, long[] next) {
+        int rowc = cell / 10;
+        int colc = cell % 10;
+        int vertical = (int) (state >>> (BITS_PER_COLUMN * colc)) & 7;
+        int horizontal = (int) (state >>> HORIZONTAL_SHIFT) & 7;
+        if (vertical > 0) {
+            // the space is covered by a vertical Ship placed in a row above
+            next[0] = withColumn(state, colc, vertical - 1);
+            return 1;
+        }
+        else if (horizontal > 0) {
+            // the space is covered by a horizontal Ship placed to the left
+            next[0] = withHorizontal(state, horizontal - 1);
+            return 1;
+        } else {}
+
+        int count = 0;
+        boolean blocked = BitBoard.get(this.blockedBits, cell);
+        if (!BitBoard.get(this.hitBits, cell) || blocked) {
+            next[count] = state;
+            count += 1;
+        } else {}
+        if (!blocked) {
+            long fleet = state >>> FLEET_SHIFT;
+            long base = state & ((1L << FLEET_SHIFT) - 1);
+            for (int sz = PlacementGenerator.MIN_SIZE; sz <= PlacementGenerator.MAX_SIZE; sz++) {
+                int sizeShift = BITS_PER_SIZE * (sz - PlacementGenerator.MIN_SIZE);
+                if (((fleet >>> sizeShift) & ((1 << BITS_PER_SIZE) - 1)) > 0) {
+                    long nextFleet = (fleet - (1L << sizeShift)) << FLEET_SHIFT;
+                    if (this.horizontalFits(state, sz, rowc, colc)) {
+                        next[count] = withHorizontal(base, sz - 1) | nextFleet;
+                        count += 1;
+                    } else {}
+                    if (this.verticalFits(sz, rowc, colc)) {
+                        next[count] = withColumn(base, colc, sz - 1) | nextFleet;
+                        count += 1;
+                    } else {}
+                } else {}
+            }
+        } else {}
+        return count;
+    }
+
+    /**
+     * Helper method for successors(),
+     * determine if a horizontal Ship can start at a space that is not covered
+     * @param state the state before the space
+     * @param sz the size of the Ship
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return true if the Ship stays in the row, covers no blocked space or vertical Ship, and is not hit everywhere
+     */
+    private boolean horizontalFits(long state, int sz, int rowc, int colc) {
+        if (colc + sz > 10) {
+            return false;
+        } else {}
+        boolean allHit = true;
+        int cell = Map.cellIndex(rowc, colc);
+        for (int i = 0; i < sz; i++) {
+            if (BitBoard.get(this.blockedBits, cell + i) || ((state >>> (BITS_PER_COLUMN * (colc + i))) & 7) != 0) {
+                return false;
+            } else {}
+            allHit = allHit && BitBoard.get(this.hitBits, cell + i);
+        }
+        return !allHit;
+    }
+
+    /**
+     * Helper method for successors(),
+     * determine if a vertical Ship can start at a space that is not covered,
+     * the spaces below are not covered by anything yet because every Ship covering them starts later
+     * @param sz the size of the Ship
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return true if the Ship stays on the Map, covers no blocked space, and is not hit everywhere
+     */
+    private boolean verticalFits(int sz, int rowc, int colc) {
+        if (rowc + sz > 10) {
+            return false;
+        } else {}
+        boolean allHit = true;
+        int cell = Map.cellIndex(rowc, colc);
+        for (int i = 0; i < sz; i++) {
+            if (BitBoard.get(this.blockedBits, cell + 10 * i)) {
+                return false;
+            } else {}
+            allHit = allHit && BitBoard.get(this.hitBits, cell + 10 * i);
+        }
+        return !allHit;
+    }
+
+    /**
+     * A BackwardTask counts the ways to finish a layout from the states in a range of slots of a Layer,
+     * splitting the range in half until it is small
+     */
+    private class BackwardTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int cell;
+        private final Layer layer;
+        private final Layer nextLayer;
+        private final int first;
+        private final int last; // exclusive
+
+        /**
+         * Constructor method for a BackwardTask
+         * @param cll the space the states of lyr come before
+         * @param lyr the Layer to fill in the ways to finish of
+         * @param nxt the Layer after lyr, with its ways to finish filled in
+         * @param frst the first slot of the range
+         * @param lst one more than the last slot of the range
+         */
+        BackwardTask(int cll, Layer lyr, Layer nxt, int frst, int lst) {
+            this.cell = cll;
+            this.layer = lyr;
+            this.nextLayer = nxt;
+            this.first = frst;
+            this.last = lst;
+        }
+
+        /**
+         * @return the number of layouts that leave this.cell empty through the states in the range
+         */
+        @Override
+        protected Long compute() {
+            if (this.last - this.first > SPLIT_SLOTS) {
+                int middle = (this.first + this.last) >>> 1;
+                BackwardTask upper = new BackwardTask(this.cell, this.layer, this.nextLayer, middle, this.last);
+                upper.fork();
+                long lower = new BackwardTask(this.cell, this.layer, this.nextLayer, this.first, middle).compute();
+                return Math.addExact(lower, upper.join());
+            } else {}
+            long[] next = new long[MAX_SUCCESSORS];
+            boolean canLeaveEmpty = !BitBoard.get(hitBits, this.cell) || BitBoard.get(blockedBits, this.cell);
+            long leftEmpty = 0;
+            for (int slot = this.first; slot < this.last; slot++) {
+                if (this.layer.keys[slot] != 0) {
+                    long state = this.layer.keys[slot] ^ USED;
+                    int count = successors(this.cell, state, next);
+                    long ways = 0;
+                    for (int i = 0; i < count; i++) {
+                        int found = this.nextLayer.find(next[i]);
+                        long finish = this.nextLayer.backward[found];
+                        ways = Math.addExact(ways, finish);
+                        if (i == 0 && canLeaveEmpty && next[0] == state) {
+                            // the state is unchanged only when the space is left empty
+                            leftEmpty = Math.addExact(leftEmpty, Math.multiplyExact(this.layer.forward[slot], finish));
+                        } else {}
+                    }
+                    this.layer.backward[slot] = ways;
+                } else {}
+            }
+            return leftEmpty;
+        }
+    }
+
+    /**
+     * A Layer is an open addressing hash table of the states before one space,
+     * with the ways to reach each state and the ways to finish a layout from it kept in parallel arrays
+     */
+    private static class Layer {
+        private long[] keys;     // state | USED, 0 marks an empty slot
+        private long[] forward;
+        private long[] backward;
+        private int size;
+
+        /**
+         * Constructor method for a Layer
+         * @param expected the number of states it will probably hold
+         */
+        Layer(int expected) {
+            int capacity = 16;
+            while (capacity < expected * 2) {
+                capacity *= 2;
+            }
+            this.keys = new long[capacity];
+            this.forward = new long[capacity];
+            this.backward = new long[capacity];
+            this.size = 0;
+        }
+
+        /**
+         * Add ways to reach a state, adding the state if it is new
+         * @param state the state
+         * @param ways the number of ways to add
+         * @throws ArithmeticException if the number of ways does not fit in a long
+         */
+        void addForward(long state, long ways) {
+            if (2 * (this.size + 1) > this.keys.length) {
+                this.grow();
+            } else {}
+            long key = state | USED;
+            int mask = this.keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (this.keys[slot] != 0 && this.keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (this.keys[slot] == 0) {
+                this.keys[slot] = key;
+                this.size += 1;
+            } else {}
+            this.forward[slot] = Math.addExact(this.forward[slot], ways);
+        }
+
+        /**
+         * Find the slot of a state
+         * @param state the state
+         * @return the slot, or -1 if the state is not in the Layer
+         */
+        int find(long state) {
+            long key = state | USED;
+            int mask = this.keys.length - 1;
+            int slot = (int) mix(key) & mask;
+            while (this.keys[slot] != 0) {
+                if (this.keys[slot] == key) {
+                    return slot;
+                } else {}
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Helper method for addForward(), double the table and re-insert every state
+         */
+        private void grow() {
+            long[] oldKeys = this.keys;
+            long[] oldForward = this.forward;
+            this.keys = new long[oldKeys.length * 2];
+            this.forward = new long[oldKeys.length * 2];
+            this.backward = new long[oldKeys.length * 2];
+            this.size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    this.addForward(oldKeys[i] ^ USED, oldForward[i]);
+                } else {}
+            }
+        }
+    }
+
+    /**
+     * Helper method for the state, set the remaining vertical length of a column
+     */
+    private static long withColumn(long state, int colc, int remaining) {
+        int shift = BITS_PER_COLUMN * colc;
+        return (state & ~(7L << shift)) | ((long) remaining << shift);
+    }
+
+    /**
+     * Helper method for the state, set the remaining horizontal length
+     */
+    private static long withHorizontal(long state, int remaining) {
+        return (state & ~(7L << HORIZONTAL_SHIFT)) | ((long) remaining << HORIZONTAL_SHIFT);
+    }
+
+    /**
+     * Helper method for the Layers, spread the bits of a key (the SplitMix64 finalizer)
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing LayoutCounter.java");
+        int uErrors = 0; // number of unintentional errors
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        // test against the brute force count of PlacementGenerator on an empty Map,
+        // Ships of different sizes make every sequence of placements a different layout
+        int[] smallFleet = {4, 3, 2};
+        long[] exact = new long[100];
+        long sequences = PlacementGenerator.countLayouts(smallFleet, exact);
+        LayoutCounter small = new LayoutCounter(BitBoard.create(100), BitBoard.create(100), smallFleet);
+        long[] coverage = small.countCoverage(pool);
+        if (coverage[100] != sequences) {
+            System.out.println("Error: countLayouts() returned " + coverage[100] + " instead of " + sequences);
+            uErrors += 1;
+        } else {}
+        for (int cell = 0; cell < 100; cell++) {
+            if (coverage[cell] != exact[cell]) {
+                System.out.println("Error: countCoverage() returned " + coverage[cell] + " for space " + cell + " instead of " + exact[cell]);
+                uErrors += 1;
+            } else {}
+        }
+
+        // Ships of the same size can swap, so each layout is 2 sequences of placements
+        int[] twins = {3, 3, 2};
+        sequences = PlacementGenerator.countLayouts(twins, new long[100]);
+        long twinLayouts = new LayoutCounter(BitBoard.create(100), BitBoard.create(100), twins).countLayouts();
+        if (twinLayouts * 2 != sequences) {
+            System.out.println("Error: countLayouts() returned " + twinLayouts + " for two Ships of size 3 instead of " + sequences / 2);
+            uErrors += 1;
+        } else {}
+
+        // test against a brute force count with misses and hits, going through every pair of placements
+        long[] blocked = BitBoard.create(100);
+        long[] hits = BitBoard.create(100);
+        BitBoard.set(blocked, 44);
+        BitBoard.set(blocked, 17);
+        BitBoard.set(hits, 45);
+        BitBoard.set(hits, 46);
+        int[] pair = {3, 2};
+        long bruteForce = 0;
+        long[] bruteCoverage = new long[100];
+        for (int p3 = 0; p3 < PlacementGenerator.placementCount(3); p3++) {
+            for (int p2 = 0; p2 < PlacementGenerator.placementCount(2); p2++) {
+                long[] b3 = BitBoard.create(100);
+                long[] b2 = BitBoard.create(100);
+                PlacementGenerator.set(3, p3, b3);
+                PlacementGenerator.set(2, p2, b2);
+                long[] both = {b3[0] | b2[0], b3[1] | b2[1]};
+                if (!BitBoard.intersects(b3, b2) && !BitBoard.intersects(both, blocked) && BitBoard.isSubset(hits, both)
+                        && !BitBoard.isSubset(b3, hits) && !BitBoard.isSubset(b2, hits)) {
+                    bruteForce += 1;
+                    for (int cell = 0; cell < 100; cell++) {
+                        if (BitBoard.get(both, cell)) {
+                            bruteCoverage[cell] += 1;
+                        } else {}
+                    }
+                } else {}
+            }
+        }
+        coverage = new LayoutCounter(blocked, hits, pair).countCoverage(pool);
+        if (coverage[100] != bruteForce) {
+            System.out.println("Error: countCoverage() returned " + coverage[100] + " layouts with misses and hits instead of " + bruteForce);
+            uErrors += 1;
+        } else {}
+        for (int cell = 0; cell < 100; cell++) {
+            if (coverage[cell] != bruteCoverage[cell]) {
+                System.out.println("Error: countCoverage() returned " + coverage[cell] + " for space " + cell + " with misses and hits instead of " + bruteCoverage[cell]);
+                uErrors += 1;
+            } else {}
+        }
+
+        // a hit that no Ship can cover leaves no layouts
+        long[] walledIn = BitBoard.create(100);
+        long[] lonelyHit = BitBoard.create(100);
+        BitBoard.set(walledIn, 1);
+        BitBoard.set(walledIn, 10);
+        BitBoard.set(lonelyHit, 0);
+        if (new LayoutCounter(walledIn, lonelyHit, pair).countLayouts() != 0) {
+            System.out.println("Error: countLayouts() found layouts covering a hit that no Ship fits on");
+            uErrors += 1;
+        } else {}
+
+        // count the whole fleet in the middle of a game
+        Map m = new Map();
+        m.addShipsRandomly(new SplittableRandom(17));
+        ComputerPlayer cp = new ComputerPlayer(m, new SplittableRandom(17));
+        for (int i = 0; i < 30; i++) {
+            cp.makeNextShot();
+        }
+        LayoutCounter midGame = LayoutCounter.observe(m);
+        long start = System.nanoTime();
+        coverage = midGame.countCoverage(pool);
+        System.out.println("Layouts after 30 shots: " + coverage[100] + ", " + midGame.getLastStateCount() + " states, "
+                + (System.nanoTime() - start) / 1000000 + " ms");
+        if (coverage[100] <= 0) {
+            System.out.println("Error: countCoverage() found no layouts for the real game");
+            uErrors += 1;
+        } else {}
+        // every layout covers as many spaces as the Ships afloat have
+        long shipSpacesAfloat = 0;
+        for (int sz = PlacementGenerator.MIN_SIZE; sz <= PlacementGenerator.MAX_SIZE; sz++) {
+            shipSpacesAfloat += sz * m.shipsAfloat(sz);
+        }
+        long coveredSpaces = 0;
+        for (int cell = 0; cell < 100; cell++) {
+            coveredSpaces += coverage[cell];
+        }
+        if (coveredSpaces != coverage[100] * shipSpacesAfloat) {
+            System.out.println("Error: the coverage of every space added up to " + coveredSpaces + " instead of " + coverage[100] * shipSpacesAfloat);
+            uErrors += 1;
+        } else {}
+        double[] chances = midGame.cellProbabilities(pool);
+        for (int cell = 0; cell < 100; cell++) {
+            boolean hitAfloat = m.isHit(cell / 10, cell % 10) && !m.getShipAt(cell / 10, cell % 10).hasShipSunk();
+            if ((m.alreadyShotHere(cell / 10, cell % 10) && !hitAfloat && chances[cell] != 0)
+                    || (hitAfloat && chances[cell] != 1) || chances[cell] < 0 || chances[cell] > 1) {
+                System.out.println("Error: cellProbabilities() returned " + chances[cell] + " for space " + cell);
+                uErrors += 1;
+            } else {}
+            if (m.getShipAt(cell / 10, cell % 10) != null && !m.getShipAt(cell / 10, cell % 10).hasShipSunk() && chances[cell] == 0) {
+                System.out.println("Error: cellProbabilities() ruled out space " + cell + ", which holds a Ship");
+                uErrors += 1;
+            } else {}
+        }
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -2,47 +2,427 @@
  * Code Written by Jackson L. Davis
  *
  * A Map contains information on where the Ships are, and what spaces have been shot at.
+ * A Map is 10x10 unless it is made with another BoardGeometry, and the spaces are numbered by that geometry.
+ * The static helpers (cellIndex(), parseShot(), placementFits()) work on the standard 10x10 board.
+ *
+ * A compact Map keeps its fleet in parallel primitive arrays (sizes, orientations, origins, and hit masks)
+ * and a byte grid of Ship numbers instead of Ship objects, for servers that keep many boards in memory at once.
+ * It works through the same methods, but getShipAt() and getShipsOnMap() return copies of its Ships.
  */
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+public class Map implements Board {
+    // result codes returned by shoot(int, int), a sunk result also carries the size of the Ship in the upper bits
+    public static final int SHOT_MISS = 0;
+    public static final int SHOT_HIT = 1;
+    public static final int SHOT_SUNK = 2;
+    public static final int SHOT_ALREADY_SHOT = 3;
+    public static final int SHOT_INVALID = 4;
 
-public class Map {
-    private Ship[] ships;
-    private final int[] shipSizes = {5, 4, 4, 3, 3, 3, 2, 2, 2, 2};
-    private int shipIndex;
-    private Ship[][] shipsOnMap; // array entries contain references to Ships
-    private boolean[][] shotsOnMap;
-    private final char[] validRows  = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
-    private final char[] validColumns = {'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J'};
-    private String[] mapSpaces;
+    // returned by parseShot() when a shot is not valid
+    public static final int INVALID_CELL = -1;
+    // what a shooter can see on a space: a miss, a hit, or a Ship of a size that sunk, the size is the code
+    private static final int SEEN_MISS = 0;
+    private static final int SEEN_HIT = 1;
+    // the keys of the first spaces, seen as anything up to a sunk Ship of 7 spaces, are worked out once
+    // so that shots on a 10x10 Map look their keys up instead of mixing them, see observationKey()
+    private static final int TABLED_KEY_CELLS = 128;
+    private static final int TABLED_KEY_SEEN = 8;
+    private static final long[] TABLED_KEYS = buildTabledKeys();
+    // the limits of a compact Map: a hit mask is one long, and a Ship number + 1 fits in a byte
+    public static final int MAX_COMPACT_SHIP_SIZE = Long.SIZE;
+    public static final int MAX_COMPACT_SHIPS = 255;
+    // the undo stack starts out with room for this many shots, or one for every space of a smaller Map, and doubles when it is full
+    private static final int FIRST_UNDO_SHOTS = 128;
 
+    private final BoardGeometry geometry;
+    private final FleetSpec fleet;
+    private Ship[] ships;             // the Ships in the order they were added, null for a compact Map
+    private int shipIndex;            // the number of Ships added
+    // the fleet of a compact Map, entry s of each array describes Ship s, all null for a Map of Ship objects
+    private int[] shipSizes;
+    private int[] shipOrigins;        // the space of the top or left side of the Ship
+    private boolean[] shipHorizontal;
+    private long[] shipHits;          // bit i is set when space i of the Ship has been hit, see Ship
+    // the Ship on each space is found in a grid of a byte for every space when that is the smaller of the two,
+    // or else in a hash table of the occupied spaces, so a big Map with a small fleet does not pay for every space
+    private byte[] shipNumbers;       // entry cell is the index of the Ship on the space + 1, 0 for an empty space, or null
+    private int[] shipCells;          // the space + 1 of each occupied slot of the hash table, 0 for a free slot, or null
+    private int[] shipCellIndexes;    // the index of the Ship on the space in the same slot of this.shipCells
+    private long[] shipBits;    // BitBoard of the spaces occupied by Ships
+    private long[] shotBits;    // BitBoard of the spaces that have been shot at
+    private long[] hitBits;     // BitBoard of the spaces that have been shot at and contain a Ship
+    private int remainingHits;        // number of spaces with a Ship that have not been hit
+    private int[] shipsAfloatBySize;  // entry i is the number of Ships of size i that have not sunk
+    private int smallestShipAfloat;   // size of the smallest Ship that has not sunk, 0 if there is none
+    private GameEventListener listener; // told about every shot that lands on this Map
+    private long modificationCount; // increased every time a Ship is added or a shot lands
+    private long[] rowVersions;     // entry i is the modification count when row i last changed
+    private MapRenderer shipsRenderer;
+    private MapRenderer shotsRenderer;
+    private MapRenderer shipsAndShotsRenderer;
+    private int[] undoStack; // the space of every shot that landed, the Ship hit is looked up again when it is undone
+    private int undoDepth;   // the number of entries on this.undoStack
+    private long observationHash; // Zobrist hash of the misses, hits, and sunk Ships, see getObservationHash()
+    private boolean observationHashKept; // false until the hash is first asked for, shots do not update it before that
 
     /**
      * Constructor method for a Map, the Map will start out blank with no assigned Ships
      */
     public Map() {
-        this.ships = new Ship[10];
+        this(BoardGeometry.STANDARD, FleetSpec.STANDARD);
+    }
+
+    /**
+     * Constructor method for a Map of any size with the standard fleet, the Map will start out blank with no assigned Ships
+     * @param g the number of rows and columns of the Map
+     */
+    public Map(BoardGeometry g) {
+        this(g, FleetSpec.STANDARD);
+    }
+
+    /**
+     * Constructor method for a Map of any size with any fleet, the Map will start out blank with no assigned Ships
+     * @param g the number of rows and columns of the Map
+     * @param f the Ships that will be placed on the Map
+     * @throws RuntimeException if the fleet cannot fit on the Map
+     */
+    public Map(BoardGeometry g, FleetSpec f) {
+        this(g, f, false);
+    }
+
+    /**
+     * Constructor method for a Map that can be compact, the Map will start out blank with no assigned Ships
+     * @param g the number of rows and columns of the Map
+     * @param f the Ships that will be placed on the Map
+     * @param compact true to keep the Ships in primitive arrays instead of Ship objects, false otherwise
+     * @throws RuntimeException if the fleet cannot fit on the Map, or the Map is compact and the fleet has
+     *         more than MAX_COMPACT_SHIPS Ships or a Ship longer than MAX_COMPACT_SHIP_SIZE
+     */
+    public Map(BoardGeometry g, FleetSpec f, boolean compact) {
+        if (!f.fitsOn(g.getRows(), g.getColumns())) {
+            throw new RuntimeException("The fleet " + f + " does not fit on a " + g + " Map");
+        }
+        else if (compact && (f.getShipCount() > MAX_COMPACT_SHIPS || f.getLargestSize() > MAX_COMPACT_SHIP_SIZE)) {
+            throw new RuntimeException("The fleet " + f + " is too big for a compact Map");
+        } else {}
+        this.geometry = g;
+        this.fleet = f;
+        if (compact) {
+            this.ships = null;
+            this.shipSizes = new int[f.getShipCount()];
+            this.shipOrigins = new int[f.getShipCount()];
+            this.shipHorizontal = new boolean[f.getShipCount()];
+            this.shipHits = new long[f.getShipCount()];
+        }
+        else {
+            this.ships = new Ship[f.getShipCount()];
+            this.shipSizes = null;
+            this.shipOrigins = null;
+            this.shipHorizontal = null;
+            this.shipHits = null;
+        }
+        // the hash table is kept at most half full, and each slot takes two ints where the grid takes one byte a space
+        int slots = Integer.highestOneBit((int) Math.max(1, f.getTotalLength()) * 2 - 1) << 1;
+        if (f.getShipCount() <= MAX_COMPACT_SHIPS && g.getCellCount() <= slots * 2 * Integer.BYTES) {
+            this.shipNumbers = new byte[g.getCellCount()];
+            this.shipCells = null;
+            this.shipCellIndexes = null;
+        }
+        else {
+            this.shipNumbers = null;
+            this.shipCells = new int[slots];
+            this.shipCellIndexes = new int[slots];
+        }
         this.shipIndex = 0;
-        this.shipsOnMap = new Ship[10][10];
-        this.shotsOnMap = new boolean[10][10];
-        this.mapSpaces = new String[]{"0A", "0B", "0C", "0D", "0E", "0F", "0G", "0H", "0I", "0J",
-                                      "1A", "1B", "1C", "1D", "1E", "1F", "1G", "1H", "1I", "1J",
-                                      "2A", "2B", "2C", "2D", "2E", "2F", "2G", "2H", "2I", "2J",
-                                      "3A", "3B", "3C", "3D", "3E", "3F", "3G", "3H", "3I", "3J",
-                                      "4A", "4B", "4C", "4D", "4E", "4F", "4G", "4H", "4I", "4J",
-                                      "5A", "5B", "5C", "5D", "5E", "5F", "5G", "5H", "5I", "5J",
-                                      "6A", "6B", "6C", "6D", "6E", "6F", "6G", "6H", "6I", "6J",
-                                      "7A", "7B", "7C", "7D", "7E", "7F", "7G", "7H", "7I", "7J",
-                                      "8A", "8B", "8C", "8D", "8E", "8F", "8G", "8H", "8I", "8J",
-                                      "9A", "9B", "9C", "9D", "9E", "9F", "9G", "9H", "9I", "9J"};
+        this.shipBits = BitBoard.create(g.getCellCount());
+        this.shotBits = BitBoard.create(g.getCellCount());
+        this.hitBits = BitBoard.create(g.getCellCount());
+        this.remainingHits = 0;
+        this.shipsAfloatBySize = new int[f.getLargestSize() + 1];
+        this.smallestShipAfloat = 0;
+        this.listener = SilentGameListener.INSTANCE;
+        this.modificationCount = 0;
+        this.rowVersions = new long[g.getRows()];
+        // the renderers are made the first time the Map is displayed
+        this.shipsRenderer = null;
+        this.shotsRenderer = null;
+        this.shipsAndShotsRenderer = null;
+        // every space can be shot at most once, so the stack of a Map of at most FIRST_UNDO_SHOTS spaces never grows
+        this.undoStack = new int[Math.min(g.getCellCount(), FIRST_UNDO_SHOTS)];
+        this.undoDepth = 0;
+        this.observationHash = 0;
+        this.observationHashKept = false;
+    }
+
+    /**
+     * Set the listener that is told about the shots made at this Map, a Map starts out with a SilentGameListener
+     * @param gel the listener, or null to go back to a SilentGameListener
+     */
+    public void setGameEventListener(GameEventListener gel) {
+        if (gel == null) {
+            this.listener = SilentGameListener.INSTANCE;
+        }
+        else {
+            this.listener = gel;
+        }
+    }
+
+    /**
+     * @return the listener that is told about the shots made at this Map
+     */
+    public GameEventListener getGameEventListener() {
+        return this.listener;
+    }
+
+    /**
+     * @return the number of rows and columns of the Map, and how its spaces are numbered
+     */
+    public BoardGeometry getGeometry() {
+        return this.geometry;
+    }
+
+    /**
+     * @return the number of rows of the Map
+     */
+    public int getRows() {
+        return this.geometry.getRows();
+    }
+
+    /**
+     * @return the number of columns of the Map
+     */
+    public int getColumns() {
+        return this.geometry.getColumns();
+    }
+
+    /**
+     * @return a copy of the sizes of the Ships in the fleet, largest first
+     */
+    public int[] getShipSizes() {
+        return this.fleet.getSizes();
     }
 
     /**
-     * @return the 2D array containing references to Ships
+     * @return the fleet of the Map
+     */
+    public FleetSpec getFleet() {
+        return this.fleet;
+    }
+
+    /**
+     * @return true if the Ships are kept in primitive arrays, false if they are Ship objects
+     */
+    public boolean isCompact() {
+        return this.ships == null;
+    }
+
+    /**
+     * Build a 2D array containing references to the Ships on the Map,
+     * the array is a snapshot of the BitBoards and changing it does not change the Map,
+     * the Ships of a compact Map are copies that do not see later shots
+     * @return an array with a row for every row of the Map, where each entry is the Ship occupying that space, or null
      */
     public Ship[][] getShipsOnMap() {
-        return this.shipsOnMap;
+        Ship[][] shipsMap = new Ship[this.geometry.getRows()][this.geometry.getColumns()];
+        for (int s = 0; s < this.shipIndex; s++) {
+            Ship sh = this.shipObject(s);
+            for (int i = 0; i < sh.getSize(); i++) {
+                if (sh.isHorizontal()) {
+                    shipsMap[sh.getRowCoordinate()][sh.getColumnCoordinate() + i] = sh;
+                }
+                else {
+                    shipsMap[sh.getRowCoordinate() + i][sh.getColumnCoordinate()] = sh;
+                }
+            }
+        }
+        return shipsMap;
+    }
+
+    /**
+     * Find the Ship occupying a space
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @precond this.getGeometry().isOnBoard(rowc, colc)
+     * @return the Ship occupying the space, or null if the space is empty,
+     *         for a compact Map a copy of the Ship that does not see later shots
+     */
+    public Ship getShipAt(int rowc, int colc) {
+        return this.shipAtCell(this.geometry.cellIndex(rowc, colc));
+    }
+
+    /**
+     * Convert number coordinates on the standard 10x10 board to a space number,
+     * the same as BoardGeometry.STANDARD.cellIndex()
+     * @param rowc the row coordinate
+     * @param colc the column coordinate
+     * @precond 0 <= rowc <= 9 && 0 <= colc <= 9
+     * @return rowc * 10 + colc
+     */
+    public static int cellIndex(int rowc, int colc) {
+        return rowc * 10 + colc;
+    }
+
+    /**
+     * Helper method for finding the index of the Ship occupying a space, looked up in the grid of Ship numbers
+     * or the hash table of occupied spaces, so a hit costs the same however many Ships the fleet has
+     * @param cell the space number
+     * @return the index of the Ship covering the space, or -1 if the space is empty
+     */
+    private int shipIndexAtCell(int cell) {
+        if (this.shipNumbers != null) {
+            return (this.shipNumbers[cell] & 0xFF) - 1;
+        }
+        else {
+            int mask = this.shipCells.length - 1;
+            for (int slot = mixCell(cell) & mask; this.shipCells[slot] != 0; slot = (slot + 1) & mask) {
+                if (this.shipCells[slot] == cell + 1) {
+                    return this.shipCellIndexes[slot];
+                } else {}
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Helper method for placeShip(), record the Ship occupying a space
+     * @param cell the space number
+     * @param s the index of the Ship
+     * @precond the space is empty
+     */
+    private void setShipIndexAtCell(int cell, int s) {
+        if (this.shipNumbers != null) {
+            this.shipNumbers[cell] = (byte) (s + 1);
+        }
+        else {
+            int mask = this.shipCells.length - 1;
+            int slot = mixCell(cell) & mask;
+            while (this.shipCells[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            this.shipCells[slot] = cell + 1;
+            this.shipCellIndexes[slot] = s;
+        }
+    }
+
+    /**
+     * Helper method for shipIndexAtCell() and setShipIndexAtCell(), spread the spaces over the hash table
+     */
+    private static int mixCell(int cell) {
+        int h = cell * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Helper method for finding the Ship occupying a space
+     * @param cell the space number
+     * @return the Ship occupying the space, or null if the space is empty
+     */
+    private Ship shipAtCell(int cell) {
+        int s = this.shipIndexAtCell(cell);
+        if (s < 0) {
+            return null;
+        }
+        else {
+            return this.shipObject(s);
+        }
+    }
+
+    /**
+     * Helper method for getting a Ship as an object
+     * @param s the index of the Ship
+     * @return the Ship, or for a compact Map a new Ship with the same spaces and hits
+     */
+    private Ship shipObject(int s) {
+        if (this.ships != null) {
+            return this.ships[s];
+        } else {}
+        Ship sh = new Ship(this.shipSizes[s], this.shipHorizontal[s],
+                           this.geometry.rowOf(this.shipOrigins[s]), this.geometry.columnOf(this.shipOrigins[s]));
+        for (long hits = this.shipHits[s]; hits != 0; hits &= hits - 1) {
+            sh.addHit(Long.numberOfTrailingZeros(hits));
+        }
+        return sh;
+    }
+
+    /**
+     * @param s the index of a Ship
+     * @return the size of the Ship
+     */
+    private int shipSize(int s) {
+        return this.ships == null ? this.shipSizes[s] : this.ships[s].getSize();
+    }
+
+    /**
+     * @param s the index of a Ship
+     * @return the orientation of the Ship, true for horizontal, false for vertical
+     */
+    private boolean isShipHorizontal(int s) {
+        return this.ships == null ? this.shipHorizontal[s] : this.ships[s].isHorizontal();
+    }
+
+    /**
+     * @param s the index of a Ship
+     * @return the row coordinate of the top or left side of the Ship
+     */
+    private int shipRow(int s) {
+        return this.ships == null ? this.geometry.rowOf(this.shipOrigins[s]) : this.ships[s].getRowCoordinate();
+    }
+
+    /**
+     * @param s the index of a Ship
+     * @return the space of the top or left side of the Ship
+     */
+    private int shipOrigin(int s) {
+        if (this.ships == null) {
+            return this.shipOrigins[s];
+        }
+        else {
+            return this.geometry.cellIndex(this.ships[s].getRowCoordinate(), this.ships[s].getColumnCoordinate());
+        }
+    }
+
+    /**
+     * @param s the index of a Ship
+     * @return true if every space of the Ship has been hit, false otherwise
+     */
+    private boolean isShipSunk(int s) {
+        if (this.ships == null) {
+            return this.shipHits[s] == -1L >>> (Long.SIZE - this.shipSizes[s]);
+        }
+        else {
+            return this.ships[s].hasShipSunk();
+        }
+    }
+
+    /**
+     * Helper method for applyShot() and undoShot(), mark a space of a Ship as hit or not hit
+     * @param s the index of the Ship
+     * @param rowc the row coordinate of the space, one of the Ship's spaces
+     * @param colc the column coordinate of the space
+     * @param hit true to mark the space as hit, false to take the hit back
+     */
+    private void setShipHit(int s, int rowc, int colc, boolean hit) {
+        if (this.ships == null) {
+            int offset = this.geometry.cellIndex(rowc, colc) - this.shipOrigins[s];
+            long bit = 1L << (this.shipHorizontal[s] ? offset : offset / this.geometry.getColumns());
+            this.shipHits[s] = hit ? this.shipHits[s] | bit : this.shipHits[s] & ~bit;
+        }
+        else {
+            // the space is known to be on the Ship, so its index is worked out here instead of checked again by Ship
+            Ship sh = this.ships[s];
+            int index = sh.isHorizontal() ? colc - sh.getColumnCoordinate() : rowc - sh.getRowCoordinate();
+            if (hit) {
+                sh.addHit(index);
+            }
+            else {
+                sh.removeHit(index);
+            }
+        }
     }
 
     /**
@@ -51,38 +431,63 @@ public class Map {
      * @param horiz the orientation of the proposed Ship
      * @param rowc the row coordinate of the top or left side of the proposed Ship
      * @param colc the column coordinate of the top or left side of the proposed Ship
-     * @precond 2 <= sz <= 5 (i.e. the size of the proposed Ship must be valid)
-     * @precond 0 <= rowc <= 9 && 0 <= colc <= 9
+     * @precond the size is between the smallest and the largest size of the fleet (see getFleet())
+     * @precond this.getGeometry().isOnBoard(rowc, colc)
      * @return true if the Ship will fit on the Map, false otherwise
      */
     public boolean willShipFit(int sz, boolean horiz, int rowc, int colc) {
         // check preconditions
-        if (sz < 2 || sz > 5 || rowc < 0 || rowc > 9 || colc < 0 || colc > 9) {
+        if (sz < this.fleet.getSmallestSize() || sz > this.fleet.getLargestSize()) {
             return false;
         }
         else {
-            // check if the Ship would be fully on the Map
-            if (horiz && colc + sz - 1 <= 9) {
-                // check if the spaces are occupied
-                for (int i = 0; i < sz; i++) {
-                    if (this.shipsOnMap[rowc][colc + i] != null) {
-                        return false;
-                    } else {}
-                }
-                return true;
-            }
-            else if (!horiz && rowc + sz - 1 <= 9) {
-                // check if the spaces are occupied
-                for (int i = 0; i < sz; i++) {
-                    if (this.shipsOnMap[rowc + i][colc] != null) {
-                        return false;
-                    } else {}
-                }
-                return true;
-            }
-            else {
-                return false;
+            return placementFits(this.geometry, this.shipBits, sz, horiz, rowc, colc);
+        }
+    }
+
+    /**
+     * Determine if a placement would be fully on a standard 10x10 Map and avoid the occupied spaces of a BitBoard,
+     * these are the same rules willShipFit() uses, so samplers and generators can check placements on scratch boards
+     * @param occupied a BitBoard of the spaces the placement may not cover
+     * @param sz the size of the placement
+     * @param horiz the orientation of the placement
+     * @param rowc the row coordinate of the top or left side of the placement
+     * @param colc the column coordinate of the top or left side of the placement
+     * @return true if the placement fits, false otherwise
+     */
+    public static boolean placementFits(long[] occupied, int sz, boolean horiz, int rowc, int colc) {
+        return placementFits(BoardGeometry.STANDARD, occupied, sz, horiz, rowc, colc);
+    }
+
+    /**
+     * Determine if a placement would be fully on a Map of any size and avoid the occupied spaces of a BitBoard
+     * @param g the geometry of the Map
+     * @param occupied a BitBoard of the spaces the placement may not cover, numbered by g
+     * @param sz the size of the placement
+     * @param horiz the orientation of the placement
+     * @param rowc the row coordinate of the top or left side of the placement
+     * @param colc the column coordinate of the top or left side of the placement
+     * @return true if the placement fits, false otherwise
+     */
+    public static boolean placementFits(BoardGeometry g, long[] occupied, int sz, boolean horiz, int rowc, int colc) {
+        if (!g.isOnBoard(rowc, colc)) {
+            return false;
+        }
+        // check if the Ship would be fully on the Map
+        else if ((horiz && colc + sz <= g.getColumns()) || (!horiz && rowc + sz <= g.getRows())) {
+            // check if the spaces are occupied
+            int cell = g.cellIndex(rowc, colc);
+            int step = horiz ? 1 : g.getColumns();
+            for (int i = 0; i < sz; i++) {
+                if (BitBoard.get(occupied, cell)) {
+                    return false;
+                } else {}
+                cell += step;
             }
+            return true;
+        }
+        else {
+            return false;
         }
     }
 
@@ -92,27 +497,14 @@ public class Map {
      * @param horiz the orientation of the proposed Ship
      * @param rowc the row coordinate of the top or left side of the proposed Ship
      * @param colc the column coordinate of the top or left side of the proposed Ship
-     * @precond this.willShipFit() && this.shipIndex < 10
-     * @postcond the proposed Ship will be added to this.ships and to this.shipsOnMap, this.shipIndex will increase by 1
+     * @precond this.willShipFit() && this.shipIndex < this.fleet.getShipCount()
+     * @postcond the proposed Ship will be added to this.ships and its spaces to this.shipBits,
+     *           this.shipIndex will increase by 1
      * @return true if the Ship was successfully added to the Map, false otherwise
      */
     public boolean addShip(int sz, boolean horiz, int rowc, int colc) {
-        if (willShipFit(sz, horiz, rowc, colc) && this.shipIndex < 10) {
-            // create and add the Ship
-            Ship sh = new Ship(sz, horiz, rowc, colc);
-            this.ships[this.shipIndex] = sh;
-            this.shipIndex += 1;
-            // place the Ship on the Map
-            if (horiz) {
-                for (int i = 0; i < sz; i++) {
-                    this.shipsOnMap[rowc][colc + i] = sh;
-                }
-            }
-            else {
-                for (int i = 0; i < sz; i++) {
-                    this.shipsOnMap[rowc + i][colc] = sh;
-                }
-            }
+        if (willShipFit(sz, horiz, rowc, colc) && this.shipIndex < this.fleet.getShipCount()) {
+            this.placeShip(sz, horiz, rowc, colc);
             return true;
         }
         else {
@@ -121,130 +513,177 @@ public class Map {
     }
 
     /**
-     * Add ten Ships to the Map randomly. Here are the Ships to be placed:
+     * Helper method for addShip() and addShipsRandomly(),
+     * add a Ship that is already known to fit
+     * @param sz the size of the Ship
+     * @param horiz the orientation of the Ship
+     * @param rowc the row coordinate of the top or left side of the Ship
+     * @param colc the column coordinate of the top or left side of the Ship
+     * @precond this.willShipFit(sz, horiz, rowc, colc) && this.shipIndex < this.fleet.getShipCount()
+     * @postcond the Ship is added to this.ships, or to the arrays of a compact Map, and its spaces to this.shipBits,
+     *           this.shipIndex will increase by 1
+     */
+    private void placeShip(int sz, boolean horiz, int rowc, int colc) {
+        // place the Ship on the Map
+        int cell = this.geometry.cellIndex(rowc, colc);
+        int step = horiz ? 1 : this.geometry.getColumns();
+        for (int i = 0; i < sz; i++) {
+            BitBoard.set(this.shipBits, cell);
+            this.setShipIndexAtCell(cell, this.shipIndex);
+            cell += step;
+        }
+        // create and add the Ship
+        if (this.ships == null) {
+            this.shipSizes[this.shipIndex] = sz;
+            this.shipOrigins[this.shipIndex] = this.geometry.cellIndex(rowc, colc);
+            this.shipHorizontal[this.shipIndex] = horiz;
+            this.shipHits[this.shipIndex] = 0;
+        }
+        else {
+            this.ships[this.shipIndex] = new Ship(sz, horiz, rowc, colc);
+        }
+        this.modificationCount += 1;
+        this.markShipRowsChanged(this.shipIndex);
+        this.shipIndex += 1;
+        // update the fleet counters
+        this.remainingHits += sz;
+        this.shipsAfloatBySize[sz] += 1;
+        if (this.smallestShipAfloat == 0 || sz < this.smallestShipAfloat) {
+            this.smallestShipAfloat = sz;
+        } else {}
+    }
+
+    /**
+     * Add the Ships of the fleet to the Map randomly. Here are the Ships of the standard fleet:
      * 1 ship  of length 5
      * 2 ships of length 4
      * 3 ships of length 3
      * 4 ships of length 2
-     * The largest Ships will be placed first because the smaller Ships are easier to fit in later
+     * Every legal layout of the Ships is equally likely (see PlacementGenerator.uniformLayout()),
+     * except for fleets so crowded that a layout has to be built one Ship at a time, where some layouts come up
+     * more often than others (see Board.addShipsOneByOne())
      * @precond this.shipIndex == 0 (i.e. no Ships should have been placed yet)
-     * @postcond this.mapSpaces will be shuffled to determine the locations of the Ships
-     * @postcond ten Ships will be added to this.ships, shipIndex = 10, and the Ships will be placed on this.shipsOnMap
+     * @postcond every Ship of the fleet will be added to this.ships and placed on this.shipBits
      * @return 0 if all Ships were placed successfully,
      *         -1 if the precondition was not met,
      *         1 if the precondition was met, but not all Ships were placed successfully
      */
     public int addShipsRandomly() {
+        return this.addShipsRandomly(new SplittableRandom());
+    }
+
+    /**
+     * Add the Ships of the fleet to the Map randomly using the given random number generator,
+     * see addShipsRandomly() for details
+     * @param rand the random number generator that decides where the Ships go
+     * @precond this.shipIndex == 0 (i.e. no Ships should have been placed yet)
+     * @return 0 if all Ships were placed successfully,
+     *         -1 if the precondition was not met,
+     *         1 if the precondition was met, but not all Ships were placed successfully
+     */
+    public int addShipsRandomly(RandomGenerator rand) {
         if (this.shipIndex != 0) {
             return -1;
         }
-        else {
-            // prepare objects for use
-            int index;
-            String entry;
-            int[] convertedCoords;
-            int sz;
-            boolean horiz;
-            boolean shipPlaced;
-            // shuffle this.mapSpaces using Fisher-Yates shuffle
-            Random rand = new Random();
-            for (int i = this.mapSpaces.length - 1; i > 0; i--) {
-                index = rand.nextInt(i + 1);
-                // swap entries
-                entry = this.mapSpaces[index];
-                this.mapSpaces[index] = this.mapSpaces[i];
-                this.mapSpaces[i] = entry;
-            }
-            // place Ships on the Map
-            for (int s = 0; s < this.shipsOnMap.length; s++) {
-                shipPlaced = false;
-                // test random spaces on the Map
-                for (String sp : this.mapSpaces) {
-                    try {
-                        convertedCoords = this.convertShotToNumberCoordinates(sp);
-                        sz = this.shipSizes[s];
-                        // randomly choose between horizontal or vertical placement, and try both options before moving to another space
-                        horiz = rand.nextBoolean();
-                        if (horiz) {
-                            if (this.willShipFit(sz, true, convertedCoords[0], convertedCoords[1])) {
-                                if (this.addShip(sz, true, convertedCoords[0], convertedCoords[1])) {
-                                    shipPlaced = true;
-                                } else {}
-                            }
-                            else if (this.willShipFit(sz, false, convertedCoords[0], convertedCoords[1])) {
-                                if (this.addShip(sz, false, convertedCoords[0], convertedCoords[1])) {
-                                    shipPlaced = true;
-                                } else {}
-                            } else {}
-                        }
-                        else {
-                            if (this.willShipFit(sz, false, convertedCoords[0], convertedCoords[1])) {
-                                if (this.addShip(sz, false, convertedCoords[0], convertedCoords[1])) {
-                                    shipPlaced = true;
-                                } else {}
-                            }
-                            else if (this.willShipFit(sz, true, convertedCoords[0], convertedCoords[1])) {
-                                if (this.addShip(sz, true, convertedCoords[0], convertedCoords[1])) {
-                                    shipPlaced = true;
-                                } else {}
-                            } else {}
-                        }
-                    }
-                    catch (Exception e) {
-                        // this should not happen, but report it if it does
-                        System.out.println(e.getMessage());
-                        return 1;
-                    }
-                    if (shipPlaced) {
-                        break;
-                    } else {}
-                }
-            }
-            // make sure ten Ships were placed
-            if (this.shipIndex == 10) {
-                return 0;
+        else if (!this.geometry.isStandard() || !this.fleet.hasSizesBetween(PlacementGenerator.MIN_SIZE, PlacementGenerator.MAX_SIZE)) {
+            // PlacementGenerator has no masks for this Map or fleet, so the placements are checked against each other
+            Ship[] layout = new Ship[this.fleet.getShipCount()];
+            if (!PlacementGenerator.uniformLayout(rand, this.fleet.getSizes(), this.geometry.getRows(), this.geometry.getColumns(), layout)) {
+                return this.addShipsOneByOne(rand) ? 0 : 1;
+            } else {}
+            for (Ship sh : layout) {
+                this.placeShip(sh.getSize(), sh.isHorizontal(), sh.getRowCoordinate(), sh.getColumnCoordinate());
             }
-            else {
-                // this should not happen, but check just in case
-                return 1;
+            return 0;
+        }
+        else {
+            // the PlacementGenerator picks a uniformly random layout with its precomputed masks
+            int[] sizes = this.fleet.getSizes();
+            int[] placements = new int[sizes.length];
+            if (!PlacementGenerator.uniformLayout(rand, sizes, placements)) {
+                // only a crowded fleet gets here
+                return this.addShipsOneByOne(rand) ? 0 : 1;
+            } else {}
+            for (int s = 0; s < sizes.length; s++) {
+                int sz = sizes[s];
+                int cell = PlacementGenerator.placementCell(sz, placements[s]);
+                this.placeShip(sz, PlacementGenerator.isHorizontal(sz, placements[s]), cell / 10, cell % 10);
             }
+            return 0;
         }
     }
 
+    /**
+     * Helper method for TABLED_KEYS, work out the keys of the first TABLED_KEY_CELLS spaces
+     * @return the key of seeing seen on space cell at entry cell * TABLED_KEY_SEEN + seen
+     */
+    private static long[] buildTabledKeys() {
+        long[] keys = new long[TABLED_KEY_CELLS * TABLED_KEY_SEEN];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = mixObservationKey(i / TABLED_KEY_SEEN, i % TABLED_KEY_SEEN);
+        }
+        return keys;
+    }
+
+    /**
+     * Helper method for the observation hash
+     * @param cell the space number
+     * @param seen SEEN_MISS, SEEN_HIT, or the size of the sunk Ship on the space
+     * @return the Zobrist key of seeing that on the space
+     */
+    private static long observationKey(int cell, int seen) {
+        if (cell < TABLED_KEY_CELLS && seen < TABLED_KEY_SEEN) {
+            return TABLED_KEYS[cell * TABLED_KEY_SEEN + seen];
+        }
+        else {
+            return mixObservationKey(cell, seen);
+        }
+    }
+
+    /**
+     * Helper method for observationKey(), work out a Zobrist key without a table
+     * @param cell the space number
+     * @param seen SEEN_MISS, SEEN_HIT, or the size of the sunk Ship on the space
+     * @return the Zobrist key of seeing that on the space
+     */
+    private static long mixObservationKey(int cell, int seen) {
+        // the SplitMix64 mixing function of a counter, so the keys are fixed and need no table as big as the Map
+        long z = ((((long) cell) << 32 | seen) + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Parse a shot on the standard 10x10 board in a single pass without creating any objects
+     * @param shot the coordinates of the shot, two characters where one is a number from 0-9
+     *             and the other is a letter from A-J of either case, it does not matter which comes first
+     * @return the space number of the shot (see cellIndex()), or INVALID_CELL if the shot is not valid
+     */
+    public static int parseShot(CharSequence shot) {
+        return BoardGeometry.STANDARD.parseShot(shot);
+    }
+
+    /**
+     * Parse a shot stored as ASCII bytes without creating any objects
+     * @param buffer the bytes containing the shot
+     * @param offset the index of the first byte of the shot
+     * @param length the number of bytes in the shot
+     * @precond 0 <= offset && offset + length <= buffer.length
+     * @return the space number of the shot (see cellIndex()), or INVALID_CELL if the shot is not valid
+     */
+    public static int parseShot(byte[] buffer, int offset, int length) {
+        return BoardGeometry.STANDARD.parseShot(buffer, offset, length);
+    }
+
     /**
      * Determine if the location of a shot is valid
-     * @param shot the coordinates of the shot to take, should be two characters where
-     *             one of the two characters is a letter from A-J,
-     *             and the other character is a number from 0-9,
+     * @param shot the coordinates of the shot to take, a row number and column letters (see BoardGeometry),
      *             it does not matter which comes first
      * @return true if the shot is valid, false otherwise
      */
     public boolean isShotValid(String shot) {
-        if (shot.length() != 2) {
-            return false;
-        }
-        else {
-            boolean hasNumber = false;
-            boolean hasLetter = false;
-            for (char num : this.validRows) {
-                if (num == shot.charAt(0) || num == shot.charAt(1)) {
-                    hasNumber = true;
-                    break;
-                }
-            }
-            if (hasNumber) {
-                for (char let : this.validColumns) {
-                    if (let == Character.toUpperCase(shot.charAt(0)) || let == Character.toUpperCase(shot.charAt(1))) {
-                        hasLetter = true;
-                        break;
-                    }
-                }
-                return hasLetter;
-            }
-            else {
-                return false;
-            }
-        }
+        return this.geometry.parseShot(shot) != INVALID_CELL;
     }
 
     /**
@@ -255,143 +694,521 @@ public class Map {
      * @throws RuntimeException if the precondition is not met
      */
     public int[] convertShotToNumberCoordinates(String shot) {
-        if (!isShotValid(shot)) {
+        int cell = this.geometry.parseShot(shot);
+        if (cell == INVALID_CELL) {
             throw new RuntimeException("Error in convertShotToNumberCoordinates(): input shot is not valid");
         }
         else {
-            int[] coords = {-1, -1};
-            // convert row coordinate
-            for (int i = 0; i < this.validRows.length; i++) {
-                if (this.validRows[i] == shot.charAt(0) || this.validRows[i] == shot.charAt(1)) {
-                    coords[0] = i;
-                    break;
+            return new int[]{this.geometry.rowOf(cell), this.geometry.columnOf(cell)};
+        }
+    }
+
+    /**
+     * Convert the number coordinates to a shot
+     * @param rowc the row coordinate
+     * @param colc the column coordinate
+     * @precond this.getGeometry().isOnBoard(rowc, colc)
+     * @return a String representing the shot, ex. "0A"
+     * @throws RuntimeException if the precondition is not met
+     */
+    public String convertNumberCoordinatesToShot(int rowc, int colc) {
+        if (!this.geometry.isOnBoard(rowc, colc)) {
+            throw new RuntimeException("Error in convertNumberCoordinatesToShot: the coordinates are not valid");
+        }
+        else {
+            return this.geometry.formatShot(rowc, colc);
+        }
+    }
+
+    /**
+     * Determine if a location of the Map has already been shot at
+     * @param shot the coordinates of the shot
+     * @precond this.isShotValid(shot)
+     * @return true if the location has been shot at, false otherwise
+     * @throws RuntimeException if the precondition is not met
+     */
+    public boolean alreadyShotHere(String shot) {
+        int cell = this.geometry.parseShot(shot);
+        if (cell == INVALID_CELL) {
+            throw new RuntimeException("Error in alreadyShotHere(): input shot is not valid");
+        }
+        else {
+            return BitBoard.get(this.shotBits, cell);
+        }
+    }
+
+    /**
+     * Determine if a location of the Map has been shot at and contains a Ship
+     * @param rowc the row coordinate of the location to check
+     * @param colc the column coordinate of the location to check
+     * @precond this.getGeometry().isOnBoard(rowc, colc)
+     * @return true if the location has been hit, false otherwise
+     */
+    public boolean isHit(int rowc, int colc) {
+        return BitBoard.get(this.hitBits, this.geometry.cellIndex(rowc, colc));
+    }
+
+    /**
+     * Determine if a location of the Map has already been shot at
+     * @param rowc the row coordinate of the location to check
+     * @param colc to column coordinate of the location to check
+     * @precond this.getGeometry().isOnBoard(rowc, colc)
+     * @return true if the location has been shot at, false otherwise
+     * @throws RuntimeException if the precondition is not met
+     */
+    public boolean alreadyShotHere(int rowc, int colc) {
+        if (this.geometry.isOnBoard(rowc, colc)) {
+            return BitBoard.get(this.shotBits, this.geometry.cellIndex(rowc, colc));
+        }
+        else {
+            throw new RuntimeException("Error in alreadyShotHere(): the coordinates are not valid");
+        }
+    }
+
+    /**
+     * Attempt to shoot at the specified location
+     * @param shot the location of the shot
+     * @postcond the shot is recorded on this.shotBits, if a Ship is located where the shot is, it will record a hit on this.hitBits
+     * @return a String giving details about the results of the shot
+     */
+    public String shoot(String shot) {
+        int cell = this.geometry.parseShot(shot);
+        if (cell == INVALID_CELL) {
+            return "That is not a valid location.";
+        }
+        else {
+            return describeShotResult(this.shoot(this.geometry.rowOf(cell), this.geometry.columnOf(cell)));
+        }
+    }
+
+    /**
+     * Attempt to shoot at the specified location without creating any objects
+     * @param rowc the row coordinate of the shot
+     * @param colc the column coordinate of the shot
+     * @postcond the shot is recorded on this.shotBits, if a Ship is located where the shot is, it will record a hit on this.hitBits
+     * @postcond this.listener is told whether the shot missed, hit, or sunk a Ship, and whether the game is over
+     * @postcond the shot can be taken back with undoShot()
+     * @return a result code, SHOT_MISS, SHOT_HIT, SHOT_ALREADY_SHOT, SHOT_INVALID,
+     *         or SHOT_SUNK combined with the size of the sunk Ship (see shotResultType() and shotResultShipSize())
+     */
+    public int shoot(int rowc, int colc) {
+        int result = this.applyShot(rowc, colc);
+        switch (shotResultType(result)) {
+            case SHOT_MISS:
+                this.listener.missed(this, rowc, colc);
+                break;
+            case SHOT_HIT:
+                this.listener.hit(this, rowc, colc);
+                break;
+            case SHOT_SUNK:
+                this.listener.sunk(this, rowc, colc, shotResultShipSize(result));
+                if (this.remainingHits == 0) {
+                    this.listener.gameOver(this);
+                } else {}
+                break;
+            default:
+                break;
+        }
+        return result;
+    }
+
+    /**
+     * Make a shot the way shoot(int, int) does, but without telling this.listener,
+     * so that a search can try a shot and take it back with undoShot() without creating any objects
+     * @param rowc the row coordinate of the shot
+     * @param colc the column coordinate of the shot
+     * @postcond the shot is recorded as in shoot(int, int) and pushed on the undo stack
+     * @return the same result code shoot(int, int) returns
+     */
+    public int applyShot(int rowc, int colc) {
+        if (!this.geometry.isOnBoard(rowc, colc)) {
+            return SHOT_INVALID;
+        }
+        else if (BitBoard.get(this.shotBits, this.geometry.cellIndex(rowc, colc))) {
+            return SHOT_ALREADY_SHOT;
+        }
+        else {
+            // make the shot
+            int cell = this.geometry.cellIndex(rowc, colc);
+            BitBoard.set(this.shotBits, cell);
+            this.modificationCount += 1;
+            this.rowVersions[rowc] = this.modificationCount;
+            int s = this.shipIndexAtCell(cell);
+            if (this.undoDepth == this.undoStack.length) {
+                this.undoStack = Arrays.copyOf(this.undoStack, this.undoDepth * 2);
+            } else {}
+            this.undoStack[this.undoDepth] = cell;
+            this.undoDepth += 1;
+            if (s < 0) {
+                this.toggleObservation(cell, SEEN_MISS);
+                return SHOT_MISS;
+            }
+            else {
+                BitBoard.set(this.hitBits, cell);
+                this.setShipHit(s, rowc, colc, true);
+                this.remainingHits -= 1;
+                this.toggleObservation(cell, SEEN_HIT);
+                // a Ship has sunk when every space of it has been hit, each space can only be hit once
+                if (this.isShipSunk(s)) {
+                    this.recordSunkShip(this.shipSize(s));
+                    // a sunk Ship is revealed, so every row it is on changes, and its hits are seen as a sunk Ship
+                    this.markShipRowsChanged(s);
+                    this.toggleSunkObservation(s);
+                    return SHOT_SUNK | (this.shipSize(s) << 8);
+                }
+                else {
+                    return SHOT_HIT;
                 }
             }
-            if (coords[0] == -1) {
-                // this should not happen, but check just in case
-                throw new RuntimeException("Error in convertShotToNumberCoordinates(): row coordinate was not found");
+        }
+    }
+
+    /**
+     * Take back the last shot that landed, whether it was made by shoot() or applyShot(),
+     * restoring the hits and sunk state of the Ships exactly, this.listener is not told
+     * @postcond the Map is as it was before the shot, except that the modification count has increased
+     *           so that renderers redraw the rows that changed
+     * @return the space of the shot that was taken back
+     * @throws RuntimeException if no shot has landed on the Map
+     */
+    public int undoShot() {
+        if (this.undoDepth == 0) {
+            throw new RuntimeException("Error in undoShot(): there is no shot to undo");
+        } else {}
+        this.undoDepth -= 1;
+        int cell = this.undoStack[this.undoDepth];
+        int s = this.shipIndexAtCell(cell);
+        int rowc = this.geometry.rowOf(cell);
+        BitBoard.clear(this.shotBits, cell);
+        this.modificationCount += 1;
+        this.rowVersions[rowc] = this.modificationCount;
+        if (s >= 0) {
+            if (this.isShipSunk(s)) {
+                this.recordRaisedShip(this.shipSize(s));
+                // the Ship is hidden again, so every row it is on changes, and its spaces are seen as hits again
+                this.markShipRowsChanged(s);
+                this.toggleSunkObservation(s);
             } else {}
-            // convert column coordinate
-            for (int j = 0; j < this.validColumns.length; j++) {
-                if (this.validColumns[j] == Character.toUpperCase(shot.charAt(0)) || this.validColumns[j] == Character.toUpperCase(shot.charAt(1))) {
-                    coords[1] = j;
-                    break;
-                }
+            BitBoard.clear(this.hitBits, cell);
+            this.setShipHit(s, rowc, cell - rowc * this.geometry.getColumns(), false);
+            this.remainingHits += 1;
+            this.toggleObservation(cell, SEEN_HIT);
+        }
+        else {
+            this.toggleObservation(cell, SEEN_MISS);
+        }
+        return cell;
+    }
+
+    /**
+     * Get a 64-bit Zobrist hash of what a player shooting at this Map has seen: the misses, the hits,
+     * and the spaces and sizes of the sunk Ships. Where the Ships that have not sunk are does not count,
+     * and neither does the order of the shots, so two Maps with the same observations have the same hash
+     * and the hash can be used as the key of a cache or a transposition table.
+     * The hash is worked out the first time it is asked for, and kept up to date by applyShot() and undoShot() after that,
+     * so shots on a Map whose hash is never used do not pay for it. It is 0 before any shot lands
+     * @return the observation hash
+     */
+    public long getObservationHash() {
+        if (!this.observationHashKept) {
+            this.observationHash = this.computeObservationHash();
+            this.observationHashKept = true;
+        } else {}
+        return this.observationHash;
+    }
+
+    /**
+     * Helper method for applyShot() and undoShot(),
+     * add or take back what is seen on a space in the observation hash, if the hash is being kept
+     * @param cell the space number
+     * @param seen SEEN_MISS, SEEN_HIT, or the size of the sunk Ship on the space
+     */
+    private void toggleObservation(int cell, int seen) {
+        if (this.observationHashKept) {
+            this.observationHash ^= observationKey(cell, seen);
+        } else {}
+    }
+
+    /**
+     * Helper method for applyShot() and undoShot(),
+     * switch every space of a Ship between being seen as a hit and being seen as part of a sunk Ship, if the hash is being kept
+     * @param s the index of the Ship
+     * @precond every space of the Ship has been hit
+     */
+    private void toggleSunkObservation(int s) {
+        if (this.observationHashKept) {
+            int sz = this.shipSize(s);
+            int step = this.isShipHorizontal(s) ? 1 : this.geometry.getColumns();
+            int cell = this.shipOrigin(s);
+            for (int i = 0; i < sz; i++) {
+                this.observationHash ^= observationKey(cell, SEEN_HIT) ^ observationKey(cell, sz);
+                cell += step;
+            }
+        } else {}
+    }
+
+    /**
+     * Helper method for testing the observation hash,
+     * work out the hash from the shots on the Map instead of keeping it up to date
+     * @return the hash getObservationHash() should return
+     */
+    private long computeObservationHash() {
+        long hash = 0;
+        for (int cell = 0; cell < this.geometry.getCellCount(); cell++) {
+            if (BitBoard.get(this.hitBits, cell)) {
+                int s = this.shipIndexAtCell(cell);
+                hash ^= observationKey(cell, this.isShipSunk(s) ? this.shipSize(s) : SEEN_HIT);
             }
-            if (coords[1] == -1) {
-                // this should not happen, but check just in case
-                throw new RuntimeException("Error in convertShotToNumberCoordinates(): column coordinate was not found");
+            else if (BitBoard.get(this.shotBits, cell)) {
+                hash ^= observationKey(cell, SEEN_MISS);
             } else {}
-            return coords;
         }
+        return hash;
+    }
+
+    /**
+     * @return the number of shots that have landed on the Map and can be taken back with undoShot()
+     */
+    public int getShotCount() {
+        return this.undoDepth;
+    }
+
+    /**
+     * Get the kind of result from a code returned by shoot(int, int)
+     * @param result the result code
+     * @return one of SHOT_MISS, SHOT_HIT, SHOT_SUNK, SHOT_ALREADY_SHOT, or SHOT_INVALID
+     */
+    public static int shotResultType(int result) {
+        return result & 0xFF;
+    }
+
+    /**
+     * Get the size of the Ship that sunk from a code returned by shoot(int, int)
+     * @param result the result code
+     * @return the size of the sunk Ship if shotResultType(result) == SHOT_SUNK, 0 otherwise
+     */
+    public static int shotResultShipSize(int result) {
+        return result >>> 8;
+    }
+
+    /**
+     * Convert a code returned by shoot(int, int) to the message shown to a player
+     * @param result the result code
+     * @return the same message that shoot(String) returns for this result
+     */
+    public static String describeShotResult(int result) {
+        switch (shotResultType(result)) {
+            case SHOT_MISS:
+                return "Miss.";
+            case SHOT_HIT:
+                return "Hit!";
+            case SHOT_SUNK:
+                return "Hit!\nSunk a ship of length " + shotResultShipSize(result) + ".";
+            case SHOT_ALREADY_SHOT:
+                return "You already shot here.";
+            default:
+                return "That is not a valid location.";
+        }
+    }
+
+    /**
+     * Helper method for applyShot(),
+     * update the fleet counters after a Ship has sunk
+     * @param sz the size of the Ship that sunk
+     * @postcond this.shipsAfloatBySize and this.smallestShipAfloat no longer count the sunk Ship
+     */
+    private void recordSunkShip(int sz) {
+        this.shipsAfloatBySize[sz] -= 1;
+        if (sz == this.smallestShipAfloat && this.shipsAfloatBySize[sz] == 0) {
+            // move up to the next size that still has a Ship afloat
+            while (this.smallestShipAfloat < this.shipsAfloatBySize.length && this.shipsAfloatBySize[this.smallestShipAfloat] == 0) {
+                this.smallestShipAfloat += 1;
+            }
+            if (this.smallestShipAfloat == this.shipsAfloatBySize.length) {
+                this.smallestShipAfloat = 0;
+            } else {}
+        } else {}
+    }
+
+    /**
+     * Helper method for undoShot(),
+     * update the fleet counters after a sunk Ship is afloat again
+     * @param sz the size of the Ship
+     * @postcond this.shipsAfloatBySize and this.smallestShipAfloat count the Ship again
+     */
+    private void recordRaisedShip(int sz) {
+        this.shipsAfloatBySize[sz] += 1;
+        if (this.smallestShipAfloat == 0 || sz < this.smallestShipAfloat) {
+            this.smallestShipAfloat = sz;
+        } else {}
+    }
+
+    /**
+     * Helper method for addShip(), applyShot(), and undoShot(),
+     * record that every row a Ship is on changed at the current modification count
+     * @param s the index of the Ship
+     */
+    private void markShipRowsChanged(int s) {
+        int firstRow = this.shipRow(s);
+        int rows = this.isShipHorizontal(s) ? 1 : this.shipSize(s);
+        for (int r = firstRow; r < firstRow + rows; r++) {
+            this.rowVersions[r] = this.modificationCount;
+        }
+    }
+
+    /**
+     * @return the number of times a Ship has been added or a shot has landed on this Map
+     */
+    public long getModificationCount() {
+        return this.modificationCount;
+    }
+
+    /**
+     * @param rowc the row coordinate of a row
+     * @precond 0 <= rowc < this.getGeometry().getRows()
+     * @return the modification count when something on the row last changed, 0 if it never changed
+     */
+    public long getRowVersion(int rowc) {
+        return this.rowVersions[rowc];
+    }
+
+    /**
+     * Determine if all Ships have sunk
+     * @return true if all Ships have sunk, false otherwise
+     */
+    public boolean allShipsSunk() {
+        // every space with a Ship has been hit
+        return this.remainingHits == 0;
     }
 
     /**
-     * Convert the number coordinates to a shot
-     * @param rowc the row coordinate
-     * @param colc the column coordinate
-     * @precond 0 <= rowc <= 9 && 0 <= colc <= 9
-     * @return a String representing the shot, ex. "0A"
-     * @throws RuntimeException if the precondition is not met
+     * @return the number of spaces with a Ship that have not been hit yet
      */
-    public String convertNumberCoordinatesToShot(int rowc, int colc) {
-        if (rowc < 0 || rowc > 9 || colc < 0 || colc > 9) {
-            throw new RuntimeException("Error in convertNumberCoordinatesToShot: the coordinates are not valid");
+    public int getRemainingHits() {
+        return this.remainingHits;
+    }
+
+    /**
+     * Count the Ships of a size that have not sunk
+     * @param sz the size of the Ships to count
+     * @return the number of Ships of size sz that are still afloat, 0 if sz is not a valid size
+     */
+    public int shipsAfloat(int sz) {
+        if (sz < 0 || sz >= this.shipsAfloatBySize.length) {
+            return 0;
         }
         else {
-            return "" + this.validRows[rowc] + this.validColumns[colc];
+            return this.shipsAfloatBySize[sz];
         }
     }
 
     /**
-     * Determine if a location of the Map has already been shot at
-     * @param shot the coordinates of the shot
-     * @precond this.isShotValid(shot)
-     * @return true if the location has been shot at, false otherwise
-     * @throws RuntimeException if the precondition is not met
+     * @return the size of the smallest Ship that has not sunk, 0 if every Ship has sunk
      */
-    public boolean alreadyShotHere(String shot) {
-        try {
-            int[] convertedShot = this.convertShotToNumberCoordinates(shot);
-            return this.alreadyShotHere(convertedShot[0], convertedShot[1]);
-        }
-        catch (Exception e) {
-            throw new RuntimeException("Error in alreadyShotHere(): input shot is not valid");
-        }
+    public int smallestShipAfloat() {
+        return this.smallestShipAfloat;
     }
 
     /**
-     * Determine if a location of the Map has already been shot at
-     * @param rowc the row coordinate of the location to check
-     * @param colc to column coordinate of the location to check
-     * @precond 0 <= rowc <= 9 && 0 <= colc <= 9
-     * @return true if the location has been shot at, false otherwise
-     * @throws RuntimeException if the precondition is not met
+     * Helper method for displayCharacter(), the character shown for a Ship
+     * @param sz the size of the Ship
+     * @return the digit of the size, or '#' for a Ship of 10 or more spaces
      */
-    public boolean alreadyShotHere(int rowc, int colc) {
-        if (rowc >= 0 && rowc <= 9 && colc >= 0 && colc <= 9) {
-            return this.shotsOnMap[rowc][colc];
-        }
-        else {
-            throw new RuntimeException("Error in alreadyShotHere(): the coordinates are not valid");
-        }
+    private static char sizeCharacter(int sz) {
+        return sz < 10 ? (char) ('0' + sz) : '#';
     }
 
     /**
-     * Attempt to shoot at the specified location
-     * @param shot the location of the shot
-     * @postcond the shot is recorded on this.shotsOnMap, if a Ship is located where the shot is, it will record a hit
-     * @return a String giving details about the results of the shot
+     * Get the character that a view of the Map shows for a space
+     * @param view MapRenderer.SHIPS, MapRenderer.SHOTS, or MapRenderer.SHIPS_AND_SHOTS
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @precond this.getGeometry().isOnBoard(rowc, colc)
+     * @return ' ' for an empty space, '.' for a miss, '*' for a hit,
+     *         or the size of the Ship for a Ship that is shown, '#' for a Ship of 10 or more spaces
      */
-    public String shoot(String shot) {
-        if (!this.isShotValid(shot)) {
-            return "That is not a valid location.";
+    public char displayCharacter(int view, int rowc, int colc) {
+        int cell = this.geometry.cellIndex(rowc, colc);
+        if (view == MapRenderer.SHIPS) {
+            if (!BitBoard.get(this.shipBits, cell)) {
+                return ' ';
+            }
+            else {
+                return sizeCharacter(this.shipSize(this.shipIndexAtCell(cell)));
+            }
         }
-        else {
-            try {
-                int[] coords = this.convertShotToNumberCoordinates(shot);
-                if (alreadyShotHere(coords[0], coords[1])) {
-                    return "You already shot here.";
+        else if (view == MapRenderer.SHOTS) {
+            // shot
+            if (BitBoard.get(this.shotBits, cell)) {
+                // miss
+                if (!BitBoard.get(this.hitBits, cell)) {
+                    return '.';
                 }
+                // hit
                 else {
-                    // make the shot
-                    this.shotsOnMap[coords[0]][coords[1]] = true;
-                    Ship sh = this.shipsOnMap[coords[0]][coords[1]];
-                    if (sh == null) {
-                        return "Miss.";
+                    int s = this.shipIndexAtCell(cell);
+                    // hit mark
+                    if (!this.isShipSunk(s)) {
+                        return '*';
                     }
+                    // sunk Ships are revealed
                     else {
-                        String result = "Hit!";
-                        sh.addHit();
-                        if (sh.hasShipSunk()) {
-                            result += "\nSunk a ship of length ";
-                            result += sh.getSize();
-                            result += ".";
-                        } else {}
-                        return result;
+                        return sizeCharacter(this.shipSize(s));
                     }
                 }
             }
-            catch (Exception e) {
-                // this should not happen, but check just in case
-                return e.getMessage();
+            // no shot
+            else {
+                return ' ';
+            }
+        }
+        else {
+            // display shots
+            if (BitBoard.get(this.shotBits, cell)) {
+                // miss
+                if (!BitBoard.get(this.hitBits, cell)) {
+                    return '.';
+                }
+                // hit
+                else {
+                    return '*';
+                }
+            }
+            // display Ships
+            else {
+                return this.displayCharacter(MapRenderer.SHIPS, rowc, colc);
             }
         }
     }
 
     /**
-     * Determine if all Ships have sunk
-     * @return true if all Ships have sunk, false otherwise
+     * Get the MapRenderer that draws a view of this Map, it is made the first time it is asked for
+     * @param view MapRenderer.SHIPS, MapRenderer.SHOTS, or MapRenderer.SHIPS_AND_SHOTS
+     * @return the MapRenderer for the view
+     * @throws RuntimeException if the view is not one of the three views
      */
-    public boolean allShipsSunk() {
-        for (Ship sh : this.ships) {
-            if (sh != null) {
-                if (!sh.hasShipSunk()) {
-                    return false;
-                } else {}
+    public MapRenderer getRenderer(int view) {
+        if (view == MapRenderer.SHIPS) {
+            if (this.shipsRenderer == null) {
+                this.shipsRenderer = new MapRenderer(this, view);
+            } else {}
+            return this.shipsRenderer;
+        }
+        else if (view == MapRenderer.SHOTS) {
+            if (this.shotsRenderer == null) {
+                this.shotsRenderer = new MapRenderer(this, view);
+            } else {}
+            return this.shotsRenderer;
+        }
+        else if (view == MapRenderer.SHIPS_AND_SHOTS) {
+            if (this.shipsAndShotsRenderer == null) {
+                this.shipsAndShotsRenderer = new MapRenderer(this, view);
             } else {}
+            return this.shipsAndShotsRenderer;
+        }
+        else {
+            throw new RuntimeException("Invalid view: " + view);
         }
-        return true;
     }
 
     /**
@@ -399,22 +1216,7 @@ public class Map {
      * @return a String showing where the Ships are on the Map
      */
     public String displayShipsOnMap() {
-        String st = " |ABCDEFGHIJ\n";
-        st += "-+----------\n";
-        for (int i = 0; i < 10; i++) {
-            st += i;
-            st += "|";
-            for (int j = 0; j < 10; j++) {
-                if (this.shipsOnMap[i][j] == null) {
-                    st += " ";
-                }
-                else {
-                    st += this.shipsOnMap[i][j].getSize();
-                }
-            }
-            st += "\n";
-        }
-        return st;
+        return this.getRenderer(MapRenderer.SHIPS).render();
     }
 
     /**
@@ -422,39 +1224,7 @@ public class Map {
      * @return a String showing the shots, hits, and sunk Ships on the Map
      */
     public String displayShotsOnMap() {
-        String st = " |ABCDEFGHIJ\n";
-        st += "-+----------\n";
-        for (int i = 0; i < 10; i++) {
-            st += i;
-            st += "|";
-            for (int j = 0; j < 10; j++) {
-                // shot
-                if (this.shotsOnMap[i][j]) {
-                    Ship sh = this.shipsOnMap[i][j];
-                    // miss
-                    if (sh == null) {
-                        st += ".";
-                    }
-                    // hit
-                    else {
-                        // hit mark
-                        if (!sh.hasShipSunk()) {
-                            st += "*";
-                        }
-                        // sunk Ships are revealed
-                        else {
-                            st += sh.getSize();
-                        }
-                    }
-                }
-                // no shot
-                else {
-                    st += " ";
-                }
-            }
-            st += "\n";
-        }
-        return st;
+        return this.getRenderer(MapRenderer.SHOTS).render();
     }
 
     /**
@@ -462,37 +1232,7 @@ public class Map {
      * @return a String showing the Ships and the shots on the Map
      */
     public String displayShipsAndShotsOnMap() {
-        String st = " |ABCDEFGHIJ\n";
-        st += "-+----------\n";
-        for (int i = 0; i < 10; i++) {
-            st += i;
-            st += "|";
-            for (int j = 0; j < 10; j++) {
-                // display shots
-                if (this.shotsOnMap[i][j]) {
-                    Ship sh = this.shipsOnMap[i][j];
-                    // miss
-                    if (sh == null) {
-                        st += ".";
-                    }
-                    // hit
-                    else {
-                        st += "*";
-                    }
-                }
-                // display Ships
-                else {
-                    if (this.shipsOnMap[i][j] == null) {
-                        st += " ";
-                    }
-                    else {
-                        st += this.shipsOnMap[i][j].getSize();
-                    }
-                }
-            }
-            st += "\n";
-        }
-        return st;
+        return this.getRenderer(MapRenderer.SHIPS_AND_SHOTS).render();
     }
 
     public static void main(String[] args){
@@ -658,6 +1398,37 @@ public class Map {
             }
         }
 
+        // test parseShot() with a CharSequence and with a byte buffer
+        StringBuilder shotBuilder = new StringBuilder();
+        byte[] shotBytes = new byte[4];
+        for (int s5 = 0; s5 < shotsVar3.length; s5++) {
+            int expectedCell = cellIndex(expectedCoords[s5][0], expectedCoords[s5][1]);
+            shotBuilder.setLength(0);
+            shotBuilder.append(shotsVar3[s5]);
+            if (parseShot(shotBuilder) != expectedCell || parseShot(shotsVar2[s5]) != expectedCell) {
+                System.out.println("Error: parseShot() returned the wrong space number for " + shotsVar3[s5]);
+                uErrors += 1;
+            } else {}
+            shotBytes[1] = (byte) shotsVar4[s5].charAt(0);
+            shotBytes[2] = (byte) shotsVar4[s5].charAt(1);
+            if (parseShot(shotBytes, 1, 2) != expectedCell) {
+                System.out.println("Error: parseShot() returned the wrong space number for the bytes of " + shotsVar4[s5]);
+                uErrors += 1;
+            } else {}
+        }
+        for (String invalidShot : invalidShots) {
+            if (parseShot(invalidShot) != INVALID_CELL) {
+                System.out.println("Error: parseShot() did not return INVALID_CELL for invalid input " + invalidShot);
+                uErrors += 1;
+            } else {}
+        }
+        shotBytes[0] = (byte) 0xC1; // not an ASCII character
+        shotBytes[1] = (byte) '1';
+        if (parseShot("\u00C11") != INVALID_CELL || parseShot(shotBytes, 0, 2) != INVALID_CELL || parseShot(shotBytes, 1, 1) != INVALID_CELL) {
+            System.out.println("Error: parseShot() did not return INVALID_CELL for input that is not a number and a letter");
+            uErrors += 1;
+        } else {}
+
         // test convertNumberCoordinatesToShot
         String convertedToShot;
         try {
@@ -1053,6 +1824,27 @@ public class Map {
             uErrors += 1;
         } else {}
 
+        // test shoot(int, int) and the result code helpers
+        int result = m.shoot(-1, 0);
+        if (result != SHOT_INVALID || m.shoot(0, 10) != SHOT_INVALID) {
+            System.out.println("Error: shoot(int, int) did not return SHOT_INVALID for invalid coordinates");
+            uErrors += 1;
+        } else {}
+        result = m.shoot(6, 0);
+        if (result != SHOT_ALREADY_SHOT) {
+            System.out.println("Error: shoot(int, int) returned " + result + " for a space that was already shot at");
+            uErrors += 1;
+        } else {}
+        if (!describeShotResult(result).equals(shootMessages[3]) || !describeShotResult(SHOT_INVALID).equals(shootMessages[0])) {
+            System.out.println("Error: describeShotResult() did not return the same message as shoot(String)");
+            uErrors += 1;
+        } else {}
+        if (shotResultType(SHOT_SUNK | (4 << 8)) != SHOT_SUNK || shotResultShipSize(SHOT_SUNK | (4 << 8)) != 4
+                || shotResultShipSize(SHOT_HIT) != 0) {
+            System.out.println("Error: shotResultType() or shotResultShipSize() did not unpack a result code");
+            uErrors += 1;
+        } else {}
+
         // test alreadyShotHere(int, int)
         if (!m.alreadyShotHere(6, 0)) {
             System.out.println("Error: alreadyShotHere() returned false for a spot on the Map that has been shot at");
@@ -1063,6 +1855,12 @@ public class Map {
             uErrors += 1;
         } else {}
 
+        // test isHit()
+        if (m.isHit(6, 0) || !m.isHit(3, 3) || m.isHit(0, 0)) {
+            System.out.println("Error: isHit() did not match the miss and the hit on the Map");
+            uErrors += 1;
+        } else {}
+
         // test alreadyShotHere(String)
         if (!m.alreadyShotHere("6A")) {
             System.out.println("Error: alreadyShotHere() returned false for a spot on the Map that has been shot at");
@@ -1087,6 +1885,20 @@ public class Map {
             uErrors += 1;
         } else {}
 
+        // test the fleet counters with one hit and no Ships sunk
+        if (m.getRemainingHits() != 29) {
+            System.out.println("Error: getRemainingHits() returned " + m.getRemainingHits() + ", expected 29");
+            uErrors += 1;
+        } else {}
+        if (m.shipsAfloat(5) != 1 || m.shipsAfloat(4) != 2 || m.shipsAfloat(3) != 3 || m.shipsAfloat(2) != 4 || m.shipsAfloat(6) != 0) {
+            System.out.println("Error: shipsAfloat() did not count the Ships of each size");
+            uErrors += 1;
+        } else {}
+        if (m.smallestShipAfloat() != 2) {
+            System.out.println("Error: smallestShipAfloat() returned " + m.smallestShipAfloat() + ", expected 2");
+            uErrors += 1;
+        } else {}
+
         // test shoot() and sink some Ships
         m.shoot("5J");
         m.shoot("6J");
@@ -1132,6 +1944,12 @@ public class Map {
             uErrors += 1;
         } else {}
 
+        // test the fleet counters with some Ships sunk
+        if (m.getRemainingHits() != 16 || m.shipsAfloat(5) != 0 || m.shipsAfloat(4) != 1 || m.shipsAfloat(3) != 2 || m.shipsAfloat(2) != 3) {
+            System.out.println("Error: the fleet counters were not updated when Ships sunk");
+            uErrors += 1;
+        } else {}
+
         // test displayShotsOnMap() and displayShipsAndShotsOnMap() with some Ships sunk
         System.out.println("Here is the Map of the shots with some Ships sunk");
         System.out.println("Remember that sunk Ships on this Map will appear as numbers");
@@ -1146,6 +1964,18 @@ public class Map {
         m.shoot("3B");
         m.shoot("I0");
         m.shoot("J0");
+        // the same shots by number coordinates on a Map with the same Ship
+        Map intShotMap = new Map();
+        intShotMap.addShip(2, true, 0, 8);
+        if (intShotMap.shoot(0, 8) != SHOT_HIT || m.shoot(0, 8) != SHOT_ALREADY_SHOT) {
+            System.out.println("Error: shoot(int, int) did not return SHOT_HIT for a hit that did not sink a Ship");
+            uErrors += 1;
+        } else {}
+        result = intShotMap.shoot(0, 9);
+        if (shotResultType(result) != SHOT_SUNK || shotResultShipSize(result) != 2) {
+            System.out.println("Error: shoot(int, int) did not return SHOT_SUNK with the size of the sunk Ship");
+            uErrors += 1;
+        } else {}
         m.shoot("a9");
         m.shoot("b9");
         m.shoot("5f");
@@ -1163,6 +1993,10 @@ public class Map {
             System.out.println("Error: allShipsSunk() returned false when all Ships have sunk");
             uErrors += 1;
         } else {}
+        if (m.getRemainingHits() != 0 || m.shipsAfloat(2) != 0 || m.smallestShipAfloat() != 0) {
+            System.out.println("Error: the fleet counters still count Ships after all Ships have sunk");
+            uErrors += 1;
+        } else {}
 
         // test displayShotsOnMap() and displayShipsAndShotsOnMap() with all Ships sunk
         System.out.println("Here is the Map of the shots with all Ships sunk");
@@ -1179,6 +2013,16 @@ public class Map {
             uErrors += 1;
         } else {};
 
+        // test getShipAt()
+        if (m.getShipAt(1, 1) != shipsMap[1][1] || m.getShipAt(9, 9) == null || m.getShipAt(6, 0) != null) {
+            System.out.println("Error: getShipAt() did not return the Ship occupying the space");
+            uErrors += 1;
+        } else {}
+        if (m.getShipAt(5, 9).getSize() != 5 || m.getShipAt(9, 9) != m.getShipAt(5, 9)) {
+            System.out.println("Error: getShipAt() returned different Ships for spaces of the same Ship");
+            uErrors += 1;
+        } else {}
+
         // test addShipsRandomly()
         System.out.println("Now here comes the real test...");
         System.out.println("The computer will now randomly place Ships on a new Map...");
@@ -1194,6 +2038,18 @@ public class Map {
             uErrors += 1;
         }
 
+        // test addShipsRandomly(RandomGenerator), the same seed should give the same Map
+        Map seededMap1 = new Map();
+        Map seededMap2 = new Map();
+        if (seededMap1.addShipsRandomly(new Random(12345)) != 0 || seededMap2.addShipsRandomly(new Random(12345)) != 0) {
+            System.out.println("Error: addShipsRandomly(RandomGenerator) did not place all Ships");
+            uErrors += 1;
+        }
+        else if (!seededMap1.displayShipsOnMap().equals(seededMap2.displayShipsOnMap())) {
+            System.out.println("Error: addShipsRandomly(RandomGenerator) placed Ships differently for the same seed");
+            uErrors += 1;
+        } else {}
+
         // shoot at the random Map
         compMap.shoot("0A");
         compMap.shoot("0C");
@@ -1250,6 +2106,386 @@ public class Map {
         System.out.println("Here are the Ships along with the shots");
         System.out.println(compMap.displayShipsAndShotsOnMap());
 
+        // shots padded with zeros are not valid, a shot on the standard Map is always two characters
+        String[] paddedShots = {"00A", "A00", "0a0", "00a", "a00", "09J", "J09", "000A"};
+        Map paddedMap = new Map();
+        paddedMap.addShip(2, true, 0, 0);
+        paddedMap.shoot("0A");
+        for (String padded : paddedShots) {
+            if (paddedMap.isShotValid(padded) || !paddedMap.shoot(padded).equals("That is not a valid location.")) {
+                System.out.println("Error: the padded shot " + padded + " was accepted");
+                uErrors += 1;
+            } else {}
+        }
+        if (paddedMap.getShotCount() != 1) {
+            System.out.println("Error: a padded shot landed on the Map");
+            uErrors += 1;
+        } else {}
+
+        // test setGameEventListener(), every shot that lands should be reported once
+        final int[] events = new int[5]; // shotFired, missed, hit, sunk, gameOver
+        Map eventMap = new Map();
+        eventMap.addShip(2, true, 0, 0);
+        eventMap.addShip(3, false, 2, 2);
+        eventMap.setGameEventListener(new GameEventListener() {
+            public void shotFired(Map em, int rowc, int colc) { events[0] += 1; }
+            public void missed(Map em, int rowc, int colc) { events[1] += 1; }
+            public void hit(Map em, int rowc, int colc) { events[2] += 1; }
+            public void sunk(Map em, int rowc, int colc, int shipSize) { events[3] += shipSize; }
+            public void gameOver(Map em) { events[4] += 1; }
+        });
+        eventMap.shoot(9, 9);
+        eventMap.shoot(9, 9);
+        eventMap.shoot(-1, 0);
+        eventMap.shoot(0, 0);
+        eventMap.shoot(0, 1);
+        if (events[1] != 1 || events[2] != 1 || events[3] != 2 || events[4] != 0) {
+            System.out.println("Error: the GameEventListener was not told about the right events before the game ended");
+            uErrors += 1;
+        } else {}
+        for (int r = 2; r <= 4; r++) {
+            eventMap.shoot(r, 2);
+        }
+        if (events[0] != 0 || events[2] != 3 || events[3] != 5 || events[4] != 1) {
+            System.out.println("Error: the GameEventListener was not told about the right events when the game ended");
+            uErrors += 1;
+        } else {}
+        eventMap.setGameEventListener(null);
+        if (eventMap.getGameEventListener() != SilentGameListener.INSTANCE) {
+            System.out.println("Error: setGameEventListener(null) did not go back to a SilentGameListener");
+            uErrors += 1;
+        } else {}
+
+        // test undoShot() on a finished game, taking back the shots should not tell the listener anything
+        final int[] undoEvents = new int[5]; // shotFired, missed, hit, sunk, gameOver
+        Map undoMap = new Map();
+        undoMap.addShip(2, true, 0, 0);
+        undoMap.addShip(3, false, 2, 2);
+        int[] gameShots = {99, 0, 1, 22, 32, 42};
+        for (int cell : gameShots) {
+            undoMap.shoot(cell / 10, cell % 10);
+        }
+        undoMap.setGameEventListener(new GameEventListener() {
+            public void shotFired(Map em, int rowc, int colc) { undoEvents[0] += 1; }
+            public void missed(Map em, int rowc, int colc) { undoEvents[1] += 1; }
+            public void hit(Map em, int rowc, int colc) { undoEvents[2] += 1; }
+            public void sunk(Map em, int rowc, int colc, int shipSize) { undoEvents[3] += shipSize; }
+            public void gameOver(Map em) { undoEvents[4] += 1; }
+        });
+        if (undoMap.getShotCount() != 6 || undoMap.undoShot() != 42 || undoMap.allShipsSunk()
+                || undoMap.shipsAfloat(3) != 1 || undoMap.smallestShipAfloat() != 3 || undoMap.getRemainingHits() != 1) {
+            System.out.println("Error: undoShot() did not raise the last Ship that sunk");
+            uErrors += 1;
+        } else {}
+        undoMap.undoShot();
+        undoMap.undoShot();
+        undoMap.undoShot();
+        if (undoMap.smallestShipAfloat() != 2 || undoMap.shipsAfloat(2) != 1 || undoMap.isHit(0, 1) || undoMap.alreadyShotHere(0, 1)) {
+            System.out.println("Error: undoShot() did not raise a Ship of size 2");
+            uErrors += 1;
+        } else {}
+        undoMap.undoShot();
+        undoMap.undoShot();
+        if (undoMap.getShotCount() != 0 || undoMap.getRemainingHits() != 5 || !Arrays.equals(undoEvents, new int[5])) {
+            System.out.println("Error: undoShot() did not take back every shot quietly");
+            uErrors += 1;
+        } else {}
+        try {
+            undoMap.undoShot();
+            System.out.println("Error: undoShot() did not throw an exception with no shots to undo");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+
+        // test applyShot() and undoShot() on every space in a random order, then in reverse
+        Map searchMap = new Map();
+        searchMap.addShipsRandomly(new SplittableRandom(5));
+        String blankView = searchMap.displayShipsAndShotsOnMap();
+        int[] order = new int[100];
+        for (int cell = 0; cell < 100; cell++) {
+            order[cell] = cell;
+        }
+        SplittableRandom shuffle = new SplittableRandom(6);
+        for (int i = 99; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        String[] views = new String[100];
+        int[] results = new int[100];
+        for (int i = 0; i < 100; i++) {
+            results[i] = searchMap.applyShot(order[i] / 10, order[i] % 10);
+            views[i] = searchMap.displayShipsAndShotsOnMap();
+        }
+        if (!searchMap.allShipsSunk() || searchMap.smallestShipAfloat() != 0) {
+            System.out.println("Error: applyShot() on every space did not sink every Ship");
+            uErrors += 1;
+        } else {}
+        for (int i = 99; i >= 0; i--) {
+            String expectedView = i > 0 ? views[i - 1] : blankView;
+            if (searchMap.undoShot() != order[i] || !searchMap.displayShipsAndShotsOnMap().equals(expectedView)) {
+                System.out.println("Error: undoShot() did not restore the Map as it was before shot " + i);
+                uErrors += 1;
+            } else {}
+        }
+        boolean fleetRestored = searchMap.getRemainingHits() == 30 && searchMap.smallestShipAfloat() == 2
+                && searchMap.shipsAfloat(5) == 1 && searchMap.shipsAfloat(4) == 2 && searchMap.shipsAfloat(3) == 3 && searchMap.shipsAfloat(2) == 4;
+        for (Ship sh : searchMap.ships) {
+            fleetRestored = fleetRestored && sh.getHits() == 0 && sh.getHitMask() == 0;
+        }
+        if (!fleetRestored) {
+            System.out.println("Error: undoShot() did not restore the hits and the fleet counters");
+            uErrors += 1;
+        } else {}
+        // the same shots give the same results a second time
+        for (int i = 0; i < 100; i++) {
+            if (searchMap.applyShot(order[i] / 10, order[i] % 10) != results[i]) {
+                System.out.println("Error: applyShot() gave a different result after the shots were undone");
+                uErrors += 1;
+            } else {}
+        }
+
+        // measure how fast a search can make and unmake shots
+        long nodes = 0;
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < 200000000L) {
+            for (int i = 0; i < 100; i++) {
+                searchMap.undoShot();
+            }
+            for (int i = 0; i < 100; i++) {
+                searchMap.applyShot(order[i] / 10, order[i] % 10);
+            }
+            nodes += 100;
+        }
+        System.out.println("applyShot() and undoShot() pairs per second: " + nodes * 1000000000L / (System.nanoTime() - start));
+
+        // test getObservationHash(), it should match the hash worked out from scratch after every shot and every undo
+        Map hashMap = new Map();
+        hashMap.addShipsRandomly(new SplittableRandom(19));
+        boolean hashKept = hashMap.getObservationHash() == 0;
+        for (int i = 0; i < 100; i++) {
+            // 37 and 100 have no common factor, so this shoots every space once in a scattered order
+            hashMap.applyShot(i * 37 % 100 / 10, i * 37 % 10);
+            hashKept = hashKept && hashMap.getObservationHash() == hashMap.computeObservationHash();
+        }
+        for (int i = 99; i >= 0; i--) {
+            hashMap.undoShot();
+            hashKept = hashKept && hashMap.getObservationHash() == hashMap.computeObservationHash();
+        }
+        hashKept = hashKept && hashMap.getObservationHash() == 0;
+        if (!hashKept) {
+            System.out.println("Error: getObservationHash() did not follow applyShot() and undoShot()");
+            uErrors += 1;
+        } else {}
+
+        // the same observations hash the same whatever the order of the shots and wherever the hidden Ships are
+        Map hashA = new Map();
+        Map hashB = new Map();
+        hashA.addShip(3, true, 0, 0);
+        hashA.addShip(2, false, 5, 5);
+        hashB.addShip(3, true, 0, 0);
+        hashB.addShip(2, false, 7, 8);
+        int[] shotOrder = {0, 1, 99, 2, 44};
+        for (int i = 0; i < shotOrder.length; i++) {
+            hashA.shoot(shotOrder[i] / 10, shotOrder[i] % 10);
+            hashB.shoot(shotOrder[shotOrder.length - 1 - i] / 10, shotOrder[shotOrder.length - 1 - i] % 10);
+        }
+        if (hashA.getObservationHash() != hashB.getObservationHash()) {
+            System.out.println("Error: getObservationHash() differs for the same observations");
+            uErrors += 1;
+        } else {}
+        // 5F is a hit on hashA but a miss on hashB
+        hashA.shoot(5, 5);
+        hashB.shoot(5, 5);
+        if (hashA.getObservationHash() == hashB.getObservationHash()) {
+            System.out.println("Error: getObservationHash() is the same for a hit and a miss");
+            uErrors += 1;
+        } else {}
+        // three hits in a row hash differently once they are known to be a sunk Ship
+        Map threeHits = new Map();
+        threeHits.addShip(4, true, 0, 0);
+        for (int c = 0; c < 3; c++) {
+            threeHits.shoot(0, c);
+        }
+        threeHits.shoot(5, 5);
+        if (threeHits.getObservationHash() == new Map().getObservationHash()) {
+            System.out.println("Error: getObservationHash() did not change with the shots");
+            uErrors += 1;
+        } else {}
+        Map sunkThree = new Map();
+        sunkThree.addShip(3, true, 0, 0);
+        for (int c = 0; c < 3; c++) {
+            sunkThree.shoot(0, c);
+        }
+        sunkThree.shoot(5, 5);
+        if (sunkThree.getObservationHash() == threeHits.getObservationHash()) {
+            System.out.println("Error: getObservationHash() is the same for three hits and a sunk Ship of size 3");
+            uErrors += 1;
+        } else {}
+        // the keys looked up in the table are the same keys that are mixed for bigger Maps
+        boolean tabledKeysMatch = observationKey(TABLED_KEY_CELLS, SEEN_HIT) == mixObservationKey(TABLED_KEY_CELLS, SEEN_HIT);
+        for (int cell = 0; cell < TABLED_KEY_CELLS; cell++) {
+            for (int seen = 0; seen < TABLED_KEY_SEEN; seen++) {
+                tabledKeysMatch = tabledKeysMatch && observationKey(cell, seen) == mixObservationKey(cell, seen);
+            }
+        }
+        if (!tabledKeysMatch) {
+            System.out.println("Error: observationKey() did not return the mixed key for a space in the table");
+            uErrors += 1;
+        } else {}
+        // a Map whose hash is first asked for halfway through a game has the same hash as one that kept it all along
+        Map keptMap = new Map();
+        Map lateMap = new Map();
+        keptMap.addShip(3, true, 0, 0);
+        lateMap.addShip(3, true, 0, 0);
+        keptMap.getObservationHash();
+        for (int c = 0; c < 5; c++) {
+            keptMap.shoot(0, c);
+            lateMap.shoot(0, c);
+        }
+        boolean lateHashMatches = !lateMap.observationHashKept && lateMap.getObservationHash() == keptMap.getObservationHash();
+        lateMap.undoShot();
+        lateMap.undoShot();
+        lateMap.undoShot();
+        keptMap.undoShot();
+        keptMap.undoShot();
+        keptMap.undoShot();
+        if (!lateHashMatches || lateMap.getObservationHash() != keptMap.getObservationHash()
+                || lateMap.getObservationHash() != lateMap.computeObservationHash()) {
+            System.out.println("Error: getObservationHash() did not match when it was first asked for halfway through a game");
+            uErrors += 1;
+        } else {}
+
+        // a 1000x1000 Map places, shoots, and takes back shots with multi-character coordinates
+        Map bigRandomMap = new Map(new BoardGeometry(1000, 1000));
+        if (bigRandomMap.addShipsRandomly(new SplittableRandom(8)) != 0 || bigRandomMap.getRemainingHits() != 30) {
+            System.out.println("Error: addShipsRandomly() did not place the fleet on a 1000x1000 Map");
+            uErrors += 1;
+        } else {}
+        Map bigMap = new Map(new BoardGeometry(1000, 1000));
+        bigMap.addShip(2, true, 123, 26);
+        bigMap.addShip(3, false, 997, 999);
+        if (!bigMap.shoot("AA123").equals("Hit!") || !bigMap.isHit(123, 26) || !bigMap.shoot("999ALL").equals("Hit!")
+                || !bigMap.shoot("1000A").equals("That is not a valid location.") || bigMap.getShotCount() != 2) {
+            System.out.println("Error: shoot() did not handle the shots AA123, 999ALL, and 1000A on a 1000x1000 Map");
+            uErrors += 1;
+        } else {}
+        if (bigMap.shoot(123, 27) != (SHOT_SUNK | (2 << 8)) || bigMap.getObservationHash() != bigMap.computeObservationHash()) {
+            System.out.println("Error: shoot() did not sink a Ship or update the observation hash on a 1000x1000 Map");
+            uErrors += 1;
+        } else {}
+        bigMap.undoShot();
+        bigMap.undoShot();
+        bigMap.undoShot();
+        if (bigMap.alreadyShotHere("AA123") || bigMap.getRemainingHits() != 5 || bigMap.getObservationHash() != 0) {
+            System.out.println("Error: undoShot() did not take back the shots on a 1000x1000 Map");
+            uErrors += 1;
+        } else {}
+        // a 1000x1000 Map finds its Ships in a hash table of 64 slots, a 10x10 Map in a grid of 100 bytes
+        Map bigCompactMap = new Map(new BoardGeometry(1000, 1000), FleetSpec.STANDARD, true);
+        bigCompactMap.addShip(5, false, 995, 999);
+        if (bigMap.shipNumbers != null || bigMap.shipCells.length != 64 || bigCompactMap.shipNumbers != null
+                || bigCompactMap.shoot(999, 999) != SHOT_HIT || bigCompactMap.shoot(994, 999) != SHOT_MISS
+                || new Map().shipNumbers.length != 100 || new Map().shipCells != null) {
+            System.out.println("Error: Map() constructor did not choose the smaller way to find the Ship on a space");
+            uErrors += 1;
+        } else {}
+        Map tallMap = new Map(new BoardGeometry(20, 10));
+        if (!tallMap.addShip(5, false, 15, 9) || tallMap.addShip(2, false, 19, 0) || tallMap.getShipsOnMap().length != 20
+                || tallMap.getShipAt(19, 9) == null) {
+            System.out.println("Error: addShip() did not use the rows of a 20x10 Map");
+            uErrors += 1;
+        } else {}
+
+        // a fleet of 301 Ships from 1 to 12 spaces long
+        try {
+            new Map(BoardGeometry.STANDARD, FleetSpec.parse("11"));
+            System.out.println("Error: Map() constructor did not throw an exception for a fleet that does not fit");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+        Map fleetMap = new Map(new BoardGeometry(100, 100), FleetSpec.parse("12,1x200,3x100"));
+        if (fleetMap.addShipsRandomly(new SplittableRandom(23)) != 0 || fleetMap.getRemainingHits() != 512
+                || fleetMap.shipsAfloat(1) != 200 || fleetMap.shipsAfloat(12) != 1 || fleetMap.smallestShipAfloat() != 1) {
+            System.out.println("Error: addShipsRandomly() did not place a fleet of 301 Ships");
+            uErrors += 1;
+        } else {}
+        Ship longest = fleetMap.getShipsOnMap()[0][0];
+        for (Ship[] row : fleetMap.getShipsOnMap()) {
+            for (Ship sh : row) {
+                if (sh != null && (longest == null || sh.getSize() > longest.getSize())) {
+                    longest = sh;
+                } else {}
+            }
+        }
+        int longestResult = 0;
+        for (int i = 0; i < 12; i++) {
+            longestResult = fleetMap.shoot(longest.isHorizontal() ? longest.getRowCoordinate() : longest.getRowCoordinate() + i,
+                                           longest.isHorizontal() ? longest.getColumnCoordinate() + i : longest.getColumnCoordinate());
+        }
+        if (longestResult != (SHOT_SUNK | (12 << 8)) || fleetMap.shipsAfloat(12) != 0
+                || fleetMap.displayCharacter(MapRenderer.SHOTS, longest.getRowCoordinate(), longest.getColumnCoordinate()) != '#'
+                || fleetMap.getObservationHash() != fleetMap.computeObservationHash()) {
+            System.out.println("Error: shoot() did not sink a Ship of size 12");
+            uErrors += 1;
+        } else {}
+        fleetMap.undoShot();
+        if (fleetMap.shipsAfloat(12) != 1 || fleetMap.getRemainingHits() != 501) {
+            System.out.println("Error: undoShot() did not raise a Ship of size 12");
+            uErrors += 1;
+        } else {}
+
+        // test a compact Map, it should give the same results as a Map of Ship objects with the same Ships
+        try {
+            new Map(new BoardGeometry(100, 100), FleetSpec.parse("65"), true);
+            System.out.println("Error: Map() constructor did not throw an exception for a compact Map with a Ship longer than 64");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+        BoardGeometry compactGeometry = new BoardGeometry(12, 70);
+        FleetSpec compactFleet = FleetSpec.parse("64,12,5,3x2,1");
+        Map objectMap = new Map(compactGeometry, compactFleet);
+        Map compactMap = new Map(compactGeometry, compactFleet, true);
+        objectMap.addShipsRandomly(new SplittableRandom(25));
+        compactMap.addShipsRandomly(new SplittableRandom(25));
+        if (!compactMap.isCompact() || objectMap.isCompact() || compactMap.ships != null
+                || !compactMap.displayShipsOnMap().equals(objectMap.displayShipsOnMap())) {
+            System.out.println("Error: a compact Map did not place the same Ships as a Map of Ship objects");
+            uErrors += 1;
+        } else {}
+        SplittableRandom compactRand = new SplittableRandom(26);
+        boolean sameResults = true;
+        for (int i = 0; i < 700; i++) {
+            int cell = compactRand.nextInt(compactGeometry.getCellCount());
+            int r = compactGeometry.rowOf(cell);
+            int c = compactGeometry.columnOf(cell);
+            sameResults = sameResults && compactMap.shoot(r, c) == objectMap.shoot(r, c)
+                    && compactMap.getObservationHash() == objectMap.getObservationHash()
+                    && compactMap.getObservationHash() == compactMap.computeObservationHash();
+        }
+        Ship copied = compactMap.getShipAt(objectMap.ships[0].getRowCoordinate(), objectMap.ships[0].getColumnCoordinate());
+        if (!sameResults || !compactMap.displayShipsAndShotsOnMap().equals(objectMap.displayShipsAndShotsOnMap())
+                || compactMap.getRemainingHits() != objectMap.getRemainingHits() || copied.getSize() != 64
+                || copied.getHits() != objectMap.ships[0].getHits() || copied.hasShipSunk() != objectMap.ships[0].hasShipSunk()) {
+            System.out.println("Error: a compact Map did not give the same shot results as a Map of Ship objects");
+            uErrors += 1;
+        } else {}
+        while (compactMap.getShotCount() > 0) {
+            compactMap.undoShot();
+        }
+        if (compactMap.getRemainingHits() != 88 || compactMap.getObservationHash() != 0 || compactMap.shipsAfloat(64) != 1
+                || compactMap.getShipAt(copied.getRowCoordinate(), copied.getColumnCoordinate()).getHits() != 0) {
+            System.out.println("Error: undoShot() did not restore a compact Map");
+            uErrors += 1;
+        } else {}
+
         System.out.println("Testing complete with " + uErrors + " unintentional errors.");
     }
 }
@@ -0,0 +1,230 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A MapRenderer draws one view of a Map into a char buffer that it keeps for as long as it lives.
+ * The Map counts its modifications and remembers when each row last changed (see Map.getRowVersion()),
+ * so the MapRenderer returns the same frame while the Map is unchanged, and redraws only the changed rows otherwise.
+ *
+ * A frame of a standard 10x10 Map looks like this, 12 lines of 13 characters each:
+ *  |ABCDEFGHIJ
+ * -+----------
+ * 0|
+ * ...
+ * 9|
+ * A bigger Map has wider row labels, and one header line per letter of the longest column label,
+ * with the letters of each label written down its column.
+ */
+import java.util.Arrays;
+
+public class MapRenderer {
+    // the views a MapRenderer can draw, see Map.displayCharacter()
+    public static final int SHIPS = 0;
+    public static final int SHOTS = 1;
+    public static final int SHIPS_AND_SHOTS = 2;
+
+    // the first lines and the line length of a standard Map, for the tests
+    private static final int LINE_LENGTH = 13; // including the '\n'
+    private static final String HEADER = " |ABCDEFGHIJ\n-+----------\n";
+
+    private final Map map;
+    private final int view;
+    private final int rows;
+    private final int columns;
+    private final int labelWidth;  // the characters of the widest row label
+    private final int headerLines; // the lines above the rows, including the line of '-'
+    private final int lineLength;
+    private final char[] frame;
+    private long renderedVersion; // the modification count of the Map when the frame was last brought up to date
+    private String cachedFrame;   // the frame as a String, null if it has changed since the String was made
+    private long rowsRendered;    // the number of rows drawn so far
+
+    /**
+     * Constructor method for a MapRenderer, the whole frame is drawn the first time it is asked for
+     * @param m the Map to draw
+     * @param vw SHIPS, SHOTS, or SHIPS_AND_SHOTS
+     * @throws RuntimeException if the view is not one of the three views
+     */
+    public MapRenderer(Map m, int vw) {
+        if (vw != SHIPS && vw != SHOTS && vw != SHIPS_AND_SHOTS) {
+            throw new RuntimeException("Invalid view: " + vw);
+        } else {}
+        this.map = m;
+        this.view = vw;
+        BoardGeometry g = m.getGeometry();
+        this.rows = g.getRows();
+        this.columns = g.getColumns();
+        this.labelWidth = String.valueOf(this.rows - 1).length();
+        int labelLetters = BoardGeometry.columnLabel(this.columns - 1).length();
+        this.headerLines = labelLetters + 1;
+        this.lineLength = this.labelWidth + this.columns + 2;
+        this.frame = new char[(this.headerLines + this.rows) * this.lineLength];
+        Arrays.fill(this.frame, ' ');
+        // the column labels, right-aligned so that the last letter of every label is on the same line
+        for (int c = 0; c < this.columns; c++) {
+            String label = BoardGeometry.columnLabel(c);
+            for (int i = 0; i < label.length(); i++) {
+                this.frame[(labelLetters - label.length() + i) * this.lineLength + this.labelWidth + 1 + c] = label.charAt(i);
+            }
+        }
+        for (int line = 0; line < this.headerLines + this.rows; line++) {
+            int start = line * this.lineLength;
+            if (line == labelLetters) {
+                Arrays.fill(this.frame, start, start + this.lineLength - 1, '-');
+                this.frame[start + this.labelWidth] = '+';
+            }
+            else {
+                this.frame[start + this.labelWidth] = '|';
+            }
+            this.frame[start + this.lineLength - 1] = '\n';
+        }
+        // the row labels, right-aligned
+        for (int r = 0; r < this.rows; r++) {
+            int end = (this.headerLines + r) * this.lineLength + this.labelWidth;
+            for (int n = r, i = 1; i == 1 || n > 0; n /= 10, i++) {
+                this.frame[end - i] = (char) ('0' + n % 10);
+            }
+        }
+        this.renderedVersion = -1;
+        this.cachedFrame = null;
+        this.rowsRendered = 0;
+    }
+
+    /**
+     * Bring the frame up to date with the Map, redrawing only the rows that changed since the last update
+     * @return the frame, which must not be changed by the caller and is only valid until the next update
+     */
+    public char[] frame() {
+        long version = this.map.getModificationCount();
+        if (version != this.renderedVersion) {
+            for (int r = 0; r < this.rows; r++) {
+                if (this.map.getRowVersion(r) > this.renderedVersion) {
+                    int start = (r + this.headerLines) * this.lineLength + this.labelWidth + 1;
+                    for (int c = 0; c < this.columns; c++) {
+                        this.frame[start + c] = this.map.displayCharacter(this.view, r, c);
+                    }
+                    this.rowsRendered += 1;
+                } else {}
+            }
+            this.renderedVersion = version;
+            this.cachedFrame = null;
+        } else {}
+        return this.frame;
+    }
+
+    /**
+     * Draw the Map as a String, the same String is returned while the Map is unchanged
+     * @return the frame as a String
+     */
+    public String render() {
+        char[] fr = this.frame();
+        if (this.cachedFrame == null) {
+            this.cachedFrame = new String(fr);
+        } else {}
+        return this.cachedFrame;
+    }
+
+    /**
+     * @return the number of characters in one line of the frame, including the '\n' at the end
+     */
+    public int getLineLength() {
+        return this.lineLength;
+    }
+
+    /**
+     * @return the number of lines in the frame
+     */
+    public int getLineCount() {
+        return this.headerLines + this.rows;
+    }
+
+    /**
+     * @return the number of rows drawn since this MapRenderer was made
+     */
+    public long getRowsRendered() {
+        return this.rowsRendered;
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing MapRenderer.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // test MapRenderer() constructor
+        try {
+            new MapRenderer(new Map(), 3);
+            System.out.println("Error: MapRenderer() constructor did not throw an exception for an invalid view");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // this should happen
+        }
+
+        Map m = new Map();
+        MapRenderer shots = new MapRenderer(m, SHOTS);
+        MapRenderer ships = new MapRenderer(m, SHIPS);
+
+        // the first frame draws every row
+        String blank = shots.render();
+        String expected = HEADER;
+        for (int r = 0; r < 10; r++) {
+            expected += r + "|          \n";
+        }
+        if (!blank.equals(expected) || shots.getRowsRendered() != 10) {
+            System.out.println("Error: render() did not draw a blank Map correctly");
+            uErrors += 1;
+        } else {}
+
+        // an unchanged Map gives back the cached frame without drawing anything
+        if (shots.render() != blank || shots.getRowsRendered() != 10) {
+            System.out.println("Error: render() drew the frame again even though the Map did not change");
+            uErrors += 1;
+        } else {}
+
+        // a vertical Ship changes three rows, and a miss changes one
+        m.addShip(3, false, 2, 4);
+        m.addShip(2, true, 7, 0);
+        ships.render();
+        long before = shots.getRowsRendered();
+        shots.render();
+        if (shots.getRowsRendered() - before != 4) {
+            System.out.println("Error: render() drew " + (shots.getRowsRendered() - before) + " rows after adding two Ships instead of 4");
+            uErrors += 1;
+        } else {}
+        before = shots.getRowsRendered();
+        m.shoot(9, 9);
+        String afterMiss = shots.render();
+        if (shots.getRowsRendered() - before != 1 || afterMiss.charAt(11 * LINE_LENGTH + 11) != '.') {
+            System.out.println("Error: render() did not redraw only the row of a miss");
+            uErrors += 1;
+        } else {}
+
+        // sinking a vertical Ship changes every one of its rows on the shots view
+        m.shoot(2, 4);
+        m.shoot(3, 4);
+        m.shoot(4, 4);
+        if (!shots.render().equals(m.displayShotsOnMap()) || !ships.render().equals(m.displayShipsOnMap())) {
+            System.out.println("Error: render() does not match the display methods of Map after shots");
+            uErrors += 1;
+        } else {}
+        if (shots.render().charAt(4 * LINE_LENGTH + 6) != '3') {
+            System.out.println("Error: render() did not reveal a sunk Ship");
+            uErrors += 1;
+        } else {}
+
+        // a bigger Map gets wider row labels and a header line for each letter of its column labels
+        Map wide = new Map(new BoardGeometry(12, 30));
+        wide.shoot(11, 29);
+        MapRenderer wideShots = new MapRenderer(wide, SHOTS);
+        String wideFrame = wideShots.render();
+        String[] wideLines = wideFrame.split("\n");
+        if (wideShots.getLineLength() != 34 || wideShots.getLineCount() != 15 || wideLines.length != 15
+                || !wideLines[0].equals("  |                          AAAA")
+                || !wideLines[1].equals("  |ABCDEFGHIJKLMNOPQRSTUVWXYZABCD")
+                || !wideLines[2].equals("--+------------------------------")
+                || !wideLines[3].startsWith(" 0|") || !wideLines[14].equals("11|                             .")) {
+            System.out.println("Error: render() did not draw a 12x30 Map correctly:\n" + wideFrame);
+            uErrors += 1;
+        } else {}
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -0,0 +1,467 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A MonteCarloStrategy guesses where the opponent's Ships are by sampling complete fleet layouts that agree with
+ * everything the ComputerPlayer has seen: no Ship covers a miss or a sunk Ship, and every hit on a Ship that has
+ * not sunk is covered. Each sample votes for the spaces its Ships cover, and the space with the most votes is shot.
+ *
+ * The samples are not drawn uniformly from the layouts that agree with the observations, and they are not weighted
+ * to make up for it: Ships are placed one at a time, the ones over hits first, and a sample is given up after
+ * TRIES_PER_SHIP failed placements, so layouts that are easy to build this way are drawn more often than the rest.
+ * The votes are a biased heuristic for where the Ships are, not the probability that a space holds a Ship.
+ *
+ * The samples are split into tasks on a fork-join pool. Every task keeps its own random number generator,
+ * scratch boards, and vote counts for the whole game, so taking samples does not create any objects.
+ * Placements are checked with Map.placementFits(), the same rules Map.willShipFit() uses.
+ */
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+public class MonteCarloStrategy implements TargetingStrategy {
+    private static final int TRIES_PER_SHIP = 40; // random placements to try before a sample is given up
+    private static final int SAMPLE_TASKS = 16;   // the samples of every shot are split between this many tasks
+
+    private Map opponentMap;
+    private ForkJoinPool pool;
+    private int samplesPerShot;
+    private long[] blockedBits; // BitBoard of the misses and the spaces of sunk Ships
+    private long[] hitBits;     // BitBoard of the hits on Ships that have not sunk
+    private long[] shotBits;    // BitBoard of every space shot at
+    private int[] shipsAfloat;  // the sizes of the Ships that have not sunk, largest first
+    private int shipsAfloatCount;
+    private SampleTask[] tasks;
+    private RandomGenerator rand; // breaks ties between equally good spaces
+    private int lastAcceptedSamples;
+
+    /**
+     * Constructor method for a MonteCarloStrategy that samples on the common fork-join pool
+     * @param m the opponent's Map
+     * @param rnd the random number generator the per-task generators are seeded from
+     * @param samples the number of fleet layouts to try for every shot
+     */
+    public MonteCarloStrategy(Map m, RandomGenerator rnd, int samples) {
+        this(m, rnd, samples, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor method for a MonteCarloStrategy
+     * @param m the opponent's Map
+     * @param rnd the random number generator the per-task generators are seeded from
+     * @param samples the number of fleet layouts to try for every shot
+     * @param fjp the fork-join pool to take the samples on
+     * @precond samples >= 1
+     * @throws RuntimeException if the Map is not 10x10 or has Ships shorter than 2 or longer than 5 spaces
+     */
+    public MonteCarloStrategy(Map m, RandomGenerator rnd, int samples, ForkJoinPool fjp) {
+        if (!m.getGeometry().isStandard() || !m.getFleet().hasSizesBetween(PlacementGenerator.MIN_SIZE, PlacementGenerator.MAX_SIZE)) {
+            throw new RuntimeException("Error in MonteCarloStrategy(): only 10x10 Maps with Ships of 2 to 5 spaces are supported");
+        } else {}
+        this.opponentMap = m;
+        this.rand = rnd;
+        this.pool = fjp;
+        this.samplesPerShot = samples;
+        this.blockedBits = BitBoard.create(100);
+        this.hitBits = BitBoard.create(100);
+        this.shotBits = BitBoard.create(100);
+        this.shipsAfloat = m.getShipSizes();
+        this.shipsAfloatCount = this.shipsAfloat.length;
+        this.lastAcceptedSamples = 0;
+
+        // the number of tasks does not depend on the pool, so the same seed picks the same shots on any machine
+        int taskCount = Math.max(1, Math.min(SAMPLE_TASKS, samples));
+        SplittableRandom seeds = new SplittableRandom(rnd.nextLong());
+        this.tasks = new SampleTask[taskCount];
+        for (int t = 0; t < taskCount; t++) {
+            int share = samples / taskCount + (t < samples % taskCount ? 1 : 0);
+            this.tasks[t] = new SampleTask(seeds.split(), share, this.shipsAfloat.length);
+        }
+    }
+
+    /**
+     * @return the number of samples that agreed with the observations when the last shot was chosen
+     */
+    public int getLastAcceptedSamples() {
+        return this.lastAcceptedSamples;
+    }
+
+    @Override
+    public int chooseShot() {
+        // take the samples in parallel
+        for (SampleTask task : this.tasks) {
+            task.reinitialize();
+        }
+        if (this.tasks.length == 1) {
+            this.tasks[0].invoke();
+        }
+        else {
+            this.pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        // add up the votes of every task and pick the most voted space, breaking ties at random
+        this.lastAcceptedSamples = 0;
+        for (SampleTask task : this.tasks) {
+            this.lastAcceptedSamples += task.accepted;
+        }
+        int best = -1;
+        long bestVotes = -1;
+        int ties = 0;
+        for (int cell = 0; cell < 100; cell++) {
+            if (!BitBoard.get(this.shotBits, cell)) {
+                long votes = 0;
+                for (SampleTask task : this.tasks) {
+                    votes += task.votes[cell];
+                }
+                // without any accepted samples, prefer spaces next to a hit
+                if (this.lastAcceptedSamples == 0) {
+                    votes = this.touchesHit(cell) ? 1 : 0;
+                } else {}
+                if (votes > bestVotes) {
+                    best = cell;
+                    bestVotes = votes;
+                    ties = 1;
+                }
+                else if (votes == bestVotes) {
+                    ties += 1;
+                    if (this.rand.nextInt(ties) == 0) {
+                        best = cell;
+                    } else {}
+                } else {}
+            } else {}
+        }
+        return best;
+    }
+
+    /**
+     * Helper method for chooseShot(),
+     * determine if a space is next to a hit on a Ship that has not sunk
+     * @param cell the space number
+     * @return true if a neighbouring space is on this.hitBits, false otherwise
+     */
+    private boolean touchesHit(int cell) {
+        int rowc = cell / 10;
+        int colc = cell % 10;
+        return (rowc > 0 && BitBoard.get(this.hitBits, cell - 10)) || (rowc < 9 && BitBoard.get(this.hitBits, cell + 10))
+                || (colc > 0 && BitBoard.get(this.hitBits, cell - 1)) || (colc < 9 && BitBoard.get(this.hitBits, cell + 1));
+    }
+
+    /**
+     * Copy the fraction of the accepted samples of the last shot that covered each space.
+     * The samples are biased (see the class comment), so this is a heuristic score, not the probability
+     * that the space holds a Ship
+     * @param heatmap receives the score of every space, at least 100 entries long
+     * @return true
+     */
+    @Override
+    public boolean getHeatmap(double[] heatmap) {
+        // the fraction of the accepted samples that covered each space
+        for (int cell = 0; cell < 100; cell++) {
+            long votes = 0;
+            for (SampleTask task : this.tasks) {
+                votes += task.votes[cell];
+            }
+            heatmap[cell] = this.lastAcceptedSamples == 0 ? 0 : (double) votes / this.lastAcceptedSamples;
+        }
+        return true;
+    }
+
+    @Override
+    public void recordShot(int cell, int result) {
+        int type = Map.shotResultType(result);
+        if (type == Map.SHOT_MISS || type == Map.SHOT_HIT || type == Map.SHOT_SUNK) {
+            BitBoard.set(this.shotBits, cell);
+        } else {}
+        if (type == Map.SHOT_MISS) {
+            BitBoard.set(this.blockedBits, cell);
+        }
+        else if (type == Map.SHOT_HIT) {
+            BitBoard.set(this.hitBits, cell);
+        }
+        else if (type == Map.SHOT_SUNK) {
+            // the spaces of the sunk Ship are blocked, and the Ship no longer needs to be sampled
+            Ship sh = this.opponentMap.getShipAt(cell / 10, cell % 10);
+            int shipCell = Map.cellIndex(sh.getRowCoordinate(), sh.getColumnCoordinate());
+            int step = sh.isHorizontal() ? 1 : 10;
+            for (int i = 0; i < sh.getSize(); i++) {
+                BitBoard.clear(this.hitBits, shipCell);
+                BitBoard.set(this.blockedBits, shipCell);
+                shipCell += step;
+            }
+            for (int s = 0; s < this.shipsAfloatCount; s++) {
+                if (this.shipsAfloat[s] == sh.getSize()) {
+                    // shift the smaller Ships up to keep the sizes in order
+                    System.arraycopy(this.shipsAfloat, s + 1, this.shipsAfloat, s, this.shipsAfloatCount - s - 1);
+                    this.shipsAfloatCount -= 1;
+                    break;
+                } else {}
+            }
+        } else {}
+    }
+
+    /**
+     * A SampleTask takes its share of the samples for one shot,
+     * it is reused for every shot of the game together with its random number generator and scratch boards
+     */
+    private class SampleTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SplittableRandom random;
+        private final int samples;
+        private final long[] occupied; // scratch board of the blocked spaces and the Ships placed so far
+        private final long[] covered;  // scratch board of the spaces covered by Ships placed so far
+        private final boolean[] placed; // which of the Ships afloat have been placed in the current sample
+        private final int[] votes;
+        private int accepted;
+
+        /**
+         * Constructor method for a SampleTask
+         * @param rnd the random number generator of this task
+         * @param share the number of samples this task takes for every shot
+         * @param fleetSize the number of Ships in the fleet
+         */
+        SampleTask(SplittableRandom rnd, int share, int fleetSize) {
+            this.random = rnd;
+            this.samples = share;
+            this.occupied = BitBoard.create(100);
+            this.covered = BitBoard.create(100);
+            this.placed = new boolean[fleetSize];
+            this.votes = new int[100];
+            this.accepted = 0;
+        }
+
+        @Override
+        protected void compute() {
+            for (int cell = 0; cell < 100; cell++) {
+                this.votes[cell] = 0;
+            }
+            this.accepted = 0;
+            for (int s = 0; s < this.samples; s++) {
+                if (this.sample()) {
+                    this.accepted += 1;
+                    // vote for the covered spaces that have not been shot at
+                    for (int w = 0; w < this.covered.length; w++) {
+                        long bits = this.covered[w] & ~shotBits[w];
+                        while (bits != 0) {
+                            this.votes[(w << 6) + Long.numberOfTrailingZeros(bits)] += 1;
+                            bits &= bits - 1;
+                        }
+                    }
+                } else {}
+            }
+        }
+
+        /**
+         * Try to build one fleet layout that agrees with the observations,
+         * first Ships are placed over the hits that are not covered yet, then the rest are placed anywhere they fit,
+         * which does not draw every such layout with the same chance
+         * @return true if every Ship afloat was placed and every hit is covered, false if the sample was given up
+         */
+        private boolean sample() {
+            System.arraycopy(blockedBits, 0, this.occupied, 0, this.occupied.length);
+            BitBoard.clearAll(this.covered);
+            for (int s = 0; s < shipsAfloatCount; s++) {
+                this.placed[s] = false;
+            }
+            int placedCount = 0;
+
+            // cover every hit
+            int hit = this.firstUncoveredHit();
+            while (hit >= 0) {
+                if (placedCount == shipsAfloatCount) {
+                    return false;
+                } else {}
+                boolean done = false;
+                for (int t = 0; t < TRIES_PER_SHIP && !done; t++) {
+                    int s = this.randomUnplacedShip(placedCount);
+                    int sz = shipsAfloat[s];
+                    boolean horiz = this.random.nextBoolean();
+                    int offset = this.random.nextInt(sz);
+                    int rowc = horiz ? hit / 10 : hit / 10 - offset;
+                    int colc = horiz ? hit % 10 - offset : hit % 10;
+                    if (Map.placementFits(this.occupied, sz, horiz, rowc, colc)) {
+                        this.place(s, sz, horiz, rowc, colc);
+                        placedCount += 1;
+                        done = true;
+                    } else {}
+                }
+                if (!done) {
+                    return false;
+                } else {}
+                hit = this.firstUncoveredHit();
+            }
+
+            // place the rest of the Ships anywhere they fit
+            for (int s = 0; s < shipsAfloatCount; s++) {
+                if (!this.placed[s]) {
+                    int sz = shipsAfloat[s];
+                    boolean done = false;
+                    for (int t = 0; t < TRIES_PER_SHIP && !done; t++) {
+                        boolean horiz = this.random.nextBoolean();
+                        int rowc = this.random.nextInt(horiz ? 10 : 11 - sz);
+                        int colc = this.random.nextInt(horiz ? 11 - sz : 10);
+                        if (Map.placementFits(this.occupied, sz, horiz, rowc, colc)) {
+                            this.place(s, sz, horiz, rowc, colc);
+                            done = true;
+                        } else {}
+                    }
+                    if (!done) {
+                        return false;
+                    } else {}
+                } else {}
+            }
+            return true;
+        }
+
+        /**
+         * Helper method for sample(),
+         * @return the space number of the first hit that no placed Ship covers, or -1 if every hit is covered
+         */
+        private int firstUncoveredHit() {
+            for (int w = 0; w < hitBits.length; w++) {
+                long uncovered = hitBits[w] & ~this.covered[w];
+                if (uncovered != 0) {
+                    return (w << 6) + Long.numberOfTrailingZeros(uncovered);
+                } else {}
+            }
+            return -1;
+        }
+
+        /**
+         * Helper method for sample(),
+         * pick one of the Ships afloat that has not been placed in this sample
+         * @param placedCount the number of Ships placed so far
+         * @precond placedCount < shipsAfloatCount
+         * @return the index of the Ship in shipsAfloat
+         */
+        private int randomUnplacedShip(int placedCount) {
+            int pick = this.random.nextInt(shipsAfloatCount - placedCount);
+            for (int s = 0; s < shipsAfloatCount; s++) {
+                if (!this.placed[s]) {
+                    if (pick == 0) {
+                        return s;
+                    } else {}
+                    pick -= 1;
+                } else {}
+            }
+            return -1;
+        }
+
+        /**
+         * Helper method for sample(),
+         * put a Ship on the scratch boards
+         * @param s the index of the Ship in shipsAfloat
+         * @param sz the size of the Ship
+         * @param horiz the orientation of the Ship
+         * @param rowc the row coordinate of the top or left side of the Ship
+         * @param colc the column coordinate of the top or left side of the Ship
+         * @precond Map.placementFits(this.occupied, sz, horiz, rowc, colc)
+         */
+        private void place(int s, int sz, boolean horiz, int rowc, int colc) {
+            int cell = Map.cellIndex(rowc, colc);
+            int step = horiz ? 1 : 10;
+            for (int i = 0; i < sz; i++) {
+                BitBoard.set(this.occupied, cell);
+                BitBoard.set(this.covered, cell);
+                cell += step;
+            }
+            this.placed[s] = true;
+        }
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing MonteCarloStrategy.java");
+        int uErrors = 0; // number of unintentional errors
+
+        Map m = new Map();
+        m.addShip(5, false, 5, 5);
+        m.addShip(4, true, 9, 6);
+        m.addShip(4, false, 3, 0);
+        m.addShip(3, true, 1, 5);
+        m.addShip(3, true, 2, 5);
+        m.addShip(3, true, 3, 5);
+        m.addShip(2, true, 6, 8);
+        m.addShip(2, true, 2, 1);
+        m.addShip(2, false, 8, 0);
+        m.addShip(2, false, 8, 1);
+        MonteCarloStrategy mcs = new MonteCarloStrategy(m, new Random(1), 2000);
+
+        // on an empty board every sample should be accepted, and the first shot should not be a corner
+        int first = mcs.chooseShot();
+        if (mcs.getLastAcceptedSamples() < 1900) {
+            System.out.println("Error: only " + mcs.getLastAcceptedSamples() + " of 2000 samples were accepted on an empty board");
+            uErrors += 1;
+        } else {}
+        if (first == 0 || first == 9 || first == 90 || first == 99) {
+            System.out.println("Error: chooseShot() picked a corner on an empty board");
+            uErrors += 1;
+        } else {}
+
+        // after a hit with misses on both sides the next shot should be above or below it
+        int[] misses = {Map.cellIndex(5, 4), Map.cellIndex(5, 6)};
+        for (int miss : misses) {
+            mcs.recordShot(miss, m.shoot(miss / 10, miss % 10));
+        }
+        mcs.recordShot(Map.cellIndex(5, 5), m.shoot(5, 5));
+        int next = mcs.chooseShot();
+        if (next != Map.cellIndex(4, 5) && next != Map.cellIndex(6, 5)) {
+            System.out.println("Error: chooseShot() did not pick a space above or below the hit, picked " + next);
+            uErrors += 1;
+        } else {}
+
+        // a sunk Ship is blocked and removed from the samples
+        for (int r = 6; r <= 9; r++) {
+            mcs.recordShot(Map.cellIndex(r, 5), m.shoot(r, 5));
+        }
+        next = mcs.chooseShot();
+        if (m.alreadyShotHere(next / 10, next % 10) || mcs.getLastAcceptedSamples() == 0) {
+            System.out.println("Error: chooseShot() did not work after a Ship sunk");
+            uErrors += 1;
+        } else {}
+
+        // play full games and compare against the checkerboard ComputerPlayer
+        int games = 40;
+        long monteCarloShots = 0;
+        long checkerShots = 0;
+        long moveNanos = 0;
+        for (int g = 0; g < games; g++) {
+            Map mcMap = new Map();
+            mcMap.addShipsRandomly(new Random(g));
+            ComputerPlayer mcCP = new ComputerPlayer(mcMap, new Random(g));
+            mcCP.setTargetingStrategy(new MonteCarloStrategy(mcMap, new Random(g), 1000));
+            boolean madeNextShot = true;
+            long start = System.nanoTime();
+            while (!mcCP.computerPlayerWon() && madeNextShot) {
+                madeNextShot = mcCP.makeNextShot();
+                monteCarloShots += 1;
+            }
+            moveNanos += System.nanoTime() - start;
+            if (!mcCP.computerPlayerWon()) {
+                System.out.println("Error: a ComputerPlayer using a MonteCarloStrategy did not win");
+                uErrors += 1;
+            } else {}
+
+            Map checkerMap = new Map();
+            checkerMap.addShipsRandomly(new Random(g));
+            ComputerPlayer checkerCP = new ComputerPlayer(checkerMap, new Random(g));
+            while (!checkerCP.computerPlayerWon() && checkerCP.makeNextShot()) {
+                checkerShots += 1;
+            }
+        }
+        System.out.println("Average shots to win, Monte Carlo: " + (double) monteCarloShots / games
+                + ", checkerboard: " + (double) checkerShots / games);
+        System.out.println("Average time per move with 1000 samples: " + moveNanos / monteCarloShots / 1000 + " microseconds");
+        if (monteCarloShots >= checkerShots) {
+            System.out.println("Error: the MonteCarloStrategy did not need fewer shots than the checkerboard");
+            uErrors += 1;
+        } else {}
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -0,0 +1,452 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * An OceanBoard is a sparse Board for open-ocean games, with up to 2^30 rows and columns.
+ * A board that big cannot be kept whole, so it is split into tiles of 8x8 spaces, and a tile only exists
+ * once a Ship is placed on it or a shot lands on it. A tile is three longs, one bit per space for the Ships,
+ * the shots, and the hits, kept in an open-addressing table keyed by the tile coordinates. A tile with a Ship
+ * also keeps the number of the Ship on each of its spaces, so finding the Ship that was hit does not depend
+ * on the size of the fleet. The memory grows with the Ships and the shots, and finding the tile of a space
+ * takes constant time.
+ *
+ * Coordinates are only given as numbers, the results of shots are the result codes of Map,
+ * and nothing is reported to a GameEventListener.
+ */
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+public class OceanBoard implements Board {
+    public static final int MAX_DIMENSION = 1 << 30;
+
+    private static final int TILE_SHIFT = 3; // tiles are 8x8 spaces, so each BitBoard of a tile is one long
+    private static final int TILE_MASK = (1 << TILE_SHIFT) - 1;
+    private static final long NO_TILE = -1L; // tile keys are never negative
+
+    private final int rows;
+    private final int columns;
+    private final FleetSpec fleet;
+    private final Ship[] ships;
+    private int shipIndex;
+    private int remainingHits;
+    private long shotCount;
+
+    // the tile table, parallel arrays indexed by slot
+    private long[] tileKeys;  // (tile row << 32) | tile column, or NO_TILE for a free slot
+    private long[] shipWords; // a bit for every space of the tile with a Ship
+    private long[] shotWords; // a bit for every space of the tile that was shot at
+    private long[] hitWords;  // a bit for every space of the tile that was hit
+    private int[][] shipIds;  // the index in this.ships + 1 of the Ship on every space of the tile, null for a tile with no Ships
+    private int tileCount;
+
+    /**
+     * Constructor method for an OceanBoard with the standard fleet, the board starts out with no Ships and no tiles
+     * @param rws the number of rows
+     * @param cols the number of columns
+     * @throws RuntimeException if either dimension is not between BoardGeometry.MIN_DIMENSION and MAX_DIMENSION
+     */
+    public OceanBoard(int rws, int cols) {
+        this(rws, cols, FleetSpec.STANDARD);
+    }
+
+    /**
+     * Constructor method for an OceanBoard, the board starts out with no Ships and no tiles
+     * @param rws the number of rows
+     * @param cols the number of columns
+     * @param f the Ships that will be placed on the board
+     * @throws RuntimeException if either dimension is not between BoardGeometry.MIN_DIMENSION and MAX_DIMENSION,
+     *         or the fleet cannot fit on the board
+     */
+    public OceanBoard(int rws, int cols, FleetSpec f) {
+        if (rws < BoardGeometry.MIN_DIMENSION || rws > MAX_DIMENSION || cols < BoardGeometry.MIN_DIMENSION || cols > MAX_DIMENSION) {
+            throw new RuntimeException("Invalid board size: " + rws + "x" + cols);
+        }
+        else if (!f.fitsOn(rws, cols)) {
+            throw new RuntimeException("The fleet " + f + " does not fit on a " + rws + "x" + cols + " board");
+        } else {}
+        this.rows = rws;
+        this.columns = cols;
+        this.fleet = f;
+        this.ships = new Ship[f.getShipCount()];
+        this.shipIndex = 0;
+        this.remainingHits = 0;
+        this.shotCount = 0;
+        this.allocateTiles(16);
+    }
+
+    @Override
+    public int getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return this.columns;
+    }
+
+    @Override
+    public FleetSpec getFleet() {
+        return this.fleet;
+    }
+
+    @Override
+    public int[] getShipSizes() {
+        return this.fleet.getSizes();
+    }
+
+    /**
+     * @return the number of tiles that exist, each one holds 8x8 spaces
+     */
+    public int getTileCount() {
+        return this.tileCount;
+    }
+
+    /**
+     * @return the number of slots in the tile table, which is at most four times the number of tiles
+     */
+    public int getTileCapacity() {
+        return this.tileKeys.length;
+    }
+
+    /**
+     * @return the number of shots that landed on the board
+     */
+    public long getShotCount() {
+        return this.shotCount;
+    }
+
+    /**
+     * Helper method for the constructor and findTile(), make an empty tile table
+     * @param capacity the number of slots, a power of 2
+     */
+    private void allocateTiles(int capacity) {
+        this.tileKeys = new long[capacity];
+        Arrays.fill(this.tileKeys, NO_TILE);
+        this.shipWords = new long[capacity];
+        this.shotWords = new long[capacity];
+        this.hitWords = new long[capacity];
+        this.shipIds = new int[capacity][];
+        this.tileCount = 0;
+    }
+
+    /**
+     * Helper method for finding the tile of a space
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return the key of the tile holding the space
+     */
+    private static long tileKey(int rowc, int colc) {
+        return ((long) (rowc >>> TILE_SHIFT) << 32) | (colc >>> TILE_SHIFT);
+    }
+
+    /**
+     * Helper method for finding the bit of a space in the words of its tile
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return a long with only the bit of the space set
+     */
+    private static long tileBit(int rowc, int colc) {
+        return 1L << tileIndex(rowc, colc);
+    }
+
+    /**
+     * Helper method for finding the position of a space in its tile
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return the position of the space, from 0 to 63, row by row
+     */
+    private static int tileIndex(int rowc, int colc) {
+        return ((rowc & TILE_MASK) << TILE_SHIFT) | (colc & TILE_MASK);
+    }
+
+    /**
+     * Helper method for finding the slot of a tile in the table, making the tile if asked to
+     * @param key the key of the tile
+     * @param create true to make the tile if it does not exist
+     * @return the slot of the tile, or -1 if it does not exist and create is false
+     */
+    private int findTile(long key, boolean create) {
+        int mask = this.tileKeys.length - 1;
+        // the SplitMix64 finalizer spreads neighbouring tiles over the table
+        long h = key * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        int slot = (int) (h ^ (h >>> 31)) & mask;
+        while (this.tileKeys[slot] != NO_TILE) {
+            if (this.tileKeys[slot] == key) {
+                return slot;
+            } else {}
+            slot = (slot + 1) & mask;
+        }
+        if (!create) {
+            return -1;
+        }
+        // keep the table at most half full so that a probe stays short
+        else if (2 * (this.tileCount + 1) > this.tileKeys.length) {
+            long[] oldKeys = this.tileKeys;
+            long[] oldShips = this.shipWords;
+            long[] oldShots = this.shotWords;
+            long[] oldHits = this.hitWords;
+            int[][] oldShipIds = this.shipIds;
+            this.allocateTiles(oldKeys.length * 2);
+            for (int old = 0; old < oldKeys.length; old++) {
+                if (oldKeys[old] != NO_TILE) {
+                    int moved = this.findTile(oldKeys[old], true);
+                    this.shipWords[moved] = oldShips[old];
+                    this.shotWords[moved] = oldShots[old];
+                    this.hitWords[moved] = oldHits[old];
+                    this.shipIds[moved] = oldShipIds[old];
+                } else {}
+            }
+            return this.findTile(key, true);
+        }
+        else {
+            this.tileKeys[slot] = key;
+            this.tileCount += 1;
+            return slot;
+        }
+    }
+
+    /**
+     * Helper method for reading one bit of a space
+     * @param words shipWords, shotWords, or hitWords
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return true if the bit of the space is set, false if it is clear or its tile does not exist
+     */
+    private boolean getBit(long[] words, int rowc, int colc) {
+        int slot = this.findTile(tileKey(rowc, colc), false);
+        return slot >= 0 && (words[slot] & tileBit(rowc, colc)) != 0;
+    }
+
+    /**
+     * Determine if a space is on the board
+     * @param rowc the row coordinate
+     * @param colc the column coordinate
+     * @return true if 0 <= rowc < rows and 0 <= colc < columns, false otherwise
+     */
+    public boolean isOnBoard(int rowc, int colc) {
+        return rowc >= 0 && rowc < this.rows && colc >= 0 && colc < this.columns;
+    }
+
+    @Override
+    public boolean willShipFit(int sz, boolean horiz, int rowc, int colc) {
+        if (sz < this.fleet.getSmallestSize() || sz > this.fleet.getLargestSize() || !this.isOnBoard(rowc, colc)) {
+            return false;
+        }
+        // check if the Ship would be fully on the board
+        else if ((horiz && colc > this.columns - sz) || (!horiz && rowc > this.rows - sz)) {
+            return false;
+        }
+        else {
+            for (int i = 0; i < sz; i++) {
+                if (this.getBit(this.shipWords, horiz ? rowc : rowc + i, horiz ? colc + i : colc)) {
+                    return false;
+                } else {}
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public boolean addShip(int sz, boolean horiz, int rowc, int colc) {
+        if (this.willShipFit(sz, horiz, rowc, colc) && this.shipIndex < this.ships.length) {
+            for (int i = 0; i < sz; i++) {
+                int r = horiz ? rowc : rowc + i;
+                int c = horiz ? colc + i : colc;
+                // the slot is found first, the table may grow and replace this.shipWords
+                int slot = this.findTile(tileKey(r, c), true);
+                this.shipWords[slot] |= tileBit(r, c);
+                if (this.shipIds[slot] == null) {
+                    this.shipIds[slot] = new int[1 << (2 * TILE_SHIFT)];
+                } else {}
+                this.shipIds[slot][tileIndex(r, c)] = this.shipIndex + 1;
+            }
+            this.ships[this.shipIndex] = new Ship(sz, horiz, rowc, colc);
+            this.shipIndex += 1;
+            this.remainingHits += sz;
+            return true;
+        }
+        else {
+            return false;
+        }
+    }
+
+    @Override
+    public int addShipsRandomly(RandomGenerator rand) {
+        if (this.shipIndex != 0) {
+            return -1;
+        } else {}
+        Ship[] layout = new Ship[this.fleet.getShipCount()];
+        if (!PlacementGenerator.uniformLayout(rand, this.fleet.getSizes(), this.rows, this.columns, layout)) {
+            return this.addShipsOneByOne(rand) ? 0 : 1;
+        } else {}
+        for (Ship sh : layout) {
+            this.addShip(sh.getSize(), sh.isHorizontal(), sh.getRowCoordinate(), sh.getColumnCoordinate());
+        }
+        return 0;
+    }
+
+    @Override
+    public int shoot(int rowc, int colc) {
+        if (!this.isOnBoard(rowc, colc)) {
+            return Map.SHOT_INVALID;
+        } else {}
+        long bit = tileBit(rowc, colc);
+        int slot = this.findTile(tileKey(rowc, colc), true);
+        if ((this.shotWords[slot] & bit) != 0) {
+            return Map.SHOT_ALREADY_SHOT;
+        } else {}
+        this.shotWords[slot] |= bit;
+        this.shotCount += 1;
+        if ((this.shipWords[slot] & bit) == 0) {
+            return Map.SHOT_MISS;
+        } else {}
+        this.hitWords[slot] |= bit;
+        this.remainingHits -= 1;
+        Ship sh = this.ships[this.shipIds[slot][tileIndex(rowc, colc)] - 1];
+        sh.addHit(rowc, colc);
+        if (sh.hasShipSunk()) {
+            return Map.SHOT_SUNK | (sh.getSize() << 8);
+        }
+        else {
+            return Map.SHOT_HIT;
+        }
+    }
+
+    @Override
+    public boolean alreadyShotHere(int rowc, int colc) {
+        if (this.isOnBoard(rowc, colc)) {
+            return this.getBit(this.shotWords, rowc, colc);
+        }
+        else {
+            throw new RuntimeException("Error in alreadyShotHere(): the coordinates are not valid");
+        }
+    }
+
+    @Override
+    public boolean isHit(int rowc, int colc) {
+        return this.getBit(this.hitWords, rowc, colc);
+    }
+
+    @Override
+    public Ship getShipAt(int rowc, int colc) {
+        int slot = this.findTile(tileKey(rowc, colc), false);
+        if (slot < 0 || this.shipIds[slot] == null || this.shipIds[slot][tileIndex(rowc, colc)] == 0) {
+            return null;
+        }
+        else {
+            return this.ships[this.shipIds[slot][tileIndex(rowc, colc)] - 1];
+        }
+    }
+
+    @Override
+    public int getRemainingHits() {
+        return this.remainingHits;
+    }
+
+    @Override
+    public boolean allShipsSunk() {
+        return this.remainingHits == 0;
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing OceanBoard.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // test OceanBoard() constructor
+        try {
+            new OceanBoard(9, 1000000);
+            System.out.println("Error: OceanBoard() constructor did not throw an exception for a board that is too small");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+
+        // no tile exists until a Ship is placed or a shot lands
+        OceanBoard ocean = new OceanBoard(MAX_DIMENSION, MAX_DIMENSION);
+        if (ocean.getTileCount() != 0 || !ocean.willShipFit(5, true, MAX_DIMENSION - 1, MAX_DIMENSION - 5)
+                || ocean.willShipFit(5, false, MAX_DIMENSION - 4, 0) || ocean.alreadyShotHere(12345, 67890) || ocean.getTileCount() != 0) {
+            System.out.println("Error: willShipFit() or alreadyShotHere() did not work on an empty OceanBoard");
+            uErrors += 1;
+        } else {}
+
+        // Ships across the edges of three tiles, and shots at them
+        if (!ocean.addShip(3, true, 1000007, 2000006) || !ocean.addShip(2, false, 1000007, 2000009)
+                || ocean.addShip(2, true, 1000008, 2000008) || ocean.getTileCount() != 3) {
+            System.out.println("Error: addShip() did not place Ships across tiles, or placed overlapping Ships");
+            uErrors += 1;
+        } else {}
+        int[] results = {ocean.shoot(1000007, 2000006), ocean.shoot(1000007, 2000007), ocean.shoot(1000007, 2000007),
+                         ocean.shoot(1000007, 2000008), ocean.shoot(0, 0), ocean.shoot(-1, 0)};
+        int[] expected = {Map.SHOT_HIT, Map.SHOT_HIT, Map.SHOT_ALREADY_SHOT, Map.SHOT_SUNK | (3 << 8), Map.SHOT_MISS, Map.SHOT_INVALID};
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != expected[i]) {
+                System.out.println("Error: shot " + i + " returned " + results[i] + " instead of " + expected[i]);
+                uErrors += 1;
+            } else {}
+        }
+        if (ocean.getTileCount() != 4 || ocean.getRemainingHits() != 2 || !ocean.isHit(1000007, 2000008)
+                || ocean.isHit(0, 0) || !ocean.alreadyShotHere(0, 0) || ocean.getShipAt(1000008, 2000009).getSize() != 2) {
+            System.out.println("Error: the OceanBoard did not keep track of the shots");
+            uErrors += 1;
+        } else {}
+
+        // a fleet of 1000 Ships side by side, each hit finds its Ship through the tile it is on
+        OceanBoard crowded = new OceanBoard(2000, 2000, FleetSpec.parse("3x500,1x500"));
+        for (int i = 0; i < 500; i++) {
+            crowded.addShip(3, true, i, 5);
+            crowded.addShip(1, true, i, 9 + i % 7);
+        }
+        int sinks = 0;
+        boolean foundShips = true;
+        for (int i = 0; i < 500; i++) {
+            for (int c = 5; c < 16; c++) {
+                Ship before = crowded.getShipAt(i, c);
+                foundShips = foundShips && (before == null || before.coversSpace(i, c));
+                if (Map.shotResultType(crowded.shoot(i, c)) == Map.SHOT_SUNK) {
+                    sinks += 1;
+                } else {}
+            }
+        }
+        if (!foundShips || sinks != 1000 || !crowded.allShipsSunk() || crowded.getShipAt(1999, 1999) != null) {
+            System.out.println("Error: the OceanBoard did not find the Ships of a fleet of 1000, " + sinks + " sunk");
+            uErrors += 1;
+        } else {}
+
+        // a whole game of random shots on a million by million board, the memory follows the shots
+        OceanBoard game = new OceanBoard(1000000, 1000000);
+        SplittableRandom rand = new SplittableRandom(22);
+        if (game.addShipsRandomly(rand) != 0 || game.getRemainingHits() != 30 || game.addShipsRandomly(rand) != -1) {
+            System.out.println("Error: addShipsRandomly() did not place the fleet on a 1000000x1000000 board");
+            uErrors += 1;
+        } else {}
+        long start = System.nanoTime();
+        int shots = 200000;
+        for (int i = 0; i < shots; i++) {
+            game.shoot(rand.nextInt(1000000), rand.nextInt(1000000));
+        }
+        long elapsed = System.nanoTime() - start;
+        if (game.getTileCount() > shots + 30 || game.getTileCapacity() > 4 * game.getTileCount()) {
+            System.out.println("Error: the OceanBoard made " + game.getTileCount() + " tiles in a table of "
+                    + game.getTileCapacity() + " for " + shots + " shots");
+            uErrors += 1;
+        } else {}
+        // every Ship can still be found and sunk
+        for (int s = 0; s < game.shipIndex; s++) {
+            Ship sh = game.ships[s];
+            for (int i = 0; i < sh.getSize(); i++) {
+                game.shoot(sh.isHorizontal() ? sh.getRowCoordinate() : sh.getRowCoordinate() + i,
+                           sh.isHorizontal() ? sh.getColumnCoordinate() + i : sh.getColumnCoordinate());
+            }
+        }
+        if (!game.allShipsSunk()) {
+            System.out.println("Error: allShipsSunk() returned false after every space of every Ship was shot");
+            uErrors += 1;
+        } else {}
+        System.out.println(game.getShotCount() + " shots made " + game.getTileCount() + " tiles, about "
+                + game.getTileCapacity() * 32L / 1024 + " KB, at " + elapsed / shots + " ns per shot");
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
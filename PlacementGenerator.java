@@ -0,0 +1,450 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A PlacementGenerator builds random fleet layouts from precomputed placement masks.
+ * Every way a Ship of each size can lie on a 10x10 Map is worked out once, as a two-word BitBoard mask,
+ * so checking whether a placement overlaps the Ships placed so far is two AND operations,
+ * and a whole layout is built in two local words without creating any objects.
+ *
+ * The placements of a size are numbered from 0: first the horizontal ones by their top or left space,
+ * then the vertical ones the same way (see placementCell() and isHorizontal()).
+ *
+ * uniformLayout() gives every legal layout of a fleet the same chance, randomLayout() is faster on crowded
+ * Maps but favours layouts where the first Ships were easy to place.
+ */
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+public class PlacementGenerator {
+    public static final int MIN_SIZE = 2;
+    public static final int MAX_SIZE = 5;
+
+    private static final int RANDOM_TRIES = 16; // random placements to try before scanning for one that fits
+    private static final int MAX_RESTARTS = 100;
+    public static final int MAX_PLACEMENT_ATTEMPTS = 100000; // the tries Board.addShipsOneByOne() gives a Ship
+    private static final int MAX_ANY_SIZE_ATTEMPTS = 100000; // an attempt builds Ships, so fewer are made than with masks
+    private static final int MAX_UNIFORM_ATTEMPTS = 10000000; // about 2.7% of attempts succeed for the standard fleet
+
+    // entry sz holds two words per placement of a Ship of size sz, see BitBoard
+    private static final long[][] MASKS = buildMasks();
+
+    /**
+     * A PlacementGenerator only contains static methods, so it should not be constructed
+     */
+    private PlacementGenerator() {
+    }
+
+    /**
+     * Helper method for building MASKS,
+     * work out the mask of every placement of every size
+     * @return the masks, indexed by size
+     */
+    private static long[][] buildMasks() {
+        long[][] masks = new long[MAX_SIZE + 1][];
+        for (int sz = MIN_SIZE; sz <= MAX_SIZE; sz++) {
+            int count = placementCount(sz);
+            masks[sz] = new long[2 * count];
+            for (int p = 0; p < count; p++) {
+                long[] board = BitBoard.create(100);
+                int cell = placementCell(sz, p);
+                int step = isHorizontal(sz, p) ? 1 : 10;
+                for (int i = 0; i < sz; i++) {
+                    BitBoard.set(board, cell);
+                    cell += step;
+                }
+                masks[sz][2 * p] = board[0];
+                masks[sz][2 * p + 1] = board[1];
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * @param sz the size of a Ship
+     * @precond MIN_SIZE <= sz <= MAX_SIZE
+     * @return the number of ways a Ship of that size can lie on an empty Map
+     */
+    public static int placementCount(int sz) {
+        return 2 * 10 * (11 - sz);
+    }
+
+    /**
+     * @param sz the size of a Ship
+     * @param p the number of a placement of that size
+     * @return true if the placement is horizontal, false if it is vertical
+     */
+    public static boolean isHorizontal(int sz, int p) {
+        return p < 10 * (11 - sz);
+    }
+
+    /**
+     * @param sz the size of a Ship
+     * @param p the number of a placement of that size
+     * @return the space number of the top or left side of the placement
+     */
+    public static int placementCell(int sz, int p) {
+        int perOrientation = 10 * (11 - sz);
+        if (p < perOrientation) {
+            // horizontal, 11 - sz origins in each of the 10 rows
+            return Map.cellIndex(p / (11 - sz), p % (11 - sz));
+        }
+        else {
+            // vertical, the origins are the first 11 - sz rows
+            return p - perOrientation;
+        }
+    }
+
+    /**
+     * Determine if a placement overlaps a BitBoard of occupied spaces
+     * @param sz the size of a Ship
+     * @param p the number of a placement of that size
+     * @param occupied a BitBoard of a 10x10 Map
+     * @return true if the placement covers none of the occupied spaces, false otherwise
+     */
+    public static boolean fits(int sz, int p, long[] occupied) {
+        long[] m = MASKS[sz];
+        return ((m[2 * p] & occupied[0]) | (m[2 * p + 1] & occupied[1])) == 0;
+    }
+
+    /**
+     * Add a placement to a BitBoard
+     * @param sz the size of a Ship
+     * @param p the number of a placement of that size
+     * @param board a BitBoard of a 10x10 Map
+     * @postcond the spaces of the placement are set on board
+     */
+    public static void set(int sz, int p, long[] board) {
+        board[0] |= MASKS[sz][2 * p];
+        board[1] |= MASKS[sz][2 * p + 1];
+    }
+
+    /**
+     * Build a random layout where no two Ships overlap,
+     * each Ship is put on a random placement that fits, trying random placements first
+     * and then scanning from a random placement if those all overlap
+     * @param rand the random number generator
+     * @param sizes the sizes of the Ships, largest first is fastest
+     * @param placements receives the placement number of each Ship, parallel to sizes
+     * @precond every size is between MIN_SIZE and MAX_SIZE and placements.length >= sizes.length
+     * @return true if a layout was found, false if the Ships could not be fit after many restarts
+     */
+    public static boolean randomLayout(RandomGenerator rand, int[] sizes, int[] placements) {
+        for (int attempt = 0; attempt < MAX_RESTARTS; attempt++) {
+            long occupied0 = 0;
+            long occupied1 = 0;
+            boolean complete = true;
+            for (int s = 0; s < sizes.length && complete; s++) {
+                long[] m = MASKS[sizes[s]];
+                int count = m.length >>> 1;
+                int chosen = -1;
+                for (int t = 0; t < RANDOM_TRIES && chosen < 0; t++) {
+                    int p = rand.nextInt(count);
+                    if (((m[2 * p] & occupied0) | (m[2 * p + 1] & occupied1)) == 0) {
+                        chosen = p;
+                    } else {}
+                }
+                // a crowded Map, look through every placement starting from a random one
+                if (chosen < 0) {
+                    int start = rand.nextInt(count);
+                    for (int i = 0; i < count && chosen < 0; i++) {
+                        int p = (start + i) % count;
+                        if (((m[2 * p] & occupied0) | (m[2 * p + 1] & occupied1)) == 0) {
+                            chosen = p;
+                        } else {}
+                    }
+                } else {}
+                if (chosen >= 0) {
+                    occupied0 |= m[2 * chosen];
+                    occupied1 |= m[2 * chosen + 1];
+                    placements[s] = chosen;
+                }
+                else {
+                    complete = false;
+                }
+            }
+            if (complete) {
+                return true;
+            } else {}
+        }
+        return false;
+    }
+
+    /**
+     * Build a layout chosen uniformly at random from every legal layout of the fleet, by rejection sampling:
+     * every Ship is put on one of all of its placements with equal chance, and the whole layout is thrown away
+     * as soon as two Ships overlap. Every sequence of placements is equally likely, and each legal layout
+     * comes from the same number of sequences (Ships of the same size can swap), so the layouts that are kept
+     * are uniform. The largest Ships go first when sizes is sorted largest first, so overlaps are found early.
+     * @param rand the random number generator
+     * @param sizes the sizes of the Ships
+     * @param placements receives the placement number of each Ship, parallel to sizes
+     * @precond every size is between MIN_SIZE and MAX_SIZE and placements.length >= sizes.length
+     * @return true if a layout was found, false if none was found after MAX_UNIFORM_ATTEMPTS attempts
+     */
+    public static boolean uniformLayout(RandomGenerator rand, int[] sizes, int[] placements) {
+        for (int attempt = 0; attempt < MAX_UNIFORM_ATTEMPTS; attempt++) {
+            long occupied0 = 0;
+            long occupied1 = 0;
+            int s = 0;
+            boolean overlap = false;
+            while (s < sizes.length && !overlap) {
+                long[] m = MASKS[sizes[s]];
+                int p = rand.nextInt(m.length >>> 1);
+                long mask0 = m[2 * p];
+                long mask1 = m[2 * p + 1];
+                if (((mask0 & occupied0) | (mask1 & occupied1)) == 0) {
+                    occupied0 |= mask0;
+                    occupied1 |= mask1;
+                    placements[s] = p;
+                    s += 1;
+                }
+                else {
+                    overlap = true;
+                }
+            }
+            if (!overlap) {
+                return true;
+            } else {}
+        }
+        return false;
+    }
+
+    /**
+     * Build a layout of the fleet chosen uniformly at random on an empty board of any size, with the same
+     * rejection sampling as uniformLayout(), but with the placements checked against each other instead of masks,
+     * so it works on boards with too many spaces for masks, the bigger the board, the rarer an overlap
+     * @param rand the random number generator
+     * @param sizes the sizes of the Ships
+     * @param rows the number of rows of the board
+     * @param columns the number of columns of the board
+     * @param layout receives a new Ship for each size, parallel to sizes
+     * @precond every size is between FleetSpec.MIN_SHIP_SIZE and the longer of rows and columns,
+     *          and layout.length >= sizes.length
+     * @return true if a layout was found, false if none was found after MAX_ANY_SIZE_ATTEMPTS attempts
+     */
+    public static boolean uniformLayout(RandomGenerator rand, int[] sizes, int rows, int columns, Ship[] layout) {
+        for (int attempt = 0; attempt < MAX_ANY_SIZE_ATTEMPTS; attempt++) {
+            boolean overlap = false;
+            for (int s = 0; s < sizes.length && !overlap; s++) {
+                layout[s] = randomPlacement(rand, sizes[s], rows, columns);
+                for (int t = 0; t < s && !overlap; t++) {
+                    overlap = layout[s].overlaps(layout[t]);
+                }
+            }
+            if (!overlap) {
+                return true;
+            } else {}
+        }
+        return false;
+    }
+
+    /**
+     * Pick one of all the placements of a Ship on an empty board with equal chance
+     * @param rand the random number generator
+     * @param sz the size of the Ship
+     * @param rows the number of rows of the board
+     * @param columns the number of columns of the board
+     * @precond FleetSpec.MIN_SHIP_SIZE <= sz <= the longer of rows and columns
+     * @return a new Ship on the placement
+     */
+    public static Ship randomPlacement(RandomGenerator rand, int sz, int rows, int columns) {
+        // the horizontal placements come first, then the vertical ones, a Ship longer than a side only has the others
+        long across = columns >= sz ? (long) rows * (columns - sz + 1) : 0;
+        long down = rows >= sz ? (long) (rows - sz + 1) * columns : 0;
+        long p = rand.nextLong(across + down);
+        if (p < across) {
+            return new Ship(sz, true, (int) (p / (columns - sz + 1)), (int) (p % (columns - sz + 1)));
+        }
+        else {
+            return new Ship(sz, false, (int) ((p - across) / columns), (int) ((p - across) % columns));
+        }
+    }
+
+    /**
+     * Count exactly how often each space is covered over every legal layout of a small fleet,
+     * by going through every sequence of placements, this is only practical for about three Ships
+     * @param sizes the sizes of the Ships
+     * @param cellCounts entry i is increased by the number of legal sequences of placements that cover space i
+     * @return the number of legal sequences of placements
+     */
+    public static long countLayouts(int[] sizes, long[] cellCounts) {
+        return countLayouts(sizes, 0, 0, 0, cellCounts);
+    }
+
+    /**
+     * Helper method for countLayouts(int[], long[]),
+     * count the legal ways to place the Ships from index s on, given the spaces already occupied
+     * @param sizes the sizes of the Ships
+     * @param s the index of the next Ship to place
+     * @param occupied0 the first word of the occupied spaces
+     * @param occupied1 the second word of the occupied spaces
+     * @param cellCounts entry i is increased by the number of completed sequences that cover space i
+     * @return the number of completed sequences
+     */
+    private static long countLayouts(int[] sizes, int s, long occupied0, long occupied1, long[] cellCounts) {
+        if (s == sizes.length) {
+            // a complete layout, count the spaces it covers
+            for (int cell = 0; cell < 100; cell++) {
+                long word = cell < 64 ? occupied0 : occupied1;
+                if ((word & (1L << cell)) != 0) {
+                    cellCounts[cell] += 1;
+                } else {}
+            }
+            return 1;
+        }
+        else {
+            long total = 0;
+            long[] m = MASKS[sizes[s]];
+            for (int p = 0; p < m.length >>> 1; p++) {
+                if (((m[2 * p] & occupied0) | (m[2 * p + 1] & occupied1)) == 0) {
+                    total += countLayouts(sizes, s + 1, occupied0 | m[2 * p], occupied1 | m[2 * p + 1], cellCounts);
+                } else {}
+            }
+            return total;
+        }
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing PlacementGenerator.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // test the placement tables against Map.placementFits() on an empty Map
+        long[] empty = BitBoard.create(100);
+        for (int sz = MIN_SIZE; sz <= MAX_SIZE; sz++) {
+            int fitting = 0;
+            for (int cell = 0; cell < 100; cell++) {
+                if (Map.placementFits(empty, sz, true, cell / 10, cell % 10)) {
+                    fitting += 1;
+                } else {}
+                if (Map.placementFits(empty, sz, false, cell / 10, cell % 10)) {
+                    fitting += 1;
+                } else {}
+            }
+            if (fitting != placementCount(sz)) {
+                System.out.println("Error: placementCount(" + sz + ") returned " + placementCount(sz) + " instead of " + fitting);
+                uErrors += 1;
+            } else {}
+            for (int p = 0; p < placementCount(sz); p++) {
+                int cell = placementCell(sz, p);
+                long[] board = BitBoard.create(100);
+                set(sz, p, board);
+                if (!Map.placementFits(empty, sz, isHorizontal(sz, p), cell / 10, cell % 10) || BitBoard.count(board) != sz
+                        || !BitBoard.get(board, cell)) {
+                    System.out.println("Error: placement " + p + " of size " + sz + " is not a valid placement");
+                    uErrors += 1;
+                } else {}
+            }
+        }
+
+        // test fits()
+        long[] occupied = BitBoard.create(100);
+        BitBoard.set(occupied, 99);
+        if (fits(2, placementCount(2) - 1, occupied) || !fits(2, 0, occupied)) {
+            System.out.println("Error: fits() did not detect overlapping placements correctly");
+            uErrors += 1;
+        } else {}
+
+        // test randomLayout(), the Ships should never overlap
+        int[] fleet = {5, 4, 4, 3, 3, 3, 2, 2, 2, 2};
+        int[] placements = new int[fleet.length];
+        Random rand = new Random(8);
+        for (int g = 0; g < 10000; g++) {
+            if (!randomLayout(rand, fleet, placements)) {
+                System.out.println("Error: randomLayout() could not place the fleet");
+                uErrors += 1;
+            } else {}
+            long[] board = BitBoard.create(100);
+            for (int s = 0; s < fleet.length; s++) {
+                if (!fits(fleet[s], placements[s], board)) {
+                    System.out.println("Error: randomLayout() placed overlapping Ships");
+                    uErrors += 1;
+                } else {}
+                set(fleet[s], placements[s], board);
+            }
+        }
+
+        // a fleet that cannot fit
+        int[] tooMany = new int[30];
+        for (int s = 0; s < tooMany.length; s++) {
+            tooMany[s] = 5;
+        }
+        if (randomLayout(rand, tooMany, new int[30])) {
+            System.out.println("Error: randomLayout() claimed to place 150 spaces of Ships on a 100 space Map");
+            uErrors += 1;
+        } else {}
+
+        // test uniformLayout(), the chance of each space being covered should match the exact chance
+        // over every legal layout of a small fleet, within 5 standard deviations
+        int[] smallFleet = {4, 3, 2};
+        long[] exactCounts = new long[100];
+        long legal = countLayouts(smallFleet, exactCounts);
+        int samples = 200000;
+        long[] sampledCounts = new long[100];
+        int[] smallPlacements = new int[smallFleet.length];
+        for (int i = 0; i < samples; i++) {
+            if (!uniformLayout(rand, smallFleet, smallPlacements)) {
+                System.out.println("Error: uniformLayout() could not place a small fleet");
+                uErrors += 1;
+            } else {}
+            long[] board = BitBoard.create(100);
+            for (int s = 0; s < smallFleet.length; s++) {
+                set(smallFleet[s], smallPlacements[s], board);
+            }
+            for (int cell = 0; cell < 100; cell++) {
+                if (BitBoard.get(board, cell)) {
+                    sampledCounts[cell] += 1;
+                } else {}
+            }
+        }
+        int outliers = 0;
+        for (int cell = 0; cell < 100; cell++) {
+            double chance = (double) exactCounts[cell] / legal;
+            double deviation = Math.sqrt(samples * chance * (1 - chance));
+            if (Math.abs(sampledCounts[cell] - samples * chance) > 5 * deviation) {
+                outliers += 1;
+            } else {}
+        }
+        if (outliers > 0) {
+            System.out.println("Error: uniformLayout() covered " + outliers + " spaces more or less often than a uniform layout would");
+            uErrors += 1;
+        } else {}
+
+        // test uniformLayout() on the whole fleet, the Ships should never overlap
+        for (int g = 0; g < 10000; g++) {
+            if (!uniformLayout(rand, fleet, placements)) {
+                System.out.println("Error: uniformLayout() could not place the fleet");
+                uErrors += 1;
+            } else {}
+            long[] board = BitBoard.create(100);
+            for (int s = 0; s < fleet.length; s++) {
+                if (!fits(fleet[s], placements[s], board)) {
+                    System.out.println("Error: uniformLayout() placed overlapping Ships");
+                    uErrors += 1;
+                } else {}
+                set(fleet[s], placements[s], board);
+            }
+        }
+
+        // measure the throughput
+        long layouts = 0;
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < 500000000L) {
+            for (int i = 0; i < 1000; i++) {
+                randomLayout(rand, fleet, placements);
+            }
+            layouts += 1000;
+        }
+        System.out.println("Layouts per second on one thread: " + layouts * 1000000000L / (System.nanoTime() - start));
+        layouts = 0;
+        start = System.nanoTime();
+        while (System.nanoTime() - start < 500000000L) {
+            for (int i = 0; i < 1000; i++) {
+                uniformLayout(rand, fleet, placements);
+            }
+            layouts += 1000;
+        }
+        System.out.println("Uniform layouts per second on one thread: " + layouts * 1000000000L / (System.nanoTime() - start));
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
@@ -0,0 +1,383 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A ProbabilityDensityStrategy shoots at the space that the most legal Ship placements cover.
+ * For every size of Ship still afloat it keeps track of which placements are still possible,
+ * meaning they do not cover a miss or a sunk Ship, and how many of those placements cover each space.
+ * When a space is ruled out, only the placements in its row and column are updated.
+ *
+ * While no Ship has been hit it picks the space with the highest count (weighted by the number of Ships of
+ * each size afloat), and once a Ship has been hit but not sunk it only counts placements that cover the hits.
+ */
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+public class ProbabilityDensityStrategy implements TargetingStrategy {
+    private Map opponentMap;
+    private RandomGenerator rand; // breaks ties between equally good spaces
+    private int[] sizes; // the different sizes of Ships in the fleet
+    private boolean[][] validPlacements; // [size index][placement], placement = origin space, +100 if vertical
+    private int[][] coverage; // [size index][space] the number of valid placements of that size covering the space
+    private long[] blockedBits; // BitBoard of the misses and the spaces of sunk Ships
+    private long[] hitBits;     // BitBoard of the hits on Ships that have not sunk
+    private int hitsNotSunk;
+    private long[] scores;      // reused by chooseShot()
+
+    /**
+     * Constructor method for a ProbabilityDensityStrategy
+     * @param m the opponent's Map
+     * @param rnd the random number generator used to break ties
+     * @throws RuntimeException if the Map is not 10x10 or has Ships shorter than 2 or longer than 5 spaces
+     */
+    public ProbabilityDensityStrategy(Map m, RandomGenerator rnd) {
+        if (!m.getGeometry().isStandard() || !m.getFleet().hasSizesBetween(PlacementGenerator.MIN_SIZE, PlacementGenerator.MAX_SIZE)) {
+            throw new RuntimeException("Error in ProbabilityDensityStrategy(): only 10x10 Maps with Ships of 2 to 5 spaces are supported");
+        } else {}
+        this.opponentMap = m;
+        this.rand = rnd;
+        this.blockedBits = BitBoard.create(100);
+        this.hitBits = BitBoard.create(100);
+        this.hitsNotSunk = 0;
+        this.scores = new long[100];
+
+        // find the different sizes in the fleet
+        int[] fleet = m.getShipSizes();
+        int distinct = 0;
+        int[] found = new int[fleet.length];
+        for (int sz : fleet) {
+            boolean seen = false;
+            for (int i = 0; i < distinct; i++) {
+                if (found[i] == sz) {
+                    seen = true;
+                } else {}
+            }
+            if (!seen) {
+                found[distinct] = sz;
+                distinct += 1;
+            } else {}
+        }
+        this.sizes = new int[distinct];
+        System.arraycopy(found, 0, this.sizes, 0, distinct);
+
+        // every placement that fits on the Map starts out valid
+        this.validPlacements = new boolean[distinct][200];
+        this.coverage = new int[distinct][100];
+        for (int si = 0; si < distinct; si++) {
+            int sz = this.sizes[si];
+            for (int origin = 0; origin < 100; origin++) {
+                if (origin % 10 + sz <= 10) {
+                    this.setPlacement(si, origin, true);
+                } else {}
+                if (origin / 10 + sz <= 10) {
+                    this.setPlacement(si, origin + 100, true);
+                } else {}
+            }
+        }
+    }
+
+    /**
+     * Helper method for marking a placement as valid or invalid and updating the coverage counts
+     * @param si the size index of the placement
+     * @param placement the origin space of the placement, plus 100 if it is vertical
+     * @param valid true to add the placement, false to remove it
+     * @postcond this.validPlacements[si][placement] == valid and this.coverage reflects the change
+     */
+    private void setPlacement(int si, int placement, boolean valid) {
+        this.validPlacements[si][placement] = valid;
+        int cell = placement % 100;
+        int step = placement >= 100 ? 10 : 1;
+        int change = valid ? 1 : -1;
+        for (int i = 0; i < this.sizes[si]; i++) {
+            this.coverage[si][cell] += change;
+            cell += step;
+        }
+    }
+
+    /**
+     * Rule out a space, every valid placement covering it becomes invalid,
+     * only the placements in the row and the column of the space are visited
+     * @param cell the space number of a miss or of a space of a sunk Ship
+     * @postcond the space is on this.blockedBits and no valid placement covers it
+     */
+    private void block(int cell) {
+        if (!BitBoard.get(this.blockedBits, cell)) {
+            BitBoard.set(this.blockedBits, cell);
+            this.removePlacementsCovering(cell);
+        } else {}
+    }
+
+    /**
+     * Helper method for block(),
+     * mark every valid placement covering a space as invalid
+     * @param cell the space number
+     * @postcond no valid placement covers the space
+     */
+    private void removePlacementsCovering(int cell) {
+        int rowc = cell / 10;
+        int colc = cell % 10;
+        for (int si = 0; si < this.sizes.length; si++) {
+            int sz = this.sizes[si];
+            // horizontal placements in the same row
+            for (int c = Math.max(0, colc - sz + 1); c <= Math.min(colc, 10 - sz); c++) {
+                int placement = Map.cellIndex(rowc, c);
+                if (this.validPlacements[si][placement]) {
+                    this.setPlacement(si, placement, false);
+                } else {}
+            }
+            // vertical placements in the same column
+            for (int r = Math.max(0, rowc - sz + 1); r <= Math.min(rowc, 10 - sz); r++) {
+                int placement = Map.cellIndex(r, colc) + 100;
+                if (this.validPlacements[si][placement]) {
+                    this.setPlacement(si, placement, false);
+                } else {}
+            }
+        }
+    }
+
+    /**
+     * @param cell the space number of a space
+     * @return the number of valid placements covering the space, weighted by the number of Ships afloat of each size
+     */
+    public long getDensity(int cell) {
+        long total = 0;
+        for (int si = 0; si < this.sizes.length; si++) {
+            total += (long) this.opponentMap.shipsAfloat(this.sizes[si]) * this.coverage[si][cell];
+        }
+        return total;
+    }
+
+    /**
+     * Helper method for chooseShot(),
+     * add the placements that cover at least one hit on a Ship that has not sunk to this.scores,
+     * a placement covering k hits is visited once from each of them and weighted by k,
+     * so lines of hits are followed before single hits
+     * @return true if any space got a score, false otherwise
+     */
+    private boolean scoreTargets() {
+        boolean scored = false;
+        for (int hit = 0; hit < 100; hit++) {
+            if (BitBoard.get(this.hitBits, hit)) {
+                int rowc = hit / 10;
+                int colc = hit % 10;
+                for (int si = 0; si < this.sizes.length; si++) {
+                    int sz = this.sizes[si];
+                    long afloat = this.opponentMap.shipsAfloat(sz);
+                    // placements without a Ship afloat of their size do not count
+                    for (int c = Math.max(0, colc - sz + 1); c <= Math.min(colc, 10 - sz) && afloat > 0; c++) {
+                        int placement = Map.cellIndex(rowc, c);
+                        if (this.validPlacements[si][placement]) {
+                            scored |= this.scorePlacement(placement, sz, afloat);
+                        } else {}
+                    }
+                    for (int r = Math.max(0, rowc - sz + 1); r <= Math.min(rowc, 10 - sz) && afloat > 0; r++) {
+                        int placement = Map.cellIndex(r, colc) + 100;
+                        if (this.validPlacements[si][placement]) {
+                            scored |= this.scorePlacement(placement, sz, afloat);
+                        } else {}
+                    }
+                }
+            } else {}
+        }
+        return scored;
+    }
+
+    /**
+     * Helper method for scoreTargets(),
+     * add the weight of one placement to the spaces it covers that have not been shot at
+     * @param placement the origin space of the placement, plus 100 if it is vertical
+     * @param sz the size of the placement
+     * @param afloat the number of Ships of that size afloat
+     * @return true if a space got a score, false otherwise
+     */
+    private boolean scorePlacement(int placement, int sz, long afloat) {
+        int step = placement >= 100 ? 10 : 1;
+        int cell = placement % 100;
+        int hits = 0;
+        for (int i = 0; i < sz; i++) {
+            if (BitBoard.get(this.hitBits, cell + i * step)) {
+                hits += 1;
+            } else {}
+        }
+        boolean scored = false;
+        for (int i = 0; i < sz; i++) {
+            if (!this.opponentMap.alreadyShotHere((cell + i * step) / 10, (cell + i * step) % 10)) {
+                this.scores[cell + i * step] += afloat * hits;
+                scored = true;
+            } else {}
+        }
+        return scored;
+    }
+
+    @Override
+    public int chooseShot() {
+        for (int cell = 0; cell < 100; cell++) {
+            this.scores[cell] = 0;
+        }
+        // target mode when a Ship has been hit but not sunk, hunt mode otherwise
+        if (this.hitsNotSunk == 0 || !this.scoreTargets()) {
+            for (int cell = 0; cell < 100; cell++) {
+                if (!this.opponentMap.alreadyShotHere(cell / 10, cell % 10)) {
+                    this.scores[cell] = this.getDensity(cell);
+                } else {}
+            }
+        } else {}
+
+        // pick the highest score, breaking ties at random
+        int best = -1;
+        int ties = 0;
+        for (int cell = 0; cell < 100; cell++) {
+            if (!this.opponentMap.alreadyShotHere(cell / 10, cell % 10)) {
+                if (best < 0 || this.scores[cell] > this.scores[best]) {
+                    best = cell;
+                    ties = 1;
+                }
+                else if (this.scores[cell] == this.scores[best]) {
+                    ties += 1;
+                    if (this.rand.nextInt(ties) == 0) {
+                        best = cell;
+                    } else {}
+                } else {}
+            } else {}
+        }
+        return best;
+    }
+
+    @Override
+    public boolean getHeatmap(double[] heatmap) {
+        for (int cell = 0; cell < 100; cell++) {
+            heatmap[cell] = this.scores[cell];
+        }
+        return true;
+    }
+
+    @Override
+    public void recordShot(int cell, int result) {
+        int type = Map.shotResultType(result);
+        if (type == Map.SHOT_MISS) {
+            this.block(cell);
+        }
+        else if (type == Map.SHOT_HIT) {
+            BitBoard.set(this.hitBits, cell);
+            this.hitsNotSunk += 1;
+        }
+        else if (type == Map.SHOT_SUNK) {
+            // every space of the sunk Ship is ruled out for the other Ships
+            Ship sh = this.opponentMap.getShipAt(cell / 10, cell % 10);
+            int shipCell = Map.cellIndex(sh.getRowCoordinate(), sh.getColumnCoordinate());
+            int step = sh.isHorizontal() ? 1 : 10;
+            for (int i = 0; i < sh.getSize(); i++) {
+                if (BitBoard.get(this.hitBits, shipCell)) {
+                    BitBoard.clear(this.hitBits, shipCell);
+                    this.hitsNotSunk -= 1;
+                } else {}
+                this.block(shipCell);
+                shipCell += step;
+            }
+        } else {}
+    }
+
+    public static void main(String[] args){
+        System.out.println("Testing ProbabilityDensityStrategy.java");
+        int uErrors = 0; // number of unintentional errors
+
+        // test ProbabilityDensityStrategy() constructor, the coverage tables are only built for 10x10 Maps
+        try {
+            new ProbabilityDensityStrategy(new Map(new BoardGeometry(12, 12)), new Random(1));
+            System.out.println("Error: ProbabilityDensityStrategy() constructor did not throw an exception for a 12x12 Map");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+
+        // test the starting densities on an empty Map with the standard fleet
+        Map m = new Map();
+        m.addShip(5, false, 5, 5);
+        m.addShip(4, true, 9, 6);
+        m.addShip(4, false, 3, 0);
+        m.addShip(3, true, 1, 5);
+        m.addShip(3, true, 2, 5);
+        m.addShip(3, true, 3, 5);
+        m.addShip(2, true, 6, 8);
+        m.addShip(2, true, 2, 1);
+        m.addShip(2, false, 8, 0);
+        m.addShip(2, false, 8, 1);
+        ProbabilityDensityStrategy pds = new ProbabilityDensityStrategy(m, new Random(1));
+        // a corner is covered by 2 placements of every size: 1*2 + 2*2 + 3*2 + 4*2 = 20
+        if (pds.getDensity(0) != 20) {
+            System.out.println("Error: getDensity() returned " + pds.getDensity(0) + " for a corner, expected 20");
+            uErrors += 1;
+        } else {}
+        // space 4E is covered by 2*sz placements of every size: 1*10 + 2*8 + 3*6 + 4*4 = 60
+        if (pds.getDensity(Map.cellIndex(4, 4)) != 60) {
+            System.out.println("Error: getDensity() returned " + pds.getDensity(Map.cellIndex(4, 4)) + " for 4E, expected 60");
+            uErrors += 1;
+        } else {}
+
+        // a miss at 0B leaves only the vertical placements for 0A
+        int result = m.shoot(0, 1);
+        pds.recordShot(Map.cellIndex(0, 1), result);
+        if (pds.getDensity(0) != 10 || pds.getDensity(1) != 0) {
+            System.out.println("Error: a miss did not remove the placements that cover it");
+            uErrors += 1;
+        } else {}
+
+        // after a hit the next shot should be next to it
+        result = m.shoot(5, 5);
+        pds.recordShot(Map.cellIndex(5, 5), result);
+        int next = pds.chooseShot();
+        int distance = Math.abs(next / 10 - 5) + Math.abs(next % 10 - 5);
+        if (distance != 1) {
+            System.out.println("Error: chooseShot() did not pick a space next to a hit, picked " + next);
+            uErrors += 1;
+        } else {}
+
+        // play full games and compare against the checkerboard ComputerPlayer
+        int games = 300;
+        long densityShots = 0;
+        long checkerShots = 0;
+        long timedMoves = 0;
+        long moveNanos = 0;
+        for (int g = 0; g < games; g++) {
+            Map densityMap = new Map();
+            densityMap.addShipsRandomly(new Random(g));
+            ComputerPlayer densityCP = new ComputerPlayer(densityMap, new Random(g));
+            densityCP.setTargetingStrategy(new ProbabilityDensityStrategy(densityMap, new Random(g)));
+            boolean madeNextShot = true;
+            while (!densityCP.computerPlayerWon() && madeNextShot) {
+                long start = System.nanoTime();
+                madeNextShot = densityCP.makeNextShot();
+                // leave the first games out of the timing while the JIT warms up
+                if (g >= games / 2) {
+                    moveNanos += System.nanoTime() - start;
+                    timedMoves += 1;
+                } else {}
+                densityShots += 1;
+            }
+            if (!densityCP.computerPlayerWon()) {
+                System.out.println("Error: a ComputerPlayer using a ProbabilityDensityStrategy did not win");
+                uErrors += 1;
+            } else {}
+
+            Map checkerMap = new Map();
+            checkerMap.addShipsRandomly(new Random(g));
+            ComputerPlayer checkerCP = new ComputerPlayer(checkerMap, new Random(g));
+            while (!checkerCP.computerPlayerWon() && checkerCP.makeNextShot()) {
+                checkerShots += 1;
+            }
+        }
+        System.out.println("Average shots to win, probability density: " + (double) densityShots / games
+                + ", checkerboard: " + (double) checkerShots / games);
+        System.out.println("Average time per move: " + moveNanos / timedMoves / 1000.0 + " microseconds");
+        if (densityShots >= checkerShots) {
+            System.out.println("Error: the ProbabilityDensityStrategy did not need fewer shots than the checkerboard");
+            uErrors += 1;
+        } else {}
+        if (moveNanos / timedMoves > 1000000) {
+            System.out.println("Error: the ProbabilityDensityStrategy took more than a millisecond per move");
+            uErrors += 1;
+        } else {}
+
+        System.out.println("Testing complete with " + uErrors + " unintentional errors.");
+    }
+}
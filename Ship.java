@@ -1,8 +1,13 @@
 /**
  * Code Written by Jackson L. Davis
  *
- * A Ship occupies anywhere from 2 to 5 spaces on a Map.
+ * A Ship occupies anywhere from FleetSpec.MIN_SHIP_SIZE to FleetSpec.MAX_SHIP_SIZE spaces on a Map,
+ * the Ships of a normal game are 2 to 5 spaces long (see FleetSpec.STANDARD).
  * A Ship can be placed on the Map horizontally or vertically.
+ *
+ * A Ship knows which of its spaces have been hit. Its spaces are numbered from 0 at the top or left side,
+ * and bit i of the hit mask is set when space i has been hit. A Ship of up to 64 spaces keeps its mask
+ * in a single long, so it needs no objects besides itself, a longer Ship keeps one long for every 64 spaces.
  */
 public class Ship {
     private final int size;
@@ -12,7 +17,9 @@ public class Ship {
     private final int rowCoord;
     private final int colCoord;
 
-    private int hits;
+    private int hits; // the number of bits set in the hit mask
+    private long hitMask; // the hits of spaces 0 to 63
+    private final long[] longHitMask; // the hits of every space for a Ship longer than 64 spaces, null otherwise
 
     /**
      * Constructor method for a new Ship object
@@ -20,10 +27,12 @@ public class Ship {
      * @param horiz orientation of the Ship, true for horizontal, false for vertical
      * @param rowc row coordinate of the top or left side of the Ship
      * @param colc column coordinate of the top or left side of the Ship
+     * @throws RuntimeException if the size is not between FleetSpec.MIN_SHIP_SIZE and FleetSpec.MAX_SHIP_SIZE
      */
     public Ship(int sz, boolean horiz, int rowc, int colc) {
-        if (sz < 2 || sz > 5) {
-            throw new RuntimeException("Ship must have size of at least 2 and no greater than 5");
+        if (sz < FleetSpec.MIN_SHIP_SIZE || sz > FleetSpec.MAX_SHIP_SIZE) {
+            throw new RuntimeException("Ship must have size of at least " + FleetSpec.MIN_SHIP_SIZE
+                    + " and no greater than " + FleetSpec.MAX_SHIP_SIZE);
         }
         else {
             this.size = sz;
@@ -31,6 +40,8 @@ public class Ship {
             this.rowCoord = rowc;
             this.colCoord = colc;
             this.hits = 0;
+            this.hitMask = 0;
+            this.longHitMask = sz > Long.SIZE ? new long[(sz + Long.SIZE - 1) / Long.SIZE] : null;
         }
     }
 
@@ -70,28 +81,261 @@ public class Ship {
     }
 
     /**
-     * Add a hit to the Ship
-     * @postcond hits increases by 1
+     * @return the number of spaces of the Ship that have not been hit
+     */
+    public int getRemainingSpaces() {
+        return this.size - this.hits;
+    }
+
+    /**
+     * Get the number of a space of the Ship
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return the number of the space, 0 at the top or left side, or -1 if the Ship does not cover the space
+     */
+    public int spaceIndex(int rowc, int colc) {
+        if (!this.coversSpace(rowc, colc)) {
+            return -1;
+        } else {}
+        return this.horizontal ? colc - this.colCoord : rowc - this.rowCoord;
+    }
+
+    /**
+     * @param index the number of a space of the Ship
+     * @precond 0 <= index < size
+     * @return the row coordinate of the space
+     */
+    public int spaceRow(int index) {
+        return this.horizontal ? this.rowCoord : this.rowCoord + index;
+    }
+
+    /**
+     * @param index the number of a space of the Ship
+     * @precond 0 <= index < size
+     * @return the column coordinate of the space
+     */
+    public int spaceColumn(int index) {
+        return this.horizontal ? this.colCoord + index : this.colCoord;
+    }
+
+    /**
+     * Determine if a space of the Ship has been hit
+     * @param index the number of the space
+     * @precond 0 <= index < size
+     * @return true if the space has been hit, false otherwise
+     */
+    public boolean isSpaceHit(int index) {
+        if (this.longHitMask == null) {
+            return (this.hitMask & (1L << index)) != 0;
+        }
+        else {
+            return (this.longHitMask[index >>> 6] & (1L << index)) != 0;
+        }
+    }
+
+    /**
+     * Determine if the Ship has been hit at a space
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return true if the Ship covers the space and it has been hit, false otherwise
+     */
+    public boolean isHitAt(int rowc, int colc) {
+        int index = this.spaceIndex(rowc, colc);
+        return index >= 0 && this.isSpaceHit(index);
+    }
+
+    /**
+     * Get the hits of a Ship of up to 64 spaces
+     * @precond size <= 64
+     * @return the hit mask, bit i is set if space i has been hit
+     * @throws RuntimeException if the Ship is longer than 64 spaces
+     */
+    public long getHitMask() {
+        if (this.longHitMask != null) {
+            throw new RuntimeException("Error in getHitMask(): the Ship is longer than 64 spaces");
+        } else {}
+        return this.hitMask;
+    }
+
+    /**
+     * Find the first space of the Ship that has not been hit, starting from a space
+     * @param from the number of the space to start from
+     * @precond from >= 0
+     * @return the number of the first space at or after from that has not been hit, or -1 if there is none
+     */
+    public int nextUnhitSpace(int from) {
+        if (this.longHitMask == null) {
+            if (from >= this.size) {
+                return -1;
+            } else {}
+            int index = Long.numberOfTrailingZeros(~this.hitMask & (-1L << from));
+            return index < this.size ? index : -1;
+        }
+        else {
+            for (int w = from >>> 6; w < this.longHitMask.length && from < this.size; w++) {
+                long unhit = ~this.longHitMask[w] & (w == from >>> 6 ? -1L << from : -1L);
+                if (unhit != 0) {
+                    int index = (w << 6) + Long.numberOfTrailingZeros(unhit);
+                    return index < this.size ? index : -1;
+                } else {}
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Hit a space of the Ship
+     * @param index the number of the space
+     * @precond 0 <= index < size
+     * @postcond the space is marked as hit
+     * @return true if the space had not been hit before, false if it had, so a space is never counted twice
+     */
+    public boolean addHit(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new RuntimeException("Error in addHit(): the Ship has no space " + index);
+        } else {}
+        long bit = 1L << index;
+        boolean isNew;
+        if (this.longHitMask == null) {
+            isNew = (this.hitMask & bit) == 0;
+            this.hitMask |= bit;
+        }
+        else {
+            isNew = (this.longHitMask[index >>> 6] & bit) == 0;
+            this.longHitMask[index >>> 6] |= bit;
+        }
+        if (isNew) {
+            this.hits += 1;
+        } else {}
+        return isNew;
+    }
+
+    /**
+     * Hit the Ship at a space
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @postcond the space is marked as hit
+     * @return true if the space had not been hit before, false if it had
+     * @throws RuntimeException if the Ship does not cover the space
+     */
+    public boolean addHit(int rowc, int colc) {
+        int index = this.spaceIndex(rowc, colc);
+        if (index < 0) {
+            throw new RuntimeException("Error in addHit(): the Ship does not cover the space");
+        } else {}
+        return this.addHit(index);
+    }
+
+    /**
+     * Hit the first space of the Ship that has not been hit
+     * @postcond hits increases by 1 if the Ship has not sunk
      */
     public void addHit() {
-        this.hits += 1;
+        int index = this.nextUnhitSpace(0);
+        if (index >= 0) {
+            this.addHit(index);
+        } else {}
+    }
+
+    /**
+     * Take back the hit on a space of the Ship, used when a shot is undone
+     * @param index the number of the space
+     * @precond the space has been hit
+     * @postcond the space is no longer marked as hit
+     * @throws RuntimeException if the space has not been hit
+     */
+    public void removeHit(int index) {
+        if (index < 0 || index >= this.size || !this.isSpaceHit(index)) {
+            throw new RuntimeException("Error in removeHit(): space " + index + " of the Ship has not been hit");
+        } else {}
+        long bit = 1L << index;
+        if (this.longHitMask == null) {
+            this.hitMask &= ~bit;
+        }
+        else {
+            this.longHitMask[index >>> 6] &= ~bit;
+        }
+        this.hits -= 1;
+    }
+
+    /**
+     * Take back the hit on the Ship at a space, used when a shot is undone
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @precond the Ship covers the space and it has been hit
+     * @throws RuntimeException if the space has not been hit
+     */
+    public void removeHit(int rowc, int colc) {
+        this.removeHit(this.spaceIndex(rowc, colc));
+    }
+
+    /**
+     * Take back the hit on the last space of the Ship that has been hit
+     * @precond the Ship has at least one hit
+     * @postcond hits decreases by 1
+     * @throws RuntimeException if the Ship has no hits
+     */
+    public void removeHit() {
+        if (this.hits <= 0) {
+            throw new RuntimeException("Error in removeHit(): the Ship has no hits");
+        } else {}
+        int index = this.size - 1;
+        while (!this.isSpaceHit(index)) {
+            index -= 1;
+        }
+        this.removeHit(index);
     }
 
     /**
      * Determine if the Ship has sunk
-     * @return true if the Ship has as many hits as its length, false otherwise
+     * @return true if every space of the Ship has been hit, false otherwise
      */
     public boolean hasShipSunk() {
-        return this.hits >= this.size;
+        if (this.longHitMask == null) {
+            // the mask of a Ship of 64 spaces is every bit, -1L >>> 0 is still -1L
+            return this.hitMask == -1L >>> (Long.SIZE - this.size);
+        }
+        else {
+            return this.hits == this.size;
+        }
+    }
+
+    /**
+     * Determine if the Ship covers a space
+     * @param rowc the row coordinate of the space
+     * @param colc the column coordinate of the space
+     * @return true if the space is one of the Ship's spaces, false otherwise
+     */
+    public boolean coversSpace(int rowc, int colc) {
+        if (this.horizontal) {
+            return rowc == this.rowCoord && colc >= this.colCoord && colc - this.colCoord < this.size;
+        }
+        else {
+            return colc == this.colCoord && rowc >= this.rowCoord && rowc - this.rowCoord < this.size;
+        }
+    }
+
+    /**
+     * Determine if two Ships share a space, by comparing the rectangles they cover
+     * @param other the other Ship
+     * @return true if the Ships overlap, false otherwise
+     */
+    public boolean overlaps(Ship other) {
+        int lastRow = this.horizontal ? this.rowCoord : this.rowCoord + this.size - 1;
+        int lastCol = this.horizontal ? this.colCoord + this.size - 1 : this.colCoord;
+        int otherLastRow = other.horizontal ? other.rowCoord : other.rowCoord + other.size - 1;
+        int otherLastCol = other.horizontal ? other.colCoord + other.size - 1 : other.colCoord;
+        return this.rowCoord <= otherLastRow && other.rowCoord <= lastRow
+                && this.colCoord <= otherLastCol && other.colCoord <= lastCol;
     }
 
     public static void main(String[] args){
         System.out.println("Testing Ship.java");
         int uErrors = 0; // number of unintentional errors
 
-        // test Ship() constructor with invalid size
+        // test Ship() constructor with invalid size, the limits come from FleetSpec
         try {
-            Ship tooShort = new Ship(1, true, 0, 0);
+            Ship tooShort = new Ship(FleetSpec.MIN_SHIP_SIZE - 1, true, 0, 0);
             System.out.println("Error: Ship() constructor did not throw an exception for a Ship that is too short.");
             uErrors += 1;
         }
@@ -99,7 +343,7 @@ public class Ship {
             // expected result
         }
         try {
-            Ship tooLong = new Ship(6, true, 0, 0);
+            Ship tooLong = new Ship(FleetSpec.MAX_SHIP_SIZE + 1, true, 0, 0);
             System.out.println("Error: Ship() constructor did not throw an exception for a Ship that is too long.");
             uErrors += 1;
         }
@@ -107,21 +351,22 @@ public class Ship {
             // expected result
         }
 
-        // test Ship() constructor with valid size
-        try {
-            Ship minSize = new Ship(2, true, 0, 0);
-        }
-        catch (Exception e) {
-            System.out.println("Error: Ship() constructor threw an exception for a Ship with a valid size.");
-            uErrors += 1;
-        }
-        try {
-            Ship maxSize = new Ship(5, true, 0, 0);
+        // test Ship() constructor with valid size, the sizes of the standard fleet and sizes outside it
+        int[] validSizes = {FleetSpec.MIN_SHIP_SIZE, 2, 5, 6, 1000, FleetSpec.MAX_SHIP_SIZE};
+        for (int sz : validSizes) {
+            try {
+                Ship validSize = new Ship(sz, true, 0, 0);
+            }
+            catch (Exception e) {
+                System.out.println("Error: Ship() constructor threw an exception for a Ship with a valid size of " + sz + ".");
+                uErrors += 1;
+            }
         }
-        catch (Exception e) {
-            System.out.println("Error: Ship() constructor threw an exception for a Ship with a valid size.");
+        Ship longShip = new Ship(1000, false, 5, 7);
+        if (!longShip.coversSpace(1004, 7) || longShip.coversSpace(1005, 7)) {
+            System.out.println("Error: coversSpace() did not find the spaces of a Ship of size 1000");
             uErrors += 1;
-        }
+        } else {}
 
         // assuming that the Ship() constructor works,
         // test getSize(), isHorizontal(), getRowCoordinate(), getColumnCoordinate(), getHits(), and hasShipSunk()
@@ -179,6 +424,106 @@ public class Ship {
             uErrors += 1;
         } else {}
 
+        // test removeHit(), a sunk Ship is afloat again after losing a hit
+        sizeTwo.removeHit();
+        if (sizeTwo.getHits() != 1 || sizeTwo.hasShipSunk()) {
+            System.out.println("Error: removeHit() did not take back a hit from a sunk Ship");
+            uErrors += 1;
+        } else {}
+        sizeTwo.removeHit();
+        try {
+            sizeTwo.removeHit();
+            System.out.println("Error: removeHit() did not throw an exception for a Ship with no hits");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+
+        // test addHit() and removeHit() on a space, a space is only counted once
+        Ship marked = new Ship(4, true, 2, 3);
+        if (!marked.addHit(2, 5) || marked.addHit(2, 5) || marked.addHit(2) || marked.getHits() != 1
+                || marked.getHitMask() != 0b0100 || !marked.isHitAt(2, 5) || marked.isHitAt(2, 4) || marked.isHitAt(3, 5)) {
+            System.out.println("Error: addHit() counted a space of a Ship more than once");
+            uErrors += 1;
+        } else {}
+        if (marked.nextUnhitSpace(0) != 0 || marked.nextUnhitSpace(2) != 3 || marked.getRemainingSpaces() != 3) {
+            System.out.println("Error: nextUnhitSpace() did not find the spaces that have not been hit");
+            uErrors += 1;
+        } else {}
+        marked.addHit(0);
+        marked.addHit(1);
+        marked.addHit(3);
+        if (!marked.hasShipSunk() || marked.nextUnhitSpace(0) != -1 || marked.getHitMask() != 0b1111) {
+            System.out.println("Error: hasShipSunk() returned false for a Ship with every space hit");
+            uErrors += 1;
+        } else {}
+        marked.removeHit(2, 4);
+        if (marked.hasShipSunk() || marked.nextUnhitSpace(0) != 1 || marked.spaceColumn(1) != 4 || marked.spaceRow(1) != 2) {
+            System.out.println("Error: removeHit() did not take back the hit on one space");
+            uErrors += 1;
+        } else {}
+        try {
+            marked.removeHit(1);
+            System.out.println("Error: removeHit() did not throw an exception for a space that has not been hit");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+        try {
+            marked.addHit(0, 0);
+            System.out.println("Error: addHit() did not throw an exception for a space the Ship does not cover");
+            uErrors += 1;
+        }
+        catch (Exception e) {
+            // expected result
+        }
+
+        // a Ship of exactly 64 spaces keeps every bit of its mask, a Ship of 1000 spaces uses more than one long
+        Ship full = new Ship(64, true, 0, 0);
+        for (int i = 0; i < 63; i++) {
+            full.addHit(i);
+        }
+        if (full.hasShipSunk() || full.nextUnhitSpace(0) != 63) {
+            System.out.println("Error: a Ship of 64 spaces sank before its last space was hit");
+            uErrors += 1;
+        } else {}
+        full.addHit(63);
+        if (!full.hasShipSunk() || full.getHitMask() != -1L) {
+            System.out.println("Error: a Ship of 64 spaces did not sink when every space was hit");
+            uErrors += 1;
+        } else {}
+        for (int i = 0; i < 1000; i++) {
+            if (i != 640) {
+                longShip.addHit(i);
+            } else {}
+        }
+        if (longShip.hasShipSunk() || longShip.nextUnhitSpace(0) != 640 || longShip.nextUnhitSpace(641) != -1
+                || !longShip.isHitAt(1004, 7) || longShip.getRemainingSpaces() != 1) {
+            System.out.println("Error: the hits of a Ship of size 1000 were not kept");
+            uErrors += 1;
+        } else {}
+        longShip.addHit(645, 7);
+        if (!longShip.hasShipSunk()) {
+            System.out.println("Error: a Ship of size 1000 did not sink when every space was hit");
+            uErrors += 1;
+        } else {}
+
+        // test coversSpace() and overlaps()
+        Ship across = new Ship(4, true, 2, 3);
+        Ship down = new Ship(3, false, 0, 5);
+        if (!across.coversSpace(2, 3) || !across.coversSpace(2, 6) || across.coversSpace(2, 7) || across.coversSpace(3, 3)
+                || !down.coversSpace(2, 5) || down.coversSpace(3, 5)) {
+            System.out.println("Error: coversSpace() did not find the spaces of a Ship");
+            uErrors += 1;
+        } else {}
+        if (!across.overlaps(down) || !down.overlaps(across) || across.overlaps(new Ship(3, false, 3, 3))
+                || down.overlaps(new Ship(2, true, 0, 6)) || !across.overlaps(across)) {
+            System.out.println("Error: overlaps() did not tell which Ships share a space");
+            uErrors += 1;
+        } else {}
+
         System.out.println("Testing complete with " + uErrors + " unintentional errors.");
     }
 }
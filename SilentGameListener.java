@@ -0,0 +1,26 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A SilentGameListener ignores every game event. It is the listener a Map starts out with,
+ * so games played by the Simulator or the Benchmark do not spend any time on output.
+ * Every method is empty, so calls to it are cheap enough to be removed by the JIT.
+ */
+public class SilentGameListener implements GameEventListener {
+    // the listener is stateless, so every Map shares this one
+    public static final SilentGameListener INSTANCE = new SilentGameListener();
+
+    @Override
+    public void shotFired(Map m, int rowc, int colc) {}
+
+    @Override
+    public void missed(Map m, int rowc, int colc) {}
+
+    @Override
+    public void hit(Map m, int rowc, int colc) {}
+
+    @Override
+    public void sunk(Map m, int rowc, int colc, int shipSize) {}
+
+    @Override
+    public void gameOver(Map m) {}
+}
@@ -0,0 +1,351 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A Simulator plays many games of a ComputerPlayer against Maps with randomly placed Ships without printing
+ * anything, so that changes to the ComputerPlayer can be measured.
+ * The games are split into tasks on a fork-join pool, every task keeps its own totals, and the totals are added
+ * to shared lock-free counters when the task is done.
+ * Every game gets its own SplittableRandom, seeded from the master seed and the number of the game,
+ * so a run is the same bit for bit no matter how many threads play it, and no generator is shared between threads.
+ *
+ * A DecisionCache can be shared by the strategies of every game, which are then wrapped in CachedStrategies.
+ * The games that find a decision in the cache depend on which games ran first, so a run with a cache
+ * is only the same bit for bit on one thread.
+ *
+ * Run it with: java Simulator [games] [threads] [seed] [strategy] [cacheSize]
+ * where strategy is "checkerboard" (the default), "density", or "montecarlo",
+ * and cacheSize is the number of decisions a shared DecisionCache holds (0, the default, for no cache).
+ */
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+public class Simulator {
+    private static final int GAMES_PER_TASK = 256;
+    private static final int MONTE_CARLO_SAMPLES = 1000; // samples per shot for the "montecarlo" strategy
+
+    private final String strategyName; // see createStrategy()
+    private final AtomicLongArray shotsToWin; // entry i is the number of games the ComputerPlayer won in i shots
+    private final AtomicLongArray cellHits;   // entry i is the number of times space i was hit
+    private final LongAdder gamesPlayed;
+    private final LongAdder unfinishedGames;  // games where the ComputerPlayer stopped before winning
+    private long elapsedNanos;
+    private int threadsUsed;
+    private DecisionCache decisionCache; // shared by the strategies of every game, null for no cache
+
+    /**
+     * Constructor method for a Simulator, the Simulator starts out with no games played
+     * @param strategy the name of the TargetingStrategy the ComputerPlayer uses, see createStrategy()
+     */
+    public Simulator(String strategy) {
+        this.strategyName = strategy;
+        this.shotsToWin = new AtomicLongArray(101);
+        this.cellHits = new AtomicLongArray(100);
+        this.gamesPlayed = new LongAdder();
+        this.unfinishedGames = new LongAdder();
+        this.elapsedNanos = 0;
+        this.threadsUsed = 0;
+        this.decisionCache = null;
+    }
+
+    /**
+     * Share a DecisionCache between the strategies of every game played from now on
+     * @param dc the cache, or null to play without one
+     */
+    public void setDecisionCache(DecisionCache dc) {
+        this.decisionCache = dc;
+    }
+
+    /**
+     * Play games of a ComputerPlayer against randomly placed Ships across several threads
+     * @param games the number of games to play
+     * @param threads the number of threads to play the games on
+     * @param seed the master seed that the random number generator of every game is derived from
+     * @precond games >= 0 && threads >= 1
+     * @postcond the results of the games are added to the totals of this Simulator
+     */
+    public void run(long games, int threads, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try {
+            pool.invoke(new GameTask(0, games, seed));
+        }
+        finally {
+            pool.shutdown();
+        }
+        this.elapsedNanos += System.nanoTime() - start;
+        this.threadsUsed = threads;
+    }
+
+    /**
+     * Derive the seed of one game from the master seed, using the SplitMix64 mixing function
+     * so that the seeds of neighbouring games have nothing in common
+     * @param seed the master seed
+     * @param game the number of the game
+     * @return the seed for the random number generator of the game
+     */
+    public static long gameSeed(long seed, long game) {
+        long z = seed + (game + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Create a TargetingStrategy by name
+     * @param name "checkerboard" for the ComputerPlayer's own checkerboard search, "density", or "montecarlo"
+     * @param m the opponent's Map
+     * @param rand the random number generator for the strategy
+     * @return the strategy, or null for the checkerboard search
+     * @throws IllegalArgumentException if the name is not a known strategy
+     */
+    public static TargetingStrategy createStrategy(String name, Map m, RandomGenerator rand) {
+        if (name.equals("checkerboard")) {
+            return null;
+        }
+        else if (name.equals("density")) {
+            return new ProbabilityDensityStrategy(m, rand);
+        }
+        else if (name.equals("montecarlo")) {
+            return new MonteCarloStrategy(m, rand, MONTE_CARLO_SAMPLES);
+        }
+        else {
+            throw new IllegalArgumentException("Unknown strategy: " + name);
+        }
+    }
+
+    /**
+     * Play one silent game of a ComputerPlayer against a Map with randomly placed Ships
+     * @param rand the random number generator for the Ship placement and the ComputerPlayer
+     * @param cellHitCounts entry i is increased by 1 if space i is hit
+     * @param strategy the name of the TargetingStrategy the ComputerPlayer uses, see createStrategy()
+     * @return the number of shots the ComputerPlayer made, or -1 if it stopped before winning
+     */
+    public static int playGame(RandomGenerator rand, long[] cellHitCounts, String strategy) {
+        return playGame(rand, cellHitCounts, strategy, null);
+    }
+
+    /**
+     * Play one silent game of a ComputerPlayer against a Map with randomly placed Ships
+     * @param rand the random number generator for the Ship placement and the ComputerPlayer
+     * @param cellHitCounts entry i is increased by 1 if space i is hit
+     * @param strategy the name of the TargetingStrategy the ComputerPlayer uses, see createStrategy()
+     * @param dc a DecisionCache to put in front of the strategy, or null for none,
+     *           the checkerboard search is never cached because it is not a TargetingStrategy
+     * @return the number of shots the ComputerPlayer made, or -1 if it stopped before winning
+     */
+    public static int playGame(RandomGenerator rand, long[] cellHitCounts, String strategy, DecisionCache dc) {
+        Map m = new Map();
+        m.addShipsRandomly(rand);
+        ComputerPlayer cp = new ComputerPlayer(m, rand);
+        TargetingStrategy ts = createStrategy(strategy, m, rand);
+        if (ts != null && dc != null) {
+            ts = new CachedStrategy(ts, m, dc);
+        } else {}
+        cp.setTargetingStrategy(ts);
+        int shots = 0;
+        while (!cp.computerPlayerWon() && cp.makeNextShot()) {
+            shots += 1;
+        }
+        for (int cell = 0; cell < 100; cell++) {
+            if (m.isHit(cell / 10, cell % 10)) {
+                cellHitCounts[cell] += 1;
+            } else {}
+        }
+        if (cp.computerPlayerWon()) {
+            return shots;
+        }
+        else {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the number of games played so far
+     */
+    public long getGamesPlayed() {
+        return this.gamesPlayed.sum();
+    }
+
+    /**
+     * @param shots a number of shots
+     * @return the number of games the ComputerPlayer won in exactly that many shots
+     */
+    public long getGamesWonInShots(int shots) {
+        return this.shotsToWin.get(shots);
+    }
+
+    /**
+     * @param rowc the row coordinate of a space
+     * @param colc the column coordinate of a space
+     * @return the number of times the space was hit over all games
+     */
+    public long getCellHits(int rowc, int colc) {
+        return this.cellHits.get(Map.cellIndex(rowc, colc));
+    }
+
+    /**
+     * @return the average number of shots the ComputerPlayer needed to win, 0 if no games were won
+     */
+    public double averageShotsToWin() {
+        long won = 0;
+        long shots = 0;
+        for (int i = 0; i < this.shotsToWin.length(); i++) {
+            won += this.shotsToWin.get(i);
+            shots += i * this.shotsToWin.get(i);
+        }
+        if (won == 0) {
+            return 0;
+        }
+        else {
+            return (double) shots / won;
+        }
+    }
+
+    /**
+     * @return the number of games played per second of wall clock time
+     */
+    public double gamesPerSecond() {
+        if (this.elapsedNanos == 0) {
+            return 0;
+        }
+        else {
+            return this.getGamesPlayed() * 1e9 / this.elapsedNanos;
+        }
+    }
+
+    /**
+     * Summarize the games played so far
+     * @return a String with the throughput, the shots-to-win histogram, and the hit frequency of every space
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        long games = this.getGamesPlayed();
+        sb.append("Games played: ").append(games).append(" on ").append(this.threadsUsed).append(" threads");
+        sb.append(" with the ").append(this.strategyName).append(" strategy\n");
+        sb.append(String.format("Time: %.3f s, %.0f games/sec%n", this.elapsedNanos / 1e9, this.gamesPerSecond()));
+        sb.append(String.format("Average shots to win: %.2f%n", this.averageShotsToWin()));
+        sb.append("Unfinished games: ").append(this.unfinishedGames.sum()).append("\n");
+        sb.append("Shots to win histogram:\n");
+        for (int i = 0; i < this.shotsToWin.length(); i++) {
+            if (this.shotsToWin.get(i) > 0) {
+                sb.append(String.format("%4d %10d%n", i, this.shotsToWin.get(i)));
+            } else {}
+        }
+        if (this.decisionCache != null) {
+            sb.append(this.decisionCache.statistics()).append("\n");
+        } else {}
+        sb.append("Hit frequency of every space (percent of games):\n");
+        sb.append("   |     A     B     C     D     E     F     G     H     I     J\n");
+        for (int r = 0; r < 10; r++) {
+            sb.append(" ").append(r).append(" |");
+            for (int c = 0; c < 10; c++) {
+                double percent = games == 0 ? 0 : 100.0 * this.getCellHits(r, c) / games;
+                sb.append(String.format("%6.1f", percent));
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A GameTask plays a range of games, splitting the range in half until it is small enough to play directly
+     */
+    private class GameTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long firstGame;
+        private final long lastGame; // exclusive
+        private final long seed;
+
+        /**
+         * Constructor method for a GameTask
+         * @param first the number of the first game in the range
+         * @param last one more than the number of the last game in the range
+         * @param sd the seed of the whole simulation
+         */
+        GameTask(long first, long last, long sd) {
+            this.firstGame = first;
+            this.lastGame = last;
+            this.seed = sd;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.lastGame - this.firstGame > GAMES_PER_TASK) {
+                long middle = (this.firstGame + this.lastGame) >>> 1;
+                invokeAll(new GameTask(this.firstGame, middle, this.seed), new GameTask(middle, this.lastGame, this.seed));
+            }
+            else {
+                long[] localShotsToWin = new long[101];
+                long[] localCellHits = new long[100];
+                long unfinished = 0;
+                for (long g = this.firstGame; g < this.lastGame; g++) {
+                    int shots = playGame(new SplittableRandom(gameSeed(this.seed, g)), localCellHits, strategyName, decisionCache);
+                    if (shots >= 0) {
+                        localShotsToWin[shots] += 1;
+                    }
+                    else {
+                        unfinished += 1;
+                    }
+                }
+                // add this task's totals to the shared counters
+                for (int i = 0; i < localShotsToWin.length; i++) {
+                    if (localShotsToWin[i] != 0) {
+                        shotsToWin.addAndGet(i, localShotsToWin[i]);
+                    } else {}
+                }
+                for (int cell = 0; cell < 100; cell++) {
+                    cellHits.addAndGet(cell, localCellHits[cell]);
+                }
+                unfinishedGames.add(unfinished);
+                gamesPlayed.add(this.lastGame - this.firstGame);
+            }
+        }
+    }
+
+    public static void main(String[] args){
+        long games = 100000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        String strategy = "checkerboard";
+        int cacheSize = 0;
+        try {
+            if (args.length > 0) {
+                games = Long.parseLong(args[0]);
+            } else {}
+            if (args.length > 1) {
+                threads = Integer.parseInt(args[1]);
+            } else {}
+            if (args.length > 2) {
+                seed = Long.parseLong(args[2]);
+            } else {}
+            if (args.length > 3) {
+                strategy = args[3];
+                createStrategy(strategy, new Map(), new SplittableRandom());
+            } else {}
+            if (args.length > 4) {
+                cacheSize = Integer.parseInt(args[4]);
+            } else {}
+        }
+        catch (IllegalArgumentException e) {
+            System.out.println("Usage: java Simulator [games] [threads] [seed] [checkerboard|density|montecarlo] [cacheSize]");
+            return;
+        }
+        if (games < 0 || threads < 1 || cacheSize < 0) {
+            System.out.println("Usage: java Simulator [games] [threads] [seed] [checkerboard|density|montecarlo] [cacheSize]");
+            return;
+        } else {}
+
+        System.out.println("Simulating " + games + " games with seed " + seed);
+        Simulator sim = new Simulator(strategy);
+        if (cacheSize > 0) {
+            sim.setDecisionCache(new DecisionCache(cacheSize));
+        } else {}
+        sim.run(games, threads, seed);
+        System.out.print(sim.report());
+    }
+}
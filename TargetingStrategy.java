@@ -0,0 +1,33 @@
+/**
+ * Code Written by Jackson L. Davis
+ *
+ * A TargetingStrategy decides where a ComputerPlayer shoots next.
+ * The ComputerPlayer asks the strategy for a space, shoots at it, and then tells the strategy what happened.
+ * Spaces are given as space numbers (see BoardGeometry.cellIndex()).
+ */
+public interface TargetingStrategy {
+
+    /**
+     * Choose the next space to shoot at
+     * @precond at least one space on the opponent's Map has not been shot at
+     * @return the space number of a space that has not been shot at
+     */
+    int chooseShot();
+
+    /**
+     * Record the result of a shot so that the strategy can use it for later shots
+     * @param cell the space number of the space that was shot at
+     * @param result the result code returned by Map.shoot(int, int)
+     */
+    void recordShot(int cell, int result);
+
+    /**
+     * Copy the score every space got when the last shot was chosen, higher scores are more likely to hold a Ship,
+     * strategies that do not score the spaces leave the array alone
+     * @param heatmap receives the score of every space, at least as long as the number of spaces on the Map
+     * @return true if the scores were copied, false if the strategy keeps no scores
+     */
+    default boolean getHeatmap(double[] heatmap) {
+        return false;
+    }
+}